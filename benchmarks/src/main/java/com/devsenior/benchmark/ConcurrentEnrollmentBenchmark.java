@@ -0,0 +1,106 @@
+package com.devsenior.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.exception.CourseFullException;
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+
+/**
+ * Inscripciones concurrentes sobre un {@link CourseService} en modo concurrente.
+ *
+ * <ul>
+ * <li>{@code spread}: cada hilo inscribe y remueve estudiantes propios en cursos
+ * elegidos al azar entre todos los del registro.</li>
+ * <li>{@code hotCourse}: todos los hilos compiten por los pocos cupos de un mismo
+ * curso; quien no consigue cupo recibe {@link CourseFullException}.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { Fixtures.HEAP, Fixtures.QUIET_LOGS })
+@Threads(8)
+public class ConcurrentEnrollmentBenchmark {
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    /** Cupos del curso disputado; menor que la cantidad de hilos para forzar rechazos. */
+    @Param({ "4" })
+    int hotCapacity;
+
+    CourseService service;
+    Course[] courses;
+    Course hot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        courses = new Course[size];
+        service = Fixtures.courses(size, Integer.MAX_VALUE, true, courses);
+        hot = new Course(Fixtures.code(size), "Curso disputado", hotCapacity);
+        service.addCourse(hot);
+    }
+
+    /**
+     * Estudiantes propios de cada hilo, para que dos hilos nunca inscriban al mismo estudiante.
+     */
+    @State(Scope.Thread)
+    public static class Enroller {
+        private static final int POOL = 256;
+        Student[] students = new Student[POOL];
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int base = ThreadLocalRandom.current().nextInt(1_000_000) * POOL;
+            for (int i = 0; i < POOL; i++) {
+                students[i] = new Student(Fixtures.code(base + i), Fixtures.studentName(base + i), Fixtures.email(base + i));
+            }
+        }
+
+        Student next() {
+            cursor = (cursor + 1) & (POOL - 1);
+            return students[cursor];
+        }
+    }
+
+    @Benchmark
+    public Course spread(Enroller enroller) throws Exception {
+        Course course = courses[ThreadLocalRandom.current().nextInt(size)];
+        Student student = enroller.next();
+        service.enrrolStudent(student, course);
+        service.removeStudentFromCourse(course, student);
+        return course;
+    }
+
+    @Benchmark
+    public boolean hotCourse(Enroller enroller) throws Exception {
+        Student student = enroller.next();
+        try {
+            service.enrrolStudent(student, hot);
+        } catch (CourseFullException e) {
+            return false;
+        }
+        service.removeStudentFromCourse(hot, student);
+        return true;
+    }
+}
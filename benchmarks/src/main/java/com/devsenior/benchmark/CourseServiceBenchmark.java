@@ -0,0 +1,179 @@
+package com.devsenior.benchmark;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.exception.CourseFullException;
+import com.devsenior.exception.CourseNotFoundException;
+import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+
+/**
+ * Operaciones de {@link CourseService} de un solo hilo sobre registros de
+ * 1 mil, 100 mil y 1 millón de cursos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { Fixtures.HEAP, Fixtures.QUIET_LOGS })
+public class CourseServiceBenchmark {
+
+    private static final int STUDENT_POOL = 1024;
+    private static final int PAGE_SIZE = 50;
+    private static final String MISSING_CODE = "no-existe";
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    CourseService service;
+    Course[] courses;
+    Student[] pool;
+    Course roster;
+    Course full;
+    int cursor;
+    String pageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        courses = new Course[size];
+        service = Fixtures.courses(size, Integer.MAX_VALUE, false, courses);
+        pool = new Student[STUDENT_POOL];
+        for (int i = 0; i < STUDENT_POOL; i++) {
+            pool[i] = new Student(Fixtures.code(i), Fixtures.studentName(i), Fixtures.email(i));
+        }
+        roster = courses[0];
+        for (int i = 0; i < size; i++) {
+            Student student = new Student(Fixtures.code(STUDENT_POOL + i), Fixtures.studentName(STUDENT_POOL + i),
+                    Fixtures.email(STUDENT_POOL + i));
+            service.enrrolStudent(student, roster);
+        }
+        full = service.createCourse(Fixtures.courseName(size), "1");
+        service.enrrolStudent(pool[0], full);
+    }
+
+    /**
+     * Registro que se reconstruye en cada iteración para que {@code createCourse}
+     * no agote el espacio de códigos ni el de nombres.
+     */
+    @State(Scope.Benchmark)
+    public static class Creation {
+        CourseService service;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(CourseServiceBenchmark registry) throws Exception {
+            service = Fixtures.courses(registry.size, 30, false, null);
+            next = registry.size;
+        }
+    }
+
+    private int next() {
+        int i = cursor++;
+        if (cursor == size) {
+            cursor = 0;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public Course createCourse(Creation creation) throws Exception {
+        return creation.service.createCourse(Fixtures.courseName(creation.next++), "30");
+    }
+
+    @Benchmark
+    public Course findCourseByCode() throws Exception {
+        return service.findCourseByCode(courses[next()].getCode());
+    }
+
+    @Benchmark
+    public Course findCourseByName() throws Exception {
+        return service.findCourseByName(courses[next()].getName());
+    }
+
+    /**
+     * Inscribe y luego remueve al mismo estudiante, de modo que el registro no cambia
+     * entre invocaciones. Mide el costo de {@code enrrolStudent} más {@code removeStudentFromCourse}.
+     */
+    @Benchmark
+    public Course enrrolAndRemoveStudent() throws Exception {
+        int i = next();
+        Course course = courses[i];
+        Student student = pool[i & (STUDENT_POOL - 1)];
+        service.enrrolStudent(student, course);
+        service.removeStudentFromCourse(course, student);
+        return course;
+    }
+
+    @Benchmark
+    public Map<String, Student> listStudentsByCourse() throws Exception {
+        return service.listStudentsByCourse(roster);
+    }
+
+    /**
+     * Recorre todos los cursos por nombre, una página por invocación, y vuelve a
+     * empezar al llegar al final. El costo debe ser el mismo para cualquier tamaño.
+     */
+    @Benchmark
+    public Page<Course> listCoursesPage() throws Exception {
+        Page<Course> page = service.listCourses(SortOrder.NAME, pageCursor, PAGE_SIZE);
+        pageCursor = page.nextCursor();
+        return page;
+    }
+
+    /**
+     * Búsqueda fallida con la API que lanza excepciones, para comparar con
+     * {@link #tryFindMissingCourse()}.
+     */
+    @Benchmark
+    public Object findMissingCourse() {
+        try {
+            return service.findCourseByCode(MISSING_CODE);
+        } catch (CourseNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Optional<Course> tryFindMissingCourse() {
+        return service.tryFindCourseByCode(MISSING_CODE);
+    }
+
+    /**
+     * Inscripción rechazada por curso lleno con la API que lanza excepciones, para
+     * comparar con {@link #tryEnrollFullCourse()}.
+     */
+    @Benchmark
+    public Object enrrolFullCourse() throws Exception {
+        try {
+            service.enrrolStudent(pool[1 + (next() & (STUDENT_POOL - 2))], full);
+            return null;
+        } catch (CourseFullException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public EnrollmentStatus tryEnrollFullCourse() {
+        return service.tryEnroll(pool[1 + (next() & (STUDENT_POOL - 2))], full);
+    }
+}
@@ -0,0 +1,111 @@
+package com.devsenior.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.devsenior.util.IntRoster;
+
+/**
+ * Compara la memoria que ocupan las listas de inscripción de cursos y
+ * estudiantes con {@link IntRoster} y con un {@link ConcurrentHashMap} por
+ * entidad, como se guardaban antes.
+ *
+ * Arma la misma cantidad de listas e inscripciones (cada una guardada en ambos
+ * sentidos) con las dos estructuras sobre los mismos códigos ya creados y mide
+ * el heap ocupado después de recolectar basura.
+ *
+ * Uso:
+ * {@code java -Xmx4g -cp benchmarks/target/benchmarks.jar com.devsenior.benchmark.EnrollmentFootprint [estudiantes] [cursos] [inscripciones por estudiante]}
+ */
+public class EnrollmentFootprint {
+
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int courseCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int perStudent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String[] studentCodes = codes(studentCount, 100000);
+        String[] courseCodes = codes(courseCount, 900000);
+        long enrollments = (long) studentCount * perStudent;
+
+        long intRosterBytes = footprint(() -> intRosters(studentCodes, courseCodes, perStudent));
+        long hashMapBytes = footprint(() -> hashMaps(studentCodes, courseCodes, perStudent));
+
+        System.out.printf("%d estudiantes, %d cursos, %d inscripciones%n", studentCount, courseCount, enrollments);
+        System.out.printf("%-18s %12s %16s%n", "estructura", "MB", "bytes/inscripcion");
+        print("IntRoster", intRosterBytes, enrollments);
+        print("ConcurrentHashMap", hashMapBytes, enrollments);
+    }
+
+    /**
+     * Heap que ocupa lo armado por {@code build} mientras sigue en uso.
+     */
+    private static long footprint(Supplier<Object> build) {
+        long base = usedHeap();
+        Object built = build.get();
+        long used = usedHeap() - base;
+        Reference.reachabilityFence(built);
+        return used;
+    }
+
+    private static Object intRosters(String[] studentCodes, String[] courseCodes, int perStudent) {
+        Function<String, String> code = Function.identity();
+        List<IntRoster<String>> students = new ArrayList<>(studentCodes.length);
+        List<IntRoster<String>> courses = new ArrayList<>(courseCodes.length);
+        for (int c = 0; c < courseCodes.length; c++) {
+            courses.add(new IntRoster<>(code, 0));
+        }
+        for (int s = 0; s < studentCodes.length; s++) {
+            IntRoster<String> student = new IntRoster<>(code, 0);
+            students.add(student);
+            for (int j = 0; j < perStudent; j++) {
+                int c = (s + j * 7919) % courseCodes.length;
+                student.put(courseCodes[c], courseCodes[c]);
+                courses.get(c).put(studentCodes[s], studentCodes[s]);
+            }
+        }
+        return List.of(students, courses);
+    }
+
+    private static Object hashMaps(String[] studentCodes, String[] courseCodes, int perStudent) {
+        List<Map<String, String>> students = new ArrayList<>(studentCodes.length);
+        List<Map<String, String>> courses = new ArrayList<>(courseCodes.length);
+        for (int c = 0; c < courseCodes.length; c++) {
+            courses.add(new ConcurrentHashMap<>(16));
+        }
+        for (int s = 0; s < studentCodes.length; s++) {
+            Map<String, String> student = new ConcurrentHashMap<>(16);
+            students.add(student);
+            for (int j = 0; j < perStudent; j++) {
+                int c = (s + j * 7919) % courseCodes.length;
+                student.put(courseCodes[c], courseCodes[c]);
+                courses.get(c).put(studentCodes[s], studentCodes[s]);
+            }
+        }
+        return List.of(students, courses);
+    }
+
+    private static String[] codes(int count, int first) {
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = String.valueOf(first + i % (1_000_000 - first));
+        }
+        return codes;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void print(String name, long bytes, long enrollments) {
+        System.out.printf("%-18s %12.1f %16.1f%n", name, bytes / 1048576.0, (double) bytes / enrollments);
+    }
+}
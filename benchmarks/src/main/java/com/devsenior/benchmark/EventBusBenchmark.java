@@ -0,0 +1,100 @@
+package com.devsenior.benchmark;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.events.EventBus;
+import com.devsenior.events.RegistryEvent;
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+/**
+ * Costo de inscribir y remover a un estudiante con el {@link EventBus}
+ * registrado: sin bus, con un suscriptor que consume todo y con uno detenido
+ * que nunca termina de procesar su lote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { Fixtures.HEAP, Fixtures.QUIET_LOGS })
+public class EventBusBenchmark {
+
+    @Param({ "none", "fast", "stalled" })
+    String subscriber;
+
+    CourseService service;
+    EventBus bus;
+    Course course;
+    Student student;
+    CountDownLatch release;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = new CourseService(true);
+        course = service.createCourse("Curso evento", "10");
+        student = new Student("100001", "Ana", "ana@bench.com");
+        release = new CountDownLatch(1);
+        if (!subscriber.equals("none")) {
+            bus = EventBus.attach(service, new StudentService(true));
+            bus.subscribe(new Flow.Subscriber<List<RegistryEvent>>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(List<RegistryEvent> batch) {
+                    if (subscriber.equals("stalled")) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        release.countDown();
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    @Benchmark
+    public void enrollAndRemove() throws Exception {
+        service.enrrolStudent(student, course);
+        service.removeStudentFromCourse(course, student);
+    }
+}
@@ -0,0 +1,83 @@
+package com.devsenior.benchmark;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ *
+ * Los registros se llenan con {@code addCourse}/{@code addStudent} usando códigos
+ * de 8 dígitos, que no consumen el espacio de 6 dígitos del asignador de códigos,
+ * para poder medir registros de hasta un millón de entidades. Las listas de
+ * inscripciones los guardan por su valor numérico igual que a los de 6 dígitos,
+ * así que los benchmarks miden el mismo camino que la aplicación. Los nombres solo
+ * usan letras y espacios para pasar las validaciones.
+ */
+final class Fixtures {
+
+    /** Opciones de JVM comunes: heap suficiente para un millón de entidades y logs silenciados. */
+    static final String HEAP = "-Xmx6g";
+    static final String QUIET_LOGS = "-Dlog4j2.configurationFile=log4j2-benchmark.xml";
+
+    private Fixtures() {}
+
+    /**
+     * Genera un sufijo único compuesto solo de letras minúsculas.
+     */
+    static String letters(int n) {
+        StringBuilder text = new StringBuilder();
+        do {
+            text.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return text.toString();
+    }
+
+    static String code(int n) {
+        return String.valueOf(10_000_000 + n);
+    }
+
+    static String courseName(int n) {
+        return "Curso " + letters(n);
+    }
+
+    static String studentName(int n) {
+        return "Estudiante " + letters(n);
+    }
+
+    static String email(int n) {
+        return "e" + n + "@bench.com";
+    }
+
+    /**
+     * Crea un servicio de cursos con {@code size} cursos de la capacidad indicada.
+     */
+    static CourseService courses(int size, int capacity, boolean concurrent, Course[] out) throws Exception {
+        CourseService service = new CourseService(concurrent);
+        for (int i = 0; i < size; i++) {
+            Course course = new Course(code(i), courseName(i), capacity);
+            service.addCourse(course);
+            if (out != null) {
+                out[i] = course;
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Crea un servicio de estudiantes con {@code size} estudiantes.
+     */
+    static StudentService students(int size, boolean concurrent, Student[] out) throws Exception {
+        StudentService service = new StudentService(concurrent);
+        for (int i = 0; i < size; i++) {
+            Student student = new Student(code(i), studentName(i), email(i));
+            service.addStudent(student);
+            if (out != null) {
+                out[i] = student;
+            }
+        }
+        return service;
+    }
+}
@@ -0,0 +1,77 @@
+package com.devsenior.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.util.IdAllocator;
+import com.devsenior.util.Validator;
+
+/**
+ * Compara el costo de obtener un código único con {@link IdAllocator} frente al
+ * esquema anterior de sortear con {@link Validator#createId()} y reintentar
+ * mientras el código ya exista, con el espacio de códigos ocupado al 0%, 50% y 90%.
+ *
+ * Para que la ocupación no cambie durante la medición, el código entregado por
+ * el asignador se libera enseguida y el sorteo solo consulta los códigos en uso.
+ * El último código queda siempre ocupado: si no, liberar el código más alto haría
+ * que el {@link java.util.BitSet} del asignador recorra todas sus palabras para
+ * encogerse y se mediría eso en lugar de la entrega.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = Fixtures.QUIET_LOGS)
+public class IdAllocatorBenchmark {
+
+    /** Porcentaje del espacio de códigos ya ocupado. */
+    @Param({ "0", "50", "90" })
+    int occupancy;
+
+    IdAllocator allocator;
+    Set<String> used;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int filled = (int) ((long) IdAllocator.RANGE * occupancy / 100);
+        allocator = new IdAllocator();
+        used = new HashSet<>();
+        String last = String.valueOf(IdAllocator.MIN_ID + IdAllocator.RANGE - 1);
+        allocator.markUsed(last);
+        used.add(last);
+        for (int i = 1; i < filled; i++) {
+            used.add(allocator.nextId());
+        }
+    }
+
+    @Benchmark
+    public String allocator() {
+        String id = allocator.nextId();
+        allocator.release(id);
+        return id;
+    }
+
+    @Benchmark
+    public String randomWithRetry() {
+        String id = Validator.createId();
+        while (used.contains(id)) {
+            id = Validator.createId();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,318 @@
+package com.devsenior.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.devsenior.exception.CourseFullException;
+import com.devsenior.metrics.LatencyHistogram;
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.RegistryListener;
+
+/**
+ * Simula la apertura de inscripciones: muchos estudiantes llegan a la vez y se
+ * concentran en unos pocos cursos populares.
+ *
+ * Cada estudiante es una tarea que hace {@code --attempts} operaciones elegidas
+ * según la mezcla {@code --mix}, sobre cursos elegidos con popularidad de Zipf:
+ * <ul>
+ * <li>{@code enroll}: {@link CourseService#enrrolStudent(Student, Course)}, o
+ * {@link CourseService#enrollOrWaitlist(Student, Course)} con {@code --waitlist}.</li>
+ * <li>{@code drop}: {@link CourseService#removeStudentFromCourse(Course, Student)} del
+ * primer curso del estudiante, lo que libera un cupo para la lista de espera.</li>
+ * <li>{@code find}: {@link CourseService#findCourseByCode(String)}.</li>
+ * <li>{@code list}: {@link CourseService#listStudentsByCourse(Course)}, o
+ * {@link CourseService#listCourses()} si el curso aún no tiene inscritos.</li>
+ * </ul>
+ * Al terminar reporta rendimiento, percentiles de latencia por operación,
+ * inscripciones rechazadas por curso lleno o dejadas en espera y las violaciones
+ * de invariantes encontradas (cursos sobrecupados, cupos reservados que no
+ * coinciden con los inscritos, inscripciones que solo aparecen de un lado,
+ * inscripciones avisadas que no quedaron registradas, cupos libres con
+ * estudiantes todavía en espera). Si hay violaciones termina con código 1, para
+ * poder usarlo como prueba de aceptación.
+ *
+ * Uso:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.devsenior.benchmark.RegistrationRush [opciones]}
+ * <pre>
+ *   --students=50000      estudiantes (tareas)
+ *   --courses=200         cursos
+ *   --capacity=100        cupos por curso
+ *   --attempts=5          operaciones por estudiante
+ *   --mix=enroll:70,find:20,list:10
+ *   --zipf=1.0            exponente de popularidad; 0 = uniforme
+ *   --threads=64          hilos de plataforma
+ *   --virtual             un hilo virtual por estudiante en lugar de --threads
+ *   --concurrent=true     modo concurrente de CourseService
+ *   --waitlist            los cursos llenos dejan en espera en lugar de rechazar
+ * </pre>
+ */
+public class RegistrationRush {
+
+    private enum Operation {
+        ENROLL, FIND, LIST, DROP
+    }
+
+    private final Map<String, String> options;
+    private final int studentCount;
+    private final int courseCount;
+    private final int capacity;
+    private final int attempts;
+    private final double zipf;
+    private final int threads;
+    private final boolean virtual;
+    private final boolean concurrent;
+    private final boolean waitlist;
+    private final Operation[] mix = new Operation[100];
+
+    private final Map<Operation, LatencyHistogram> latencies = new HashMap<>();
+    private final LongAdder enrolled = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder waitlisted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder enrollEvents = new LongAdder();
+    private final LongAdder removeEvents = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    RegistrationRush(Map<String, String> options) {
+        this.options = options;
+        studentCount = intOption("students", 50_000);
+        courseCount = intOption("courses", 200);
+        capacity = intOption("capacity", 100);
+        attempts = intOption("attempts", 5);
+        zipf = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+        threads = intOption("threads", 64);
+        virtual = options.containsKey("virtual");
+        concurrent = Boolean.parseBoolean(options.getOrDefault("concurrent", "true"));
+        waitlist = options.containsKey("waitlist");
+        parseMix(options.getOrDefault("mix", "enroll:70,find:20,list:10"));
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("log4j2.configurationFile") == null) {
+            // Los servicios registran cada operación; sin esto se mediría la escritura del log.
+            System.setProperty("log4j2.configurationFile", "log4j2-benchmark.xml");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = option.indexOf('=');
+            options.put(equals < 0 ? option : option.substring(0, equals), equals < 0 ? "" : option.substring(equals + 1));
+        }
+        int violations = new RegistrationRush(options).run();
+        System.exit(violations == 0 ? 0 : 1);
+    }
+
+    /**
+     * Ejecuta la simulación e imprime el reporte.
+     *
+     * @return cantidad de violaciones de invariantes encontradas
+     */
+    int run() throws Exception {
+        CourseService service = new CourseService(concurrent);
+        service.setWaitlistLimit(studentCount);
+        service.addListener(new RegistryListener() {
+            @Override
+            public void studentEnrolled(Course course, Student student) {
+                enrollEvents.increment();
+            }
+
+            @Override
+            public void studentRemoved(Course course, Student student) {
+                removeEvents.increment();
+            }
+        });
+        Course[] courses = new Course[courseCount];
+        for (int i = 0; i < courseCount; i++) {
+            courses[i] = new Course(Fixtures.code(i), Fixtures.courseName(i), capacity);
+            service.addCourse(courses[i]);
+        }
+        Student[] students = new Student[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            students[i] = new Student(Fixtures.code(i), Fixtures.studentName(i), Fixtures.email(i));
+        }
+        ZipfSampler popularity = new ZipfSampler(courseCount, zipf);
+
+        System.out.printf("Estudiantes: %d, cursos: %d x %d cupos, %d operaciones por estudiante, zipf %.2f, %s%n",
+                studentCount, courseCount, capacity, attempts, zipf,
+                virtual ? "hilos virtuales" : threads + " hilos de plataforma");
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = virtual ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads)) {
+            for (Student student : students) {
+                executor.execute(() -> session(service, courses, student, popularity));
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        report(elapsed);
+        return checkInvariants(courses, students);
+    }
+
+    private void session(CourseService service, Course[] courses, Student student, ZipfSampler popularity) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < attempts; i++) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            Course course = courses[popularity.next()];
+            long begin = System.nanoTime();
+            try {
+                switch (operation) {
+                    case ENROLL -> {
+                        if (!waitlist) {
+                            service.enrrolStudent(student, course);
+                            enrolled.increment();
+                        } else {
+                            switch (service.enrollOrWaitlist(student, course)) {
+                                case ENROLLED -> enrolled.increment();
+                                case WAITLISTED -> waitlisted.increment();
+                                case ALREADY_ENROLLED -> duplicates.increment();
+                                default -> rejectedFull.increment();
+                            }
+                        }
+                    }
+                    case FIND -> service.findCourseByCode(course.getCode());
+                    case LIST -> {
+                        if (course.getStudents().isEmpty()) {
+                            service.listCourses();
+                        } else {
+                            service.listStudentsByCourse(course);
+                        }
+                    }
+                    case DROP -> {
+                        Iterator<Course> enrolledIn = student.getCourses().values().iterator();
+                        if (enrolledIn.hasNext()) {
+                            service.removeStudentFromCourse(enrolledIn.next(), student);
+                            dropped.increment();
+                        }
+                    }
+                }
+            } catch (CourseFullException e) {
+                rejectedFull.increment();
+            } catch (Exception e) {
+                if (operation == Operation.ENROLL && student.isEnrolledIn(course)) {
+                    duplicates.increment();
+                } else {
+                    errors.increment();
+                }
+            }
+            latencies.get(operation).record(System.nanoTime() - begin);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        long operations = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            operations += histogram.count();
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Duracion: %.2f s, operaciones: %d, rendimiento: %.0f ops/s%n", seconds, operations,
+                operations / seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s%n", "op", "cantidad", "p50 us", "p90 us", "p99 us",
+                "p99.9 us", "max us");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            System.out.printf("%-8s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", operation.name().toLowerCase(),
+                    histogram.count(), histogram.percentile(0.50) / 1e3, histogram.percentile(0.90) / 1e3,
+                    histogram.percentile(0.99) / 1e3, histogram.percentile(0.999) / 1e3, histogram.max() / 1e3);
+        }
+        System.out.printf("Inscripciones exitosas: %d, rechazadas por curso lleno: %d, repetidas: %d, otros errores: %d%n",
+                enrolled.sum(), rejectedFull.sum(), duplicates.sum(), errors.sum());
+        System.out.printf("En espera: %d, inscritos desde la espera: %d, retiros: %d%n", waitlisted.sum(),
+                enrollEvents.sum() - enrolled.sum(), dropped.sum());
+    }
+
+    /**
+     * Revisa que el estado final sea coherente y reporta cada violación.
+     */
+    private int checkInvariants(Course[] courses, Student[] students) {
+        List<String> violations = new ArrayList<>();
+        long registered = 0;
+        for (Course course : courses) {
+            int size = course.getStudents().size();
+            registered += size;
+            if (size > course.getMaxCapacity()) {
+                violations.add("Curso " + course.getCode() + " sobrecupado: " + size + " de " + course.getMaxCapacity());
+            }
+            if (size < course.getMaxCapacity() && course.getWaitlistSize() > 0) {
+                violations.add("Curso " + course.getCode() + " con cupos libres y " + course.getWaitlistSize()
+                        + " estudiantes en espera");
+            }
+            if (course.getReservedSeats() != size) {
+                violations.add("Curso " + course.getCode() + " con " + course.getReservedSeats()
+                        + " cupos reservados y " + size + " inscritos");
+            }
+            for (Student student : course.getStudents().values()) {
+                if (!student.isEnrolledIn(course)) {
+                    violations.add("Estudiante " + student.getCode() + " en el curso " + course.getCode()
+                            + " sin el curso en su lista");
+                }
+            }
+        }
+        for (Student student : students) {
+            for (Course course : student.getCourses().values()) {
+                if (!course.hasStudent(student)) {
+                    violations.add("Curso " + course.getCode() + " en la lista del estudiante " + student.getCode()
+                            + " sin el estudiante inscrito");
+                }
+            }
+        }
+        if (registered != enrollEvents.sum() - removeEvents.sum()) {
+            violations.add("Inscripciones avisadas " + enrollEvents.sum() + " menos retiros " + removeEvents.sum()
+                    + " pero registradas " + registered);
+        }
+        if (enrollEvents.sum() < enrolled.sum()) {
+            violations.add("Inscripciones exitosas " + enrolled.sum() + " pero avisadas " + enrollEvents.sum());
+        }
+        if (violations.isEmpty()) {
+            System.out.println("Invariantes: OK");
+        } else {
+            System.out.println("Violaciones de invariantes: " + violations.size());
+            violations.stream().limit(20).forEach(violation -> System.out.println("  " + violation));
+        }
+        return violations.size();
+    }
+
+    private void parseMix(String text) {
+        Map<Operation, Integer> weights = new HashMap<>();
+        int total = 0;
+        for (String part : text.split(",")) {
+            String[] pair = part.split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener algun peso positivo: " + text);
+        }
+        int filled = 0;
+        double accumulated = 0;
+        for (Operation operation : Operation.values()) {
+            accumulated += weights.getOrDefault(operation, 0) * 100.0 / total;
+            int until = (int) Math.round(accumulated);
+            while (filled < until && filled < mix.length) {
+                mix[filled++] = operation;
+            }
+        }
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
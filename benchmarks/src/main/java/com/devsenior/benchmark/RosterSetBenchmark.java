@@ -0,0 +1,121 @@
+package com.devsenior.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+
+/**
+ * Consultas de conjuntos entre cursos con los índices de bits de
+ * {@link CourseService} frente a recorrer las listas de inscritos.
+ *
+ * Hay {@value #SECTIONS} secciones de {@code size} inscritos; cada una se
+ * desplaza un décimo de {@code size} respecto de la anterior, así dos secciones
+ * seguidas comparten el 90 % de sus inscritos. Los estudiantes tienen códigos
+ * de 6 dígitos como los que entrega el servicio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { Fixtures.HEAP, Fixtures.QUIET_LOGS })
+public class RosterSetBenchmark {
+
+    private static final int SECTIONS = 20;
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    CourseService service;
+    Course first;
+    Course second;
+    List<Course> sections;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = new CourseService();
+        int shift = size / 10;
+        Student[] students = new Student[size + shift * (SECTIONS - 1)];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = new Student(String.valueOf(100000 + i), Fixtures.studentName(i), Fixtures.email(i));
+        }
+        sections = new ArrayList<>();
+        for (int s = 0; s < SECTIONS; s++) {
+            Course course = new Course(String.valueOf(100000 + s), Fixtures.courseName(s), size);
+            service.addCourse(course);
+            for (int i = 0; i < size; i++) {
+                service.enrrolStudent(students[s * shift + i], course);
+            }
+            sections.add(course);
+        }
+        first = sections.get(0);
+        second = sections.get(1);
+    }
+
+    @Benchmark
+    public int countInBothBitmap() throws Exception {
+        return service.countStudentsInBoth(first, second);
+    }
+
+    @Benchmark
+    public int countInBothRoster() {
+        int count = 0;
+        for (Student student : first.getStudentsSnapshot().values()) {
+            if (second.hasStudent(student)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<Student> onlyInBitmap() throws Exception {
+        return service.listStudentsOnlyIn(first, second);
+    }
+
+    @Benchmark
+    public List<Student> onlyInRoster() {
+        List<Student> result = new ArrayList<>();
+        for (Student student : first.getStudentsSnapshot().values()) {
+            if (!second.hasStudent(student)) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int countInAnyBitmap() throws Exception {
+        return service.countStudentsInAny(sections);
+    }
+
+    @Benchmark
+    public int countInAnyRoster() {
+        Set<String> codes = new HashSet<>();
+        for (Course course : sections) {
+            Map<String, Student> roster = course.getStudentsSnapshot();
+            codes.addAll(roster.keySet());
+        }
+        return codes.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.devsenior.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.Student;
+import com.devsenior.service.StudentService;
+
+/**
+ * Operaciones de {@link StudentService} de un solo hilo sobre registros de
+ * 1 mil, 100 mil y 1 millón de estudiantes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { Fixtures.HEAP, Fixtures.QUIET_LOGS })
+public class StudentServiceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    StudentService service;
+    Student[] students;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        students = new Student[size];
+        service = Fixtures.students(size, false, students);
+    }
+
+    /**
+     * Registro que se reconstruye en cada iteración para que {@code createStudent}
+     * no agote el espacio de códigos.
+     */
+    @State(Scope.Benchmark)
+    public static class Creation {
+        StudentService service;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(StudentServiceBenchmark registry) throws Exception {
+            service = Fixtures.students(registry.size, false, null);
+            next = registry.size;
+        }
+    }
+
+    private int next() {
+        int i = cursor++;
+        if (cursor == size) {
+            cursor = 0;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public Student createStudent(Creation creation) throws Exception {
+        int i = creation.next++;
+        return creation.service.createStudent(Fixtures.studentName(i), Fixtures.email(i));
+    }
+
+    @Benchmark
+    public Student findStudentById() throws Exception {
+        return service.findStudentById(students[next()].getCode());
+    }
+
+    @Benchmark
+    public Student findStudentByName() throws Exception {
+        return service.findStudentByName(students[next()].getName());
+    }
+
+    @Benchmark
+    public Student findStudentByEmail() throws Exception {
+        return service.findStudentByEmail(students[next()].getEmail());
+    }
+
+    /**
+     * Sugerencias sin distinguir mayúsculas para las primeras letras del nombre
+     * de un estudiante, como al escribir en un buscador.
+     */
+    @Benchmark
+    public List<Student> searchStudentsIgnoreCase() throws Exception {
+        String name = students[next()].getName();
+        return service.searchStudents(name.substring(0, name.length() - 1).toUpperCase(), NameMatch.IGNORE_CASE, 10);
+    }
+
+    /**
+     * Sugerencias para el nombre de un estudiante escrito con dos letras
+     * intercambiadas, que obliga a probar todas las variantes a distancia 1.
+     */
+    @Benchmark
+    public List<Student> searchStudentsFuzzy() throws Exception {
+        String name = students[next()].getName();
+        return service.searchStudents("Estudaitne" + name.substring(10), NameMatch.FUZZY, 10);
+    }
+}
@@ -0,0 +1,62 @@
+package com.devsenior.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsenior.util.ValidationResult;
+import com.devsenior.util.Validator;
+
+/**
+ * Costo de las validaciones de {@link Validator} con datos válidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = Fixtures.QUIET_LOGS)
+public class ValidatorBenchmark {
+
+    String name = "Maria Fernanda Lopez";
+    String email = "maria.lopez@universidad.com";
+    String capacity = "350";
+
+    @Benchmark
+    public Boolean validateName() {
+        return Validator.validateName(name);
+    }
+
+    @Benchmark
+    public ValidationResult checkName() {
+        return Validator.checkName(name);
+    }
+
+    @Benchmark
+    public Boolean validateEmail() {
+        return Validator.validateEmail(email);
+    }
+
+    @Benchmark
+    public Boolean validateCapacity() {
+        return Validator.validateCapacity(capacity);
+    }
+
+    @Benchmark
+    public int parseCapacity() {
+        return Validator.parseCapacity(capacity);
+    }
+
+    @Benchmark
+    public String createId() {
+        return Validator.createId();
+    }
+}
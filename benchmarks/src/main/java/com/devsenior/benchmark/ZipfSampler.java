@@ -0,0 +1,37 @@
+package com.devsenior.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Elige posiciones entre {@code 0} y {@code size - 1} con distribución de Zipf:
+ * la posición {@code k} sale con probabilidad proporcional a {@code 1 / (k + 1)^s}.
+ * Con {@code s = 0} todas salen por igual; con {@code s = 1} unas pocas
+ * concentran la mayoría de las peticiones, como los cursos más populares.
+ *
+ * La distribución acumulada se calcula una vez y cada muestra es una búsqueda
+ * binaria, sin sincronización entre hilos.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int size, double exponent) {
+        cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, u);
+        index = index < 0 ? -index - 1 : index;
+        return Math.min(index, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,401 @@
+package com.devsenior.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.devsenior.exception.ConflictException;
+import com.devsenior.exception.CourseFullException;
+import com.devsenior.exception.CourseNotFoundException;
+import com.devsenior.exception.InvalidDataException;
+import com.devsenior.exception.StudentNotFoundException;
+import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentRequest;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.SortOrder;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+import com.devsenior.util.RosterRenderer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * API HTTP/JSON sin interfaz gráfica sobre {@link CourseService} y
+ * {@link StudentService}, construida con el servidor HTTP del JDK.
+ *
+ * Cada petición se atiende en su propio hilo virtual, de modo que miles de
+ * clientes pueden consultar e inscribirse a la vez; las esperas (por ejemplo la
+ * sincronización de la bitácora) solo suspenden el hilo virtual. Los servicios
+ * deben crearse en modo concurrente.
+ *
+ * Rutas:
+ * <ul>
+ * <li>{@code GET /courses}, {@code GET /courses?name=}, {@code POST /courses} {@code {"name","capacity"}}</li>
+ * <li>{@code GET /courses/{code}}, {@code PUT /courses/{code}/name} {@code {"name"}},
+ * {@code PUT /courses/{code}/capacity} {@code {"capacity"}}</li>
+ * <li>{@code GET /courses/{code}/students}, {@code POST /courses/{code}/students} {@code {"studentCode"}},
+ * {@code DELETE /courses/{code}/students/{studentCode}}</li>
+ * <li>{@code POST /courses/{code}/waitlist} {@code {"studentCode"}}: inscribe o deja en espera y
+ * responde {@code {"status"}}; {@code GET /courses/{code}/waitlist/{studentCode}} responde
+ * {@code {"position"}} (0 si no espera); {@code DELETE /courses/{code}/waitlist/{studentCode}}</li>
+ * <li>{@code GET /courses/{code}/roster}: fichas de los inscritos en texto plano,
+ * escritas con {@link RosterRenderer} a medida que se envían</li>
+ * <li>{@code GET /students}, {@code GET /students?name=}, {@code GET /students?email=},
+ * {@code POST /students} {@code {"name","email"}}</li>
+ * <li>{@code GET /students/{code}}, {@code PUT /students/{code}/name} {@code {"name"}},
+ * {@code PUT /students/{code}/email} {@code {"email"}}</li>
+ * <li>{@code GET /students/{code}/courses}, {@code DELETE /students/{code}/courses/{courseCode}}</li>
+ * <li>{@code POST /enrollments} {@code [{"studentCode","courseCode"}, ...]}: inscripción por lotes</li>
+ * </ul>
+ * Los listados ({@code GET /courses}, {@code GET /students} y los inscritos o
+ * cursos de uno en particular) son paginados: aceptan {@code sort=code|name},
+ * {@code limit} (por defecto {@value #DEFAULT_PAGE_SIZE}) y el {@code cursor}
+ * devuelto por la página anterior, y responden {@code {"items":[...],"nextCursor":...}}.
+ * {@code GET /courses?search=} y {@code GET /students?search=} sugieren por
+ * prefijo del nombre, con {@code match=prefix|ignore_case|fuzzy} (por defecto
+ * {@code ignore_case}) y {@code limit} (por defecto {@value #DEFAULT_SEARCH_LIMIT}).
+ * Los errores responden {@code {"error": mensaje}} con 400 si los datos no son
+ * válidos (también un nombre o email ya en uso), 404 si no existe el curso o
+ * estudiante, 409 si la operación choca con el estado actual (curso lleno, ya
+ * inscrito, curso o estudiante ya registrado), 413 si el cuerpo supera
+ * {@value #MAX_BODY_BYTES} bytes y 500 ante cualquier otro error, que queda en
+ * el log. Las rutas por código
+ * y la inscripción usan las versiones de los servicios que no lanzan excepciones,
+ * y en la inscripción el error es el código del resultado, por ejemplo {@code COURSE_FULL}.
+ */
+public class ApiServer implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ApiServer.class);
+
+    /** Tamaño de página de los listados cuando no se indica {@code limit}. */
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Cantidad de sugerencias cuando no se indica {@code limit}. */
+    static final int DEFAULT_SEARCH_LIMIT = 10;
+
+    /** Tamaño máximo en bytes del cuerpo de una petición. */
+    static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final CourseService courseService;
+    private final StudentService studentService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Respuesta de una ruta: código HTTP y cuerpo JSON, o un texto plano que se
+     * escribe directamente en la respuesta.
+     *
+     * @param status código HTTP
+     * @param body   cuerpo JSON
+     * @param text   escritor del cuerpo en texto plano, o {@code null} si la respuesta es JSON
+     */
+    private record Response(int status, String body, TextBody text) {
+
+        Response(int status, String body) {
+            this(status, body, null);
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response text(TextBody text) {
+            return new Response(200, null, text);
+        }
+    }
+
+    /**
+     * Escribe el cuerpo de una respuesta en texto plano.
+     */
+    @FunctionalInterface
+    private interface TextBody {
+        void write(Writer out) throws IOException;
+    }
+
+    /**
+     * Crea el servidor sin iniciarlo.
+     *
+     * @param port           puerto donde escuchar; 0 elige uno libre
+     * @param courseService  servicio de cursos a exponer
+     * @param studentService servicio de estudiantes a exponer
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ApiServer(int port, CourseService courseService, StudentService studentService) throws IOException {
+        this.courseService = courseService;
+        this.studentService = studentService;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/courses", exchange -> handle(exchange, this::routeCourses));
+        server.createContext("/students", exchange -> handle(exchange, this::routeStudents));
+        server.createContext("/enrollments", exchange -> handle(exchange, this::routeEnrollments));
+    }
+
+    /**
+     * Empieza a atender peticiones.
+     */
+    public void start() {
+        server.start();
+        logger.info("API HTTP escuchando en el puerto {}", getPort());
+    }
+
+    /**
+     * Retorna el puerto en el que escucha el servidor.
+     *
+     * @return puerto local
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera hasta un segundo a las que están en
+     * curso y libera el puerto.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+        logger.info("API HTTP detenida");
+    }
+
+    /**
+     * Operación que atiende una ruta.
+     */
+    @FunctionalInterface
+    private interface Route {
+        Response apply(String method, List<String> path, Map<String, String> query, String body) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            String method = exchange.getRequestMethod();
+            List<String> path = segments(exchange.getRequestURI().getRawPath());
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String body = readBody(exchange);
+            response = body == null
+                    ? new Response(413, Json.message("error", "El cuerpo supera " + MAX_BODY_BYTES + " bytes"))
+                    : route.apply(method, path, query, body);
+        } catch (InvalidDataException | IllegalArgumentException e) {
+            response = new Response(400, Json.message("error", e.getMessage()));
+        } catch (CourseNotFoundException | StudentNotFoundException e) {
+            response = new Response(404, Json.message("error", e.getMessage()));
+        } catch (CourseFullException | ConflictException e) {
+            response = new Response(409, Json.message("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error al atender {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = new Response(500, Json.message("error", "Error interno del servidor"));
+        }
+        if (response.text() != null) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), 0);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                response.text().write(out);
+            }
+            return;
+        }
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Response routeCourses(String method, List<String> path, Map<String, String> query, String body)
+            throws Exception {
+        int size = path.size();
+        if (size == 1 && method.equals("GET")) {
+            String name = query.get("name");
+            if (name != null) {
+                return Response.ok(Json.course(courseService.findCourseByName(name)));
+            } else if (query.containsKey("search")) {
+                return Response.ok(Json.courses(courseService.searchCourses(query.get("search"), match(query),
+                        limit(query, DEFAULT_SEARCH_LIMIT))));
+            }
+            return Response.ok(Json.coursePage(courseService.listCourses(sort(query), query.get("cursor"), limit(query, DEFAULT_PAGE_SIZE))));
+        } else if (size == 1 && method.equals("POST")) {
+            Map<String, String> fields = Json.parseObject(body);
+            return new Response(201, Json.course(courseService.createCourse(fields.get("name"), fields.get("capacity"))));
+        }
+        Course course = size > 1 ? courseService.tryFindCourseByCode(path.get(1)).orElse(null) : null;
+        if (size > 1 && course == null) {
+            return missing("No se encontro ningun curso con ese codigo");
+        }
+        if (size == 2 && method.equals("GET")) {
+            return Response.ok(Json.course(course));
+        } else if (size == 3 && path.get(2).equals("name") && method.equals("PUT")) {
+            courseService.setNewName(course, Json.parseObject(body).get("name"));
+            return Response.ok(Json.course(course));
+        } else if (size == 3 && path.get(2).equals("capacity") && method.equals("PUT")) {
+            courseService.setNewCapacity(course, Json.parseObject(body).get("capacity"));
+            return Response.ok(Json.course(course));
+        } else if (size == 3 && path.get(2).equals("students") && method.equals("GET")) {
+            return Response.ok(Json.studentPage(
+                    courseService.listStudentsByCourse(course, sort(query), query.get("cursor"), limit(query, DEFAULT_PAGE_SIZE))));
+        } else if (size == 3 && path.get(2).equals("waitlist") && method.equals("POST")) {
+            Student student = studentService.findStudentById(Json.parseObject(body).get("studentCode"));
+            EnrollmentStatus status = courseService.enrollOrWaitlist(student, course);
+            if (status == EnrollmentStatus.ALREADY_ENROLLED || status == EnrollmentStatus.WAITLIST_FULL) {
+                return new Response(409, Json.message("status", status.name()));
+            }
+            return new Response(status == EnrollmentStatus.ENROLLED ? 201 : 202, Json.message("status", status.name()));
+        } else if (size == 4 && path.get(2).equals("waitlist") && method.equals("GET")) {
+            int position = courseService.getWaitlistPosition(course, studentService.findStudentById(path.get(3)));
+            return Response.ok("{\"position\":" + position + "}");
+        } else if (size == 4 && path.get(2).equals("waitlist") && method.equals("DELETE")) {
+            courseService.leaveWaitlist(course, studentService.findStudentById(path.get(3)));
+            return Response.ok(Json.course(course));
+        } else if (size == 3 && path.get(2).equals("roster") && method.equals("GET")) {
+            return Response.text(out -> new RosterRenderer(out).students(course.getStudentsSnapshot().values()));
+        } else if (size == 3 && path.get(2).equals("students") && method.equals("POST")) {
+            Student student = studentService.tryFindStudentById(Json.parseObject(body).get("studentCode")).orElse(null);
+            EnrollmentStatus status = courseService.tryEnroll(student, course);
+            if (status == EnrollmentStatus.ENROLLED) {
+                return new Response(201, Json.course(course));
+            } else if (status == EnrollmentStatus.COURSE_NOT_FOUND || status == EnrollmentStatus.STUDENT_NOT_FOUND) {
+                return new Response(404, Json.message("error", status.name()));
+            }
+            return new Response(409, Json.message("error", status.name()));
+        } else if (size == 4 && path.get(2).equals("students") && method.equals("DELETE")) {
+            courseService.removeStudentFromCourse(course, studentService.findStudentById(path.get(3)));
+            return Response.ok(Json.course(course));
+        }
+        return notFound(method, path);
+    }
+
+    private Response routeStudents(String method, List<String> path, Map<String, String> query, String body)
+            throws Exception {
+        int size = path.size();
+        if (size == 1 && method.equals("GET")) {
+            String name = query.get("name");
+            String email = query.get("email");
+            if (name != null) {
+                return Response.ok(Json.student(studentService.findStudentByName(name)));
+            } else if (email != null) {
+                return Response.ok(Json.student(studentService.findStudentByEmail(email)));
+            } else if (query.containsKey("search")) {
+                return Response.ok(Json.students(studentService.searchStudents(query.get("search"), match(query),
+                        limit(query, DEFAULT_SEARCH_LIMIT))));
+            }
+            return Response.ok(Json.studentPage(studentService.listStudents(sort(query), query.get("cursor"), limit(query, DEFAULT_PAGE_SIZE))));
+        } else if (size == 1 && method.equals("POST")) {
+            Map<String, String> fields = Json.parseObject(body);
+            return new Response(201, Json.student(studentService.createStudent(fields.get("name"), fields.get("email"))));
+        }
+        Student student = size > 1 ? studentService.tryFindStudentById(path.get(1)).orElse(null) : null;
+        if (size > 1 && student == null) {
+            return missing("No se encontro ningun estudiante con ese codigo");
+        }
+        if (size == 2 && method.equals("GET")) {
+            return Response.ok(Json.student(student));
+        } else if (size == 3 && path.get(2).equals("name") && method.equals("PUT")) {
+            studentService.setNewName(student, Json.parseObject(body).get("name"));
+            return Response.ok(Json.student(student));
+        } else if (size == 3 && path.get(2).equals("email") && method.equals("PUT")) {
+            studentService.setNewEmail(student, Json.parseObject(body).get("email"));
+            return Response.ok(Json.student(student));
+        } else if (size == 3 && path.get(2).equals("courses") && method.equals("GET")) {
+            return Response.ok(Json.coursePage(
+                    studentService.listCoursesByStudent(student, sort(query), query.get("cursor"), limit(query, DEFAULT_PAGE_SIZE))));
+        } else if (size == 4 && path.get(2).equals("courses") && method.equals("DELETE")) {
+            studentService.removeCourseFromStudent(student, courseService.findCourseByCode(path.get(3)));
+            return Response.ok(Json.student(student));
+        }
+        return notFound(method, path);
+    }
+
+    private Response routeEnrollments(String method, List<String> path, Map<String, String> query, String body) {
+        if (path.size() != 1 || !method.equals("POST")) {
+            return notFound(method, path);
+        }
+        List<Map<String, String>> items = Json.parseArray(body);
+        List<EnrollmentRequest> requests = new ArrayList<>(items.size());
+        for (Map<String, String> item : items) {
+            requests.add(new EnrollmentRequest(item.get("studentCode"), item.get("courseCode")));
+        }
+        EnrollmentStatus[] statuses = courseService.enrollBatch(requests, studentService);
+        List<String> names = new ArrayList<>(statuses.length);
+        for (EnrollmentStatus status : statuses) {
+            names.add(status.name());
+        }
+        return Response.ok(Json.strings(names));
+    }
+
+    private static Response missing(String message) {
+        return new Response(404, Json.message("error", message));
+    }
+
+    private static Response notFound(String method, List<String> path) {
+        return new Response(404, Json.message("error", "Ruta no encontrada: " + method + " /" + String.join("/", path)));
+    }
+
+    private static SortOrder sort(Map<String, String> query) {
+        String sort = query.get("sort");
+        return sort == null ? SortOrder.CODE : SortOrder.valueOf(sort.toUpperCase(Locale.ROOT));
+    }
+
+    private static NameMatch match(Map<String, String> query) {
+        String match = query.get("match");
+        return match == null ? NameMatch.IGNORE_CASE : NameMatch.valueOf(match.toUpperCase(Locale.ROOT));
+    }
+
+    private static int limit(Map<String, String> query, int defaultLimit) {
+        String limit = query.get("limit");
+        return limit == null ? defaultLimit : Integer.parseInt(limit);
+    }
+
+    private static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>(4);
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * Lee el cuerpo de la petición.
+     *
+     * @return el cuerpo como texto, o {@code null} si supera {@link #MAX_BODY_BYTES}
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            return bytes.length > MAX_BODY_BYTES ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.devsenior.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Page;
+import com.devsenior.model.Student;
+
+/**
+ * Conversión entre los modelos y JSON para la API HTTP.
+ *
+ * Se escribe a mano para no agregar dependencias: la API solo recibe objetos
+ * planos con valores de texto o número (o listas de ellos) y solo responde
+ * cursos, estudiantes y mensajes.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Convierte un curso a JSON, sin la lista de inscritos.
+     *
+     * @param course curso a convertir
+     * @return objeto JSON del curso
+     */
+    static String course(Course course) {
+        StringBuilder json = new StringBuilder(96);
+        appendCourse(json, course);
+        return json.toString();
+    }
+
+    /**
+     * Convierte un estudiante a JSON, sin la lista de cursos.
+     *
+     * @param student estudiante a convertir
+     * @return objeto JSON del estudiante
+     */
+    static String student(Student student) {
+        StringBuilder json = new StringBuilder(96);
+        appendStudent(json, student);
+        return json.toString();
+    }
+
+    /**
+     * Convierte una colección de cursos a un arreglo JSON.
+     *
+     * @param courses cursos a convertir
+     * @return arreglo JSON
+     */
+    static String courses(Collection<Course> courses) {
+        StringBuilder json = new StringBuilder(16 + courses.size() * 96).append('[');
+        for (Course course : courses) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendCourse(json, course);
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Convierte una colección de estudiantes a un arreglo JSON.
+     *
+     * @param students estudiantes a convertir
+     * @return arreglo JSON
+     */
+    static String students(Collection<Student> students) {
+        StringBuilder json = new StringBuilder(16 + students.size() * 96).append('[');
+        for (Student student : students) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendStudent(json, student);
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Convierte una página de cursos a {@code {"items":[...],"nextCursor":...}}.
+     *
+     * @param page página a convertir
+     * @return objeto JSON de la página
+     */
+    static String coursePage(Page<Course> page) {
+        return page(courses(page.items()), page.nextCursor());
+    }
+
+    /**
+     * Convierte una página de estudiantes a {@code {"items":[...],"nextCursor":...}}.
+     *
+     * @param page página a convertir
+     * @return objeto JSON de la página
+     */
+    static String studentPage(Page<Student> page) {
+        return page(students(page.items()), page.nextCursor());
+    }
+
+    /**
+     * Arma un objeto JSON con un solo campo de texto.
+     *
+     * @param key   nombre del campo
+     * @param value valor del campo
+     * @return objeto JSON
+     */
+    static String message(String key, String value) {
+        StringBuilder json = new StringBuilder("{");
+        appendString(json, key).append(':');
+        return appendString(json, value).append('}').toString();
+    }
+
+    /**
+     * Arma un arreglo JSON de textos.
+     *
+     * @param values textos a convertir
+     * @return arreglo JSON
+     */
+    static String strings(List<String> values) {
+        StringBuilder json = new StringBuilder(16 + values.size() * 16).append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(json, values.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Lee un objeto JSON plano. Los números y booleanos se devuelven como texto
+     * y {@code null} como {@code null}.
+     *
+     * @param text JSON a leer
+     * @return campos del objeto en el orden en que aparecen
+     * @throws IllegalArgumentException si el texto no es un objeto plano válido
+     */
+    static Map<String, String> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, String> object = parser.object();
+        parser.end();
+        return object;
+    }
+
+    /**
+     * Lee un arreglo JSON de objetos planos.
+     *
+     * @param text JSON a leer
+     * @return objetos del arreglo
+     * @throws IllegalArgumentException si el texto no es un arreglo de objetos planos
+     */
+    static List<Map<String, String>> parseArray(String text) {
+        Parser parser = new Parser(text);
+        List<Map<String, String>> array = new ArrayList<>();
+        parser.expect('[');
+        if (!parser.consume(']')) {
+            do {
+                array.add(parser.object());
+            } while (parser.consume(','));
+            parser.expect(']');
+        }
+        parser.end();
+        return array;
+    }
+
+    private static String page(String items, String nextCursor) {
+        StringBuilder json = new StringBuilder(items.length() + 48).append("{\"items\":").append(items)
+                .append(",\"nextCursor\":");
+        return appendString(json, nextCursor).append('}').toString();
+    }
+
+    private static void appendCourse(StringBuilder json, Course course) {
+        json.append("{\"code\":");
+        appendString(json, course.getCode()).append(",\"name\":");
+        appendString(json, course.getName()).append(",\"capacity\":").append(course.getMaxCapacity())
+                .append(",\"enrolled\":").append(course.getStudents().size()).append('}');
+    }
+
+    private static void appendStudent(StringBuilder json, Student student) {
+        json.append("{\"code\":");
+        appendString(json, student.getCode()).append(",\"name\":");
+        appendString(json, student.getName()).append(",\"email\":");
+        appendString(json, student.getEmail()).append(",\"courses\":").append(student.getCourses().size())
+                .append('}');
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    /**
+     * Lector de objetos JSON planos.
+     */
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text == null ? "" : text;
+        }
+
+        Map<String, String> object() {
+            Map<String, String> object = new LinkedHashMap<>();
+            expect('{');
+            if (consume('}')) {
+                return object;
+            }
+            do {
+                String key = string();
+                expect(':');
+                object.put(key, value());
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        void end() {
+            skipSpaces();
+            if (position != text.length()) {
+                throw error("Contenido inesperado al final");
+            }
+        }
+
+        boolean consume(char c) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw error("Se esperaba '" + c + "'");
+            }
+        }
+
+        private String value() {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return string();
+            }
+            int start = position;
+            while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty() || literal.charAt(0) == '{' || literal.charAt(0) == '[') {
+                throw error("Valor no valido");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                } else if (c != '\\') {
+                    value.append(c);
+                } else if (position < text.length()) {
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > text.length()) {
+                                throw error("Escape unicode incompleto");
+                            }
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                }
+            }
+            throw error("Texto sin cerrar");
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " en la posicion " + position);
+        }
+    }
+}
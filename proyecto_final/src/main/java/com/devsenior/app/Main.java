@@ -1,10 +1,54 @@
 package com.devsenior.app;
 
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
 
+import com.devsenior.api.ApiServer;
+import com.devsenior.persistence.Journal;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
 
+/**
+ * Punto de entrada. Sin argumentos abre el menú gráfico; con
+ * {@code --server [puerto]} inicia solo la API HTTP, sin interfaz gráfica.
+ */
 public class Main {
-    public static void main(String[] args) {
-        MenuApp app = new MenuApp();
-        app.start();
+
+    /** Puerto de la API cuando no se indica otro. */
+    private static final int DEFAULT_PORT = 8080;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            startServer(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+        } else {
+            MenuApp app = new MenuApp();
+            app.start();
+        }
+    }
+
+    /**
+     * Inicia la API con servicios concurrentes recuperados desde la bitácora y
+     * la mantiene activa hasta que se detenga el proceso.
+     */
+    private static void startServer(int port) throws IOException, InterruptedException {
+        CourseService courseservice = new CourseService(true);
+        StudentService studentservice = new StudentService(true);
+        courseservice.getMetrics().registerMBeans();
+        studentservice.getMetrics().registerMBeans();
+        Journal journal = Journal.open(MenuApp.JOURNAL_PATH, courseservice, studentservice);
+        ApiServer server = new ApiServer(port, courseservice, studentservice);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar la bitacora: " + e.getMessage());
+            }
+            stopped.countDown();
+        }));
+        server.start();
+        System.out.println("API escuchando en el puerto " + server.getPort());
+        stopped.await();
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,16 @@
 package com.devsenior.app;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import javax.swing.JOptionPane;
 
 import com.devsenior.controller.CourseController;
 import com.devsenior.controller.StudentController;
-import com.devsenior.exception.CourseNotFoundException;
-import com.devsenior.exception.StudentNotFoundException;
+import com.devsenior.persistence.Journal;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
 
 /**
  * Clase principal de la aplicación que muestra un menú para gestionar
@@ -15,18 +18,43 @@ import com.devsenior.exception.StudentNotFoundException;
  */
 public class MenuApp {
 
+    /** Archivo donde se guarda la bitácora de modificaciones. */
+    static final Path JOURNAL_PATH = Path.of("proyecto_final", "data", "registro.journal");
+
     /** Controlador para manejar las operaciones de cursos. */
     private final CourseController coursecontroller;
 
     /** Controlador para manejar las operaciones de estudiantes. */
     private final StudentController studentcontroller;
 
+    /** Bitácora donde se guardan las modificaciones, o {@code null} si no se pudo abrir. */
+    private final Journal journal;
+
     /**
-     * Constructor que inicializa los controladores.
+     * Constructor que inicializa los controladores y recupera los datos
+     * guardados en la bitácora.
      */
     public MenuApp() {
-        coursecontroller = new CourseController();
-        studentcontroller = new StudentController();
+        CourseService courseservice = new CourseService();
+        StudentService studentservice = new StudentService();
+        courseservice.getMetrics().registerMBeans();
+        studentservice.getMetrics().registerMBeans();
+        journal = openJournal(courseservice, studentservice);
+        coursecontroller = new CourseController(courseservice);
+        studentcontroller = new StudentController(studentservice);
+    }
+
+    /**
+     * Abre la bitácora; si no se puede, la aplicación sigue funcionando sin guardar datos.
+     */
+    private static Journal openJournal(CourseService courseservice, StudentService studentservice) {
+        try {
+            return Journal.open(JOURNAL_PATH, courseservice, studentservice);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "No se pudo abrir la bitacora, los datos no se guardaran: "
+                    + e.getMessage(), "ERROR", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
     }
 
     /**
@@ -41,7 +69,8 @@ public class MenuApp {
                 "9. Cambiar la capacidad de un curso", "10. Cambiar el email de un estudiante",
                 "11. Remover un estudiante de un curso", "12. Remover un curso de un estudiante",
                 "13. Mostrar los estudiantes de un curso", "14. Mostrar los cursos de un estudiante",
-                "15. Inscribir un estudiante en un curso", "0. Salir" };
+                "15. Inscribir un estudiante en un curso", "16. Importar estudiantes desde CSV",
+                "17. Importar cursos desde CSV", "0. Salir" };
         String selection = (String) JOptionPane.showInputDialog(null, "Seleccione una opción", "MENU",
                 JOptionPane.PLAIN_MESSAGE, null, message, message[0]);
         if (selection == null) {
@@ -60,26 +89,12 @@ public class MenuApp {
         if (option == -1) {
             return -1;
         }
-        option = (option == 15) ? 0 : option + 1;
+        option = (option == 17) ? 0 : option + 1;
         switch (option) {
             case 1 -> coursecontroller.createCourse();
             case 2 -> studentcontroller.createStudent();
-            case 3 -> {
-                try {
-                    coursecontroller.searchCourse();
-                } catch (CourseNotFoundException e) {
-                    JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
-            case 4 -> {
-                try {
-                    studentcontroller.searchStudent();
-                } catch (StudentNotFoundException e) {
-                    JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
+            case 3 -> coursecontroller.lookupCourse();
+            case 4 -> studentcontroller.lookupStudent();
             case 5 -> coursecontroller.listCourses();
             case 6 -> studentcontroller.listStudents();
             case 7 -> coursecontroller.changeNameCourse();
@@ -91,6 +106,8 @@ public class MenuApp {
             case 13 -> coursecontroller.listStudentsByCourse();
             case 14 -> studentcontroller.listCoursesByStudent();
             case 15 -> coursecontroller.enrollStudent(studentcontroller);
+            case 16 -> studentcontroller.importStudents();
+            case 17 -> coursecontroller.importCourses();
             default -> JOptionPane.showMessageDialog(null, "Cerrando el programa... hasta pronto", "CERRANDO PROGRAMA",
                     JOptionPane.INFORMATION_MESSAGE);
         }
@@ -106,5 +123,13 @@ public class MenuApp {
             option = showMenu();
             option = handleOption(option);
         } while (option != 0);
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "No se pudo cerrar la bitacora: " + e.getMessage(), "ERROR",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
     }
 }
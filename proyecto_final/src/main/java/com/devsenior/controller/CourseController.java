@@ -1,6 +1,12 @@
 package com.devsenior.controller;
 
 import java.awt.HeadlessException;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -10,8 +16,11 @@ import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
 import com.devsenior.model.Course;
+import com.devsenior.model.ImportReport;
 import com.devsenior.model.Student;
+import com.devsenior.service.BulkImportService;
 import com.devsenior.service.CourseService;
+import com.devsenior.util.RosterRenderer;
 
 /**
  * Controlador para gestionar las operaciones relacionadas con los cursos.
@@ -30,6 +39,16 @@ public class CourseController {
         courseservice = new CourseService();
     }
 
+    /**
+     * Constructor que usa un servicio de cursos ya creado, por ejemplo uno
+     * recuperado desde la bitácora.
+     *
+     * @param courseservice servicio de cursos a usar
+     */
+    public CourseController(CourseService courseservice) {
+        this.courseservice = courseservice;
+    }
+
     /**
      * Permite crear un nuevo curso solicitando al usuario el nombre y la capacidad.
      * Muestra un mensaje de éxito o error según corresponda.
@@ -66,30 +85,46 @@ public class CourseController {
      * @throws CourseNotFoundException Si no se encuentra el curso.
      */
     public Course searchCourse() throws CourseNotFoundException {
+        return lookupCourse().orElseThrow(() -> new CourseNotFoundException("Curso no encontrado"));
+    }
+
+    /**
+     * Permite buscar un curso ya sea por nombre o por código sin lanzar excepciones.
+     * Muestra el curso encontrado o un único mensaje de error.
+     *
+     * @return El curso encontrado, o vacío si no se encontró.
+     */
+    public Optional<Course> lookupCourse() {
         try {
             String options[] = { "Nombre", "Codigo" };
             int option = JOptionPane.showOptionDialog(null, "¿Como desea buscar el curso?",
                     "BUSQUEDA CURSO", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options,
                     options[0]);
+            Optional<Course> course;
+            String error;
             if (option == 0) {
                 String name = JOptionPane.showInputDialog(null, "Digite el nombre del curso",
                         "NOMBRE DEL CURSO", JOptionPane.PLAIN_MESSAGE);
-                Course course = courseservice.findCourseByName(name);
-                JOptionPane.showMessageDialog(null, "Curso encontrado:\n " + course, "CURSO ENCONTRADO",
-                        JOptionPane.INFORMATION_MESSAGE);
-                return course;
+                course = courseservice.tryFindCourseByName(name);
+                error = "No se encontro ningun curso con ese nombre";
             } else {
                 String code = JOptionPane.showInputDialog(null, "Digite el codigo del curso",
                         "CODIGO DEL CURSO", JOptionPane.PLAIN_MESSAGE);
-                Course course = courseservice.findCourseByCode(code);
-                JOptionPane.showMessageDialog(null, "Curso encontrado: " + course, "CURSO ENCONTRADO",
+                course = courseservice.tryFindCourseByCode(code);
+                error = "No se encontro ningun curso con ese codigo";
+            }
+            if (course.isPresent()) {
+                JOptionPane.showMessageDialog(null, "Curso encontrado:\n " + course.get(), "CURSO ENCONTRADO",
                         JOptionPane.INFORMATION_MESSAGE);
-                return course;
+            } else {
+                JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + error, "ERROR",
+                        JOptionPane.ERROR_MESSAGE);
             }
-        } catch (CourseNotFoundException | HeadlessException e) {
+            return course;
+        } catch (HeadlessException e) {
             JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
                     JOptionPane.ERROR_MESSAGE);
-            throw new CourseNotFoundException("Curso no encontrado");
+            return Optional.empty();
         }
     }
 
@@ -98,10 +133,7 @@ public class CourseController {
      */
     public void listCourses() {
         try {
-            String message = "";
-            for (Course course : courseservice.listCourses().values()) {
-                message += course.toString() + "\n\n";
-            }
+            String message = RosterRenderer.renderCourses(courseservice.listCourses().values());
             JOptionPane.showMessageDialog(null, message, "CURSOS ACTUALES", JOptionPane.INFORMATION_MESSAGE);
         } catch (CourseNotFoundException | HeadlessException e) {
             JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
@@ -115,7 +147,11 @@ public class CourseController {
      */
     public void changeNameCourse() {
         try {
-            Course course = searchCourse();
+            Optional<Course> found = lookupCourse();
+            if (found.isEmpty()) {
+                return;
+            }
+            Course course = found.get();
             String name = JOptionPane.showInputDialog(null, "Digite el nuevo nombre del curso", "CAMBIO DE NOMBRE",
                     JOptionPane.PLAIN_MESSAGE);
             courseservice.setNewName(course, name);
@@ -133,7 +169,11 @@ public class CourseController {
      */
     public void changeCapacityCourse() {
         try {
-            Course course = searchCourse();
+            Optional<Course> found = lookupCourse();
+            if (found.isEmpty()) {
+                return;
+            }
+            Course course = found.get();
             String capacity = JOptionPane.showInputDialog(null, "Digite cual sera la nueva capacidad del curso",
                     "NUEVA CAPACIDAD DEL CURSO", JOptionPane.PLAIN_MESSAGE);
             courseservice.setNewCapacity(course, capacity);
@@ -152,10 +192,15 @@ public class CourseController {
      */
     public void enrollStudent(StudentController studentcontroller) {
         try {
-            Student student = studentcontroller.searchStudent();
-            String message[] = new String[courseservice.listCourses().size()];
+            Optional<Student> found = studentcontroller.lookupStudent();
+            if (found.isEmpty()) {
+                return;
+            }
+            Student student = found.get();
+            Map<String, Course> courses = courseservice.listCourses();
+            String message[] = new String[courses.size()];
             int i = 0;
-            for (Course course : courseservice.listCourses().values()) {
+            for (Course course : courses.values()) {
                 message[i] = course.getName();
                 i++;
             }
@@ -163,9 +208,9 @@ public class CourseController {
                     "INSCRIPCION CURSO", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, message,
                     message[0]);
             Course course = new Course();
-            for (Course courses : courseservice.listCourses().values()) {
-                if (courses.getName().equals(message[option])) {
-                    course = courses;
+            for (Course registered : courses.values()) {
+                if (registered.getName().equals(message[option])) {
+                    course = registered;
                 }
             }
             courseservice.enrrolStudent(student, course);
@@ -182,10 +227,15 @@ public class CourseController {
      */
     public void removeStudentFromCourse() {
         try {
-            Course course = searchCourse();
-            String student[] = new String[course.getStudents().size()];
+            Optional<Course> found = lookupCourse();
+            if (found.isEmpty()) {
+                return;
+            }
+            Course course = found.get();
+            Map<String, Student> enrolled = course.getStudentsSnapshot();
+            String student[] = new String[enrolled.size()];
             int i = 0;
-            for (Student students : course.getStudents().values()) {
+            for (Student students : enrolled.values()) {
                 student[i] = students.getName();
                 i++;
             }
@@ -193,7 +243,7 @@ public class CourseController {
                     "ESTUDIANTES DEL CURSO", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, student,
                     student[0]);
             Student removeStudent = new Student();
-            for (Student students : course.getStudents().values()) {
+            for (Student students : enrolled.values()) {
                 if (student[option].equals(students.getName())) {
                     removeStudent = students;
                 }
@@ -213,11 +263,12 @@ public class CourseController {
      */
     public void listStudentsByCourse() {
         try {
-            Course course = searchCourse();
-            String message = "";
-            for (Student student : courseservice.listStudentsByCourse(course).values()) {
-                message += student.toString() + "\n\n";
+            Optional<Course> found = lookupCourse();
+            if (found.isEmpty()) {
+                return;
             }
+            Course course = found.get();
+            String message = RosterRenderer.renderStudents(courseservice.listStudentsByCourse(course).values());
             JOptionPane.showMessageDialog(null, message, "ESTUDIANTES ACTUALES DEL CURSO",
                     JOptionPane.INFORMATION_MESSAGE);
         } catch (StudentNotFoundException | CourseNotFoundException | HeadlessException e) {
@@ -225,4 +276,27 @@ public class CourseController {
                     JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    /**
+     * Importa cursos desde un archivo CSV con columnas {@code nombre,capacidad}.
+     * Muestra un resumen con las filas importadas y las primeras filas rechazadas.
+     */
+    public void importCourses() {
+        try {
+            String file = JOptionPane.showInputDialog(null, "Digite la ruta del archivo CSV (nombre,capacidad)",
+                    "IMPORTAR CURSOS", JOptionPane.PLAIN_MESSAGE);
+            if (file == null || file.isBlank()) {
+                return;
+            }
+            ImportReport report = new BulkImportService(courseservice, null).importCourses(Path.of(file.trim()));
+            StringBuilder message = new StringBuilder(report.toString());
+            report.getErrors().stream().limit(10).forEach(error -> message.append("\nLinea ")
+                    .append(error.line()).append(": ").append(error.message()));
+            JOptionPane.showMessageDialog(null, message.toString(), "IMPORTACION FINALIZADA",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException | InvalidPathException | HeadlessException e) {
+            JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package com.devsenior.controller;
 
 import java.awt.HeadlessException;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
 
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -11,8 +16,11 @@ import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
 import com.devsenior.model.Course;
+import com.devsenior.model.ImportReport;
 import com.devsenior.model.Student;
+import com.devsenior.service.BulkImportService;
 import com.devsenior.service.StudentService;
+import com.devsenior.util.RosterRenderer;
 
 /**
  * Controlador para gestionar las operaciones relacionadas con los estudiantes.
@@ -31,6 +39,16 @@ public class StudentController {
         studentservice = new StudentService();
     }
 
+    /**
+     * Constructor que usa un servicio de estudiantes ya creado, por ejemplo uno
+     * recuperado desde la bitácora.
+     *
+     * @param studentservice servicio de estudiantes a usar
+     */
+    public StudentController(StudentService studentservice) {
+        this.studentservice = studentservice;
+    }
+
     /**
      * Permite crear un nuevo estudiante solicitando al usuario el nombre y el email.
      * Muestra un mensaje de éxito o error según corresponda.
@@ -67,30 +85,46 @@ public class StudentController {
      * @throws StudentNotFoundException Si no se encuentra el estudiante.
      */
     public Student searchStudent() throws StudentNotFoundException {
+        return lookupStudent().orElseThrow(() -> new StudentNotFoundException("Estudiante no encontrado"));
+    }
+
+    /**
+     * Permite buscar un estudiante por nombre o código sin lanzar excepciones.
+     * Muestra el estudiante encontrado o un único mensaje de error.
+     *
+     * @return El estudiante encontrado, o vacío si no se encontró.
+     */
+    public Optional<Student> lookupStudent() {
         try {
             String options[] = { "Nombre", "Codigo" };
             int option = JOptionPane.showOptionDialog(null, "¿Como desea buscar a el estudiante?",
                     "BUSQUEDA ESTUDIANTE", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options,
                     options[0]);
+            Optional<Student> student;
+            String error;
             if (option == 0) {
                 String name = JOptionPane.showInputDialog(null, "Digite el nombre del estudiante",
                         "NOMBRE DEL ESTUDIANTE", JOptionPane.PLAIN_MESSAGE);
-                Student student = studentservice.findStudentByName(name);
-                JOptionPane.showMessageDialog(null, "Estudiante encontrado:\n " + student, "ESTUDIANTE ENCONTRADO",
-                        JOptionPane.INFORMATION_MESSAGE);
-                return student;
+                student = studentservice.tryFindStudentByName(name);
+                error = "No se encontro ningun estudiante con ese nombre";
             } else {
                 String code = JOptionPane.showInputDialog(null, "Digite el codigo del estudiante",
                         "CODIGO DEL ESTUDIANTE", JOptionPane.PLAIN_MESSAGE);
-                Student student = studentservice.findStudentById(code);
-                JOptionPane.showMessageDialog(null, "Estudiante encontrado: " + student, "ESTUDIANTE ENCONTRADO",
+                student = studentservice.tryFindStudentById(code);
+                error = "No se encontro ningun estudiante con ese codigo";
+            }
+            if (student.isPresent()) {
+                JOptionPane.showMessageDialog(null, "Estudiante encontrado:\n " + student.get(), "ESTUDIANTE ENCONTRADO",
                         JOptionPane.INFORMATION_MESSAGE);
-                return student;
+            } else {
+                JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + error, "ERROR",
+                        JOptionPane.ERROR_MESSAGE);
             }
-        } catch (StudentNotFoundException | HeadlessException e) {
+            return student;
+        } catch (HeadlessException e) {
             JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
                     JOptionPane.ERROR_MESSAGE);
-            throw new StudentNotFoundException("Estudiante no encontrado");
+            return Optional.empty();
         }
     }
 
@@ -99,10 +133,7 @@ public class StudentController {
      */
     public void listStudents() {
         try {
-            String message = "";
-            for (Student student : studentservice.listStudents().values()) {
-                message += student.toString() + "\n\n";
-            }
+            String message = RosterRenderer.renderStudents(studentservice.listStudents().values());
             JOptionPane.showMessageDialog(null, message, "ESTUDIANTES ACTUALES", JOptionPane.INFORMATION_MESSAGE);
         } catch (StudentNotFoundException | HeadlessException e) {
             JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
@@ -116,7 +147,11 @@ public class StudentController {
      */
     public void changeNameStudent() {
         try {
-            Student student = searchStudent();
+            Optional<Student> found = lookupStudent();
+            if (found.isEmpty()) {
+                return;
+            }
+            Student student = found.get();
             String name = JOptionPane.showInputDialog(null, "Digite el nuevo nombre del estudiante", "CAMBIO DE NOMBRE",
                     JOptionPane.PLAIN_MESSAGE);
             studentservice.setNewName(student, name);
@@ -134,7 +169,11 @@ public class StudentController {
      */
     public void changeEmailStudent() {
         try {
-            Student student = searchStudent();
+            Optional<Student> found = lookupStudent();
+            if (found.isEmpty()) {
+                return;
+            }
+            Student student = found.get();
             String email = JOptionPane.showInputDialog(null, "Digite el nuevo email del estudiante", "CAMBIO DE EMAIL",
                     JOptionPane.PLAIN_MESSAGE);
             studentservice.setNewEmail(student, email);
@@ -152,10 +191,15 @@ public class StudentController {
      */
     public void removeCourseFromStudent() {
         try {
-            Student student = searchStudent();
-            String course[] = new String[student.getCourses().size()];
+            Optional<Student> found = lookupStudent();
+            if (found.isEmpty()) {
+                return;
+            }
+            Student student = found.get();
+            Map<String, Course> enrolled = student.getCoursesSnapshot();
+            String course[] = new String[enrolled.size()];
             int i = 0;
-            for (Course courses : student.getCourses().values()) {
+            for (Course courses : enrolled.values()) {
                 course[i] = courses.getName();
                 i++;
             }
@@ -163,7 +207,7 @@ public class StudentController {
                     "CURSOS DEL ESTUDIANTE", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, course,
                     course[0]);
             Course removecourse = new Course();
-            for (Course courses : student.getCourses().values()) {
+            for (Course courses : enrolled.values()) {
                 if (course[option].equals(courses.getName())) {
                     removecourse = courses;
                 }
@@ -182,11 +226,12 @@ public class StudentController {
      */
     public void listCoursesByStudent() {
         try {
-            Student student = searchStudent();
-            String message = "";
-            for (Course courses : studentservice.listCoursesByStudent(student).values()) {
-                message += courses.toString() + "\n\n";
+            Optional<Student> found = lookupStudent();
+            if (found.isEmpty()) {
+                return;
             }
+            Student student = found.get();
+            String message = RosterRenderer.renderCourses(studentservice.listCoursesByStudent(student).values());
             JOptionPane.showMessageDialog(null, message, "CURSOS ACTUALES DEL ESTUDIANTE",
                     JOptionPane.INFORMATION_MESSAGE);
         } catch (CourseNotFoundException | StudentNotFoundException | HeadlessException e) {
@@ -194,4 +239,27 @@ public class StudentController {
                     JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    /**
+     * Importa estudiantes desde un archivo CSV con columnas {@code nombre,email}.
+     * Muestra un resumen con las filas importadas y las primeras filas rechazadas.
+     */
+    public void importStudents() {
+        try {
+            String file = JOptionPane.showInputDialog(null, "Digite la ruta del archivo CSV (nombre,email)",
+                    "IMPORTAR ESTUDIANTES", JOptionPane.PLAIN_MESSAGE);
+            if (file == null || file.isBlank()) {
+                return;
+            }
+            ImportReport report = new BulkImportService(null, studentservice).importStudents(Path.of(file.trim()));
+            StringBuilder message = new StringBuilder(report.toString());
+            report.getErrors().stream().limit(10).forEach(error -> message.append("\nLinea ")
+                    .append(error.line()).append(": ").append(error.message()));
+            JOptionPane.showMessageDialog(null, message.toString(), "IMPORTACION FINALIZADA",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException | InvalidPathException | HeadlessException e) {
+            JOptionPane.showMessageDialog(null, "Ha ocurrido un error: " + e.getMessage(), "ERROR",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
@@ -0,0 +1,434 @@
+package com.devsenior.events;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.devsenior.exception.EventOverflowException;
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.RegistryListener;
+import com.devsenior.service.StudentService;
+
+/**
+ * Bus de eventos en memoria que publica como {@link RegistryEvent} cada
+ * modificación de {@link CourseService} y {@link StudentService}, para que
+ * otros sistemas reaccionen a ellas sin leer los registros de log.
+ *
+ * Los eventos se guardan en un búfer circular de tamaño fijo. Publicar un evento
+ * es reservar su número de secuencia y escribirlo en su posición: nunca se
+ * espera a los suscriptores, así que un suscriptor lento no frena las
+ * inscripciones. Si un suscriptor se atrasa más que el tamaño del búfer, los
+ * eventos que no alcanzó a leer se sobrescriben y se cuentan en
+ * {@link #getDropped()}. Qué pasa después lo decide la {@link OverflowPolicy}
+ * del bus: con {@link OverflowPolicy#DROP}, la política por defecto, el
+ * suscriptor sigue desde el evento más antiguo que queda y el salto queda visible
+ * en las secuencias; con {@link OverflowPolicy#FAIL} recibe los eventos que
+ * alcanzó a leer y luego {@code onError} con una {@link EventOverflowException}.
+ *
+ * Cada suscriptor recibe los eventos en lotes de hasta {@code maxBatch}, en su
+ * propio hilo y en orden de secuencia. La contrapresión sigue a
+ * {@link Flow}: cada unidad pedida con {@link Flow.Subscription#request(long)}
+ * es un lote, y sin demanda no se entrega nada. Un suscriptor solo recibe los
+ * eventos publicados después de suscribirse, y mientras no haya suscriptores no
+ * se publica nada.
+ */
+public class EventBus implements RegistryListener, Flow.Publisher<List<RegistryEvent>>, Closeable {
+    private static final Logger logger = LogManager.getLogger(EventBus.class);
+
+    /** Eventos que guarda el búfer si no se indica otro tamaño. */
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    /** Eventos por lote si no se indica otro máximo. */
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    /** Espera máxima de un suscriptor sin eventos antes de volver a revisar el búfer. */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** Espera máxima por cada hilo de suscriptor al cerrar el bus. */
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Qué hacer con un suscriptor que se atrasa más que el tamaño del búfer.
+     */
+    public enum OverflowPolicy {
+        /** Saltar los eventos perdidos y seguir entregando. */
+        DROP,
+        /** Terminar la suscripción con una {@link EventOverflowException}. */
+        FAIL
+    }
+
+    private final CourseService courseService;
+    private final StudentService studentService;
+    private final AtomicReferenceArray<RegistryEvent> ring;
+    private final int mask;
+    private final int maxBatch;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong next = new AtomicLong();
+    private final List<BusSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    private EventBus(CourseService courseService, StudentService studentService, int capacity, int maxBatch,
+            OverflowPolicy overflowPolicy) {
+        this.courseService = courseService;
+        this.studentService = studentService;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxBatch = maxBatch;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Crea un bus con el tamaño de búfer y de lote por defecto y la política
+     * {@link OverflowPolicy#DROP}.
+     *
+     * @see #attach(CourseService, StudentService, int, int)
+     */
+    public static EventBus attach(CourseService courseService, StudentService studentService) {
+        return attach(courseService, studentService, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Crea un bus con la política {@link OverflowPolicy#DROP}.
+     *
+     * @see #attach(CourseService, StudentService, int, int, OverflowPolicy)
+     */
+    public static EventBus attach(CourseService courseService, StudentService studentService, int capacity,
+            int maxBatch) {
+        return attach(courseService, studentService, capacity, maxBatch, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Crea un bus y lo registra como observador de ambos servicios.
+     *
+     * @param courseService  servicio de cursos a observar
+     * @param studentService servicio de estudiantes a observar
+     * @param capacity       eventos que guarda el búfer; se redondea a una potencia de 2
+     * @param maxBatch       cantidad máxima de eventos por lote
+     * @param overflowPolicy qué hacer con un suscriptor que se atrasa más que el búfer
+     * @return el bus registrado
+     * @throws IllegalArgumentException si la capacidad o el tamaño de lote no son positivos
+     */
+    public static EventBus attach(CourseService courseService, StudentService studentService, int capacity,
+            int maxBatch, OverflowPolicy overflowPolicy) {
+        Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacidad del bus de eventos no valida: " + capacity);
+        } else if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Tamano de lote no valido: " + maxBatch);
+        }
+        int slots = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        EventBus bus = new EventBus(courseService, studentService, slots, maxBatch, overflowPolicy);
+        courseService.addListener(bus);
+        studentService.addListener(bus);
+        logger.info("Se creo el bus de eventos con {} posiciones, lotes de hasta {} y politica {}", slots, maxBatch,
+                overflowPolicy);
+        return bus;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<RegistryEvent>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        BusSubscription subscription = new BusSubscription(subscriber, next.get());
+        if (closed) {
+            subscription.cancelled = true;
+            subscriber.onSubscribe(subscription);
+            subscriber.onError(new IllegalStateException("El bus de eventos esta cerrado"));
+            return;
+        }
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        logger.debug("Nuevo suscriptor {} desde la secuencia {}", subscription.thread.getName(), subscription.cursor);
+    }
+
+    /**
+     * Retorna la cantidad de eventos publicados desde que se creó el bus.
+     *
+     * @return eventos publicados
+     */
+    public long getPublished() {
+        return next.get();
+    }
+
+    /**
+     * Retorna la cantidad de eventos que los suscriptores perdieron por
+     * atrasarse más que el tamaño del búfer, sumada entre todos ellos.
+     *
+     * @return eventos perdidos
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        String code = course.getCode();
+        String name = course.getName();
+        int capacity = course.getMaxCapacity();
+        publish(sequence -> new RegistryEvent.CourseAdded(sequence, code, name, capacity));
+    }
+
+    @Override
+    public void courseRenamed(Course course) {
+        String code = course.getCode();
+        String name = course.getName();
+        publish(sequence -> new RegistryEvent.CourseRenamed(sequence, code, name));
+    }
+
+    @Override
+    public void capacityChanged(Course course) {
+        String code = course.getCode();
+        int capacity = course.getMaxCapacity();
+        publish(sequence -> new RegistryEvent.CapacityChanged(sequence, code, capacity));
+    }
+
+    @Override
+    public void studentEnrolled(Course course, Student student) {
+        String courseCode = course.getCode();
+        String studentCode = student.getCode();
+        publish(sequence -> new RegistryEvent.StudentEnrolled(sequence, courseCode, studentCode));
+    }
+
+    @Override
+    public void studentRemoved(Course course, Student student) {
+        String courseCode = course.getCode();
+        String studentCode = student.getCode();
+        publish(sequence -> new RegistryEvent.StudentRemoved(sequence, courseCode, studentCode));
+    }
+
+    @Override
+    public void studentAdded(Student student) {
+        String code = student.getCode();
+        String name = student.getName();
+        String email = student.getEmail();
+        publish(sequence -> new RegistryEvent.StudentAdded(sequence, code, name, email));
+    }
+
+    @Override
+    public void studentRenamed(Student student) {
+        String code = student.getCode();
+        String name = student.getName();
+        publish(sequence -> new RegistryEvent.StudentRenamed(sequence, code, name));
+    }
+
+    @Override
+    public void emailChanged(Student student) {
+        String code = student.getCode();
+        String email = student.getEmail();
+        publish(sequence -> new RegistryEvent.EmailChanged(sequence, code, email));
+    }
+
+    /**
+     * Deja de observar los servicios, entrega a cada suscriptor con demanda los
+     * eventos pendientes y le avisa que el flujo terminó.
+     */
+    @Override
+    public void close() {
+        courseService.removeListener(this);
+        studentService.removeListener(this);
+        closed = true;
+        for (BusSubscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+        }
+        for (BusSubscription subscription : subscriptions) {
+            if (subscription.thread == Thread.currentThread()) {
+                continue;
+            }
+            try {
+                subscription.thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (subscription.thread.isAlive()) {
+                logger.warn("El suscriptor {} no termino al cerrar el bus de eventos", subscription.thread.getName());
+            }
+        }
+        logger.info("Se cerro el bus de eventos con {} eventos publicados y {} perdidos", getPublished(), getDropped());
+    }
+
+    /**
+     * Reserva la secuencia del evento, lo escribe en el búfer y despierta a los
+     * suscriptores que esperan. Se invoca con el candado del curso tomado, así
+     * que nunca espera.
+     */
+    private void publish(LongFunction<RegistryEvent> factory) {
+        if (closed || subscriptions.isEmpty()) {
+            return;
+        }
+        RegistryEvent event = factory.apply(next.getAndIncrement());
+        int slot = (int) (event.sequence() & mask);
+        RegistryEvent current;
+        do {
+            current = ring.get(slot);
+            if (current != null && current.sequence() > event.sequence()) {
+                // Un evento posterior ya ocupó la posición; este se da por perdido.
+                return;
+            }
+        } while (!ring.compareAndSet(slot, current, event));
+        for (BusSubscription subscription : subscriptions) {
+            if (subscription.waiting.get() && subscription.waiting.compareAndSet(true, false)) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    /**
+     * Suscripción de un {@link Flow.Subscriber}, con su propio hilo y su
+     * posición de lectura en el búfer.
+     */
+    private final class BusSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super List<RegistryEvent>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean cancelled;
+        /** Indica que el hilo espera eventos; el primer publicador que lo ve lo despierta. */
+        private final AtomicBoolean waiting = new AtomicBoolean();
+        private volatile IllegalArgumentException invalidRequest;
+        /** Desborde pendiente de avisar con la política {@link OverflowPolicy#FAIL}. */
+        private EventOverflowException overflow;
+        /** Siguiente secuencia a entregar; solo la usa el hilo del suscriptor. */
+        private long cursor;
+
+        BusSubscription(Flow.Subscriber<? super List<RegistryEvent>> subscriber, long cursor) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+            this.thread = Thread.ofPlatform().daemon().name("registry-events-" + threadCount.incrementAndGet())
+                    .unstarted(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("La demanda debe ser positiva: " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            try {
+                subscriber.onSubscribe(this);
+                while (!cancelled) {
+                    if (invalidRequest != null || overflow != null) {
+                        cancelled = true;
+                        subscriber.onError(invalidRequest != null ? invalidRequest : overflow);
+                        return;
+                    }
+                    List<RegistryEvent> batch = demand.get() > 0 ? drain() : List.of();
+                    if (!batch.isEmpty()) {
+                        demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                        subscriber.onNext(batch);
+                    } else if (overflow != null) {
+                        continue;
+                    } else if (closed) {
+                        complete();
+                        return;
+                    } else {
+                        await();
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                cancelled = true;
+                logger.error("El suscriptor {} fallo y se cancelo su suscripcion", thread.getName(), e);
+            } finally {
+                subscriptions.remove(this);
+            }
+        }
+
+        /**
+         * Termina el flujo al cerrar el bus; lo que no se entregó por falta de
+         * demanda se cuenta como perdido.
+         */
+        private void complete() {
+            long pending = next.get() - cursor;
+            if (pending > 0) {
+                lost(pending);
+            }
+            subscriber.onComplete();
+        }
+
+        /**
+         * Lee del búfer hasta {@code maxBatch} eventos consecutivos desde la
+         * posición actual. Si se perdieron eventos, con {@link OverflowPolicy#FAIL}
+         * se detiene y deja el desborde para avisarlo después del lote.
+         */
+        private List<RegistryEvent> drain() {
+            List<RegistryEvent> batch = null;
+            while (batch == null || batch.size() < maxBatch) {
+                RegistryEvent event = ring.get((int) (cursor & mask));
+                if (event == null || event.sequence() < cursor) {
+                    break;
+                } else if (event.sequence() > cursor) {
+                    long resume = Math.max(cursor + 1, next.get() - ring.length());
+                    lost(resume - cursor);
+                    if (overflowPolicy == OverflowPolicy.FAIL) {
+                        overflow = new EventOverflowException(cursor, resume - cursor);
+                        break;
+                    }
+                    cursor = resume;
+                    continue;
+                }
+                if (batch == null) {
+                    batch = new ArrayList<>(Math.min(maxBatch, 64));
+                }
+                batch.add(event);
+                cursor++;
+            }
+            return batch == null ? List.of() : Collections.unmodifiableList(batch);
+        }
+
+        /**
+         * Espera a que haya un evento y demanda para entregarlo. El aviso de que
+         * espera se publica antes de revisar el búfer, así una publicación
+         * concurrente siempre ve el aviso o deja el evento a la vista.
+         */
+        private void await() {
+            waiting.set(true);
+            try {
+                if (!cancelled && !closed && invalidRequest == null && !(demand.get() > 0 && available())) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+            } finally {
+                waiting.set(false);
+            }
+        }
+
+        private boolean available() {
+            RegistryEvent event = ring.get((int) (cursor & mask));
+            return event != null && event.sequence() >= cursor;
+        }
+
+        private void lost(long count) {
+            dropped.add(count);
+            logger.warn("El suscriptor {} se atraso y perdio {} eventos", thread.getName(), count);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.devsenior.events;
+
+/**
+ * Modificación del registro publicada por {@link EventBus}.
+ *
+ * Cada evento guarda los datos vigentes al momento de la modificación, así que
+ * puede leerse desde otro hilo aunque el curso o el estudiante cambien después.
+ * La secuencia es global y creciente; un salto en ella indica eventos que el
+ * suscriptor perdió por quedarse atrás.
+ */
+public sealed interface RegistryEvent {
+
+    /**
+     * Retorna la posición del evento en el orden de publicación.
+     *
+     * @return número de secuencia, empezando en 0
+     */
+    long sequence();
+
+    /** Se agregó un curso al registro. */
+    record CourseAdded(long sequence, String courseCode, String name, int capacity) implements RegistryEvent {
+    }
+
+    /** Un curso cambió su nombre. */
+    record CourseRenamed(long sequence, String courseCode, String name) implements RegistryEvent {
+    }
+
+    /** Un curso cambió su capacidad máxima. */
+    record CapacityChanged(long sequence, String courseCode, int capacity) implements RegistryEvent {
+    }
+
+    /** Un estudiante quedó inscrito en un curso. */
+    record StudentEnrolled(long sequence, String courseCode, String studentCode) implements RegistryEvent {
+    }
+
+    /** Un estudiante fue removido de un curso. */
+    record StudentRemoved(long sequence, String courseCode, String studentCode) implements RegistryEvent {
+    }
+
+    /** Se agregó un estudiante al registro. */
+    record StudentAdded(long sequence, String studentCode, String name, String email) implements RegistryEvent {
+    }
+
+    /** Un estudiante cambió su nombre. */
+    record StudentRenamed(long sequence, String studentCode, String name) implements RegistryEvent {
+    }
+
+    /** Un estudiante cambió su correo. */
+    record EmailChanged(long sequence, String studentCode, String email) implements RegistryEvent {
+    }
+}
@@ -0,0 +1,11 @@
+package com.devsenior.exception;
+
+/**
+ * Se lanza cuando una operación choca con el estado actual del registro:
+ * el curso o estudiante ya está registrado, o el estudiante ya está inscrito.
+ */
+public class ConflictException extends Exception {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
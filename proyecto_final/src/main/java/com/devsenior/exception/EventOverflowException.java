@@ -0,0 +1,31 @@
+package com.devsenior.exception;
+
+/**
+ * Se entrega a un suscriptor del bus de eventos que se atrasó más que el tamaño
+ * del búfer cuando su política de desborde es fallar.
+ */
+public class EventOverflowException extends RuntimeException {
+
+    private final long firstLost;
+    private final long lost;
+
+    public EventOverflowException(long firstLost, long lost) {
+        super("El suscriptor se atraso y perdio " + lost + " eventos desde la secuencia " + firstLost);
+        this.firstLost = firstLost;
+        this.lost = lost;
+    }
+
+    /**
+     * @return secuencia del primer evento perdido
+     */
+    public long getFirstLost() {
+        return firstLost;
+    }
+
+    /**
+     * @return cantidad de eventos perdidos
+     */
+    public long getLost() {
+        return lost;
+    }
+}
@@ -0,0 +1,67 @@
+package com.devsenior.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la creación de un curso o estudiante.
+ * Desactivado por defecto ({@code com.devsenior.Creation#enabled=true} lo activa).
+ */
+@Name("com.devsenior.Creation")
+@Label("Creacion")
+@Category({ "DevSenior", "Registro" })
+@Description("Creacion de un curso o estudiante")
+@Enabled(false)
+@StackTrace(false)
+public final class CreationEvent extends ServiceEvent {
+
+    private static final EventType TYPE = EventType.getEventType(CreationEvent.class);
+
+    @Label("Tipo")
+    String entity;
+
+    @Label("Nombre")
+    String name;
+
+    @Label("Codigo asignado")
+    String code;
+
+    /**
+     * Crea e inicia un evento solo si alguna grabación lo tiene activado, así
+     * las operaciones no crean eventos mientras nadie los graba.
+     *
+     * @return evento iniciado, o {@code null} si el evento está desactivado
+     */
+    public static CreationEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        CreationEvent event = new CreationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termina el evento y lo guarda si la grabación lo pide.
+     *
+     * @param entity  {@code course} o {@code student}
+     * @param name    nombre solicitado
+     * @param code    código asignado, o {@code null} si no se creó
+     * @param failure excepción con la que terminó, o {@code null}
+     */
+    public void finish(String entity, String name, String code, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            this.entity = entity;
+            this.name = name;
+            this.code = code;
+            this.outcome = outcomeOf(failure);
+            commit();
+        }
+    }
+}
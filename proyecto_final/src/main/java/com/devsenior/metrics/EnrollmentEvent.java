@@ -0,0 +1,91 @@
+package com.devsenior.metrics;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una inscripción o remoción de un estudiante en un curso.
+ * Desactivado por defecto; se activa en la grabación con
+ * {@code jfr configure} o {@code -XX:StartFlightRecording:settings=...} usando
+ * {@code com.devsenior.Enrollment#enabled=true}.
+ */
+@Name("com.devsenior.Enrollment")
+@Label("Inscripcion")
+@Category({ "DevSenior", "Registro" })
+@Description("Inscripcion o remocion de un estudiante en un curso")
+@Enabled(false)
+@StackTrace(false)
+public final class EnrollmentEvent extends ServiceEvent {
+
+    private static final EventType TYPE = EventType.getEventType(EnrollmentEvent.class);
+
+    @Label("Operacion")
+    String operation;
+
+    @Label("Curso")
+    String courseCode;
+
+    @Label("Estudiante")
+    String studentCode;
+
+    /**
+     * Crea e inicia un evento solo si alguna grabación lo tiene activado, así
+     * las operaciones no crean eventos mientras nadie los graba.
+     *
+     * @return evento iniciado, o {@code null} si el evento está desactivado
+     */
+    public static EnrollmentEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        EnrollmentEvent event = new EnrollmentEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termina el evento y lo guarda si la grabación lo pide.
+     *
+     * @param operation nombre de la operación
+     * @param course    curso de la operación
+     * @param student   estudiante de la operación
+     * @param failure   excepción con la que terminó, o {@code null}
+     */
+    public void finish(String operation, Course course, Student student, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            fill(operation, course, student, outcomeOf(failure));
+        }
+    }
+
+    /**
+     * Termina el evento de una operación que informa su resultado sin lanzar excepciones.
+     *
+     * @param operation nombre de la operación
+     * @param course    curso de la operación
+     * @param student   estudiante de la operación
+     * @param failure   código del resultado fallido, o {@code null} si terminó bien
+     */
+    public void finish(String operation, Course course, Student student, Enum<?> failure) {
+        end();
+        if (shouldCommit()) {
+            fill(operation, course, student, outcomeOf(failure));
+        }
+    }
+
+    private void fill(String operation, Course course, Student student, String outcome) {
+        this.operation = operation;
+        this.courseCode = course == null ? null : course.getCode();
+        this.studentCode = student == null ? null : student.getCode();
+        this.outcome = outcome;
+        commit();
+    }
+}
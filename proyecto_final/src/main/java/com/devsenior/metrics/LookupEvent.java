@@ -0,0 +1,86 @@
+package com.devsenior.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una búsqueda de curso o estudiante por código, nombre o correo.
+ * Desactivado por defecto ({@code com.devsenior.Lookup#enabled=true} lo activa).
+ */
+@Name("com.devsenior.Lookup")
+@Label("Busqueda")
+@Category({ "DevSenior", "Registro" })
+@Description("Busqueda de un curso o estudiante")
+@Enabled(false)
+@StackTrace(false)
+public final class LookupEvent extends ServiceEvent {
+
+    private static final EventType TYPE = EventType.getEventType(LookupEvent.class);
+
+    @Label("Operacion")
+    String operation;
+
+    @Label("Clave buscada")
+    String key;
+
+    @Label("Codigo encontrado")
+    String resultCode;
+
+    /**
+     * Crea e inicia un evento solo si alguna grabación lo tiene activado, así
+     * las operaciones no crean eventos mientras nadie los graba.
+     *
+     * @return evento iniciado, o {@code null} si el evento está desactivado
+     */
+    public static LookupEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termina el evento y lo guarda si la grabación lo pide.
+     *
+     * @param operation  nombre de la operación
+     * @param key        código, nombre o correo buscado
+     * @param resultCode código de lo encontrado, o {@code null} si no se encontró
+     * @param failure    excepción con la que terminó, o {@code null}
+     */
+    public void finish(String operation, String key, String resultCode, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            fill(operation, key, resultCode, outcomeOf(failure));
+        }
+    }
+
+    /**
+     * Termina el evento de una búsqueda que informa su resultado sin lanzar excepciones.
+     *
+     * @param operation  nombre de la operación
+     * @param key        código, nombre o correo buscado
+     * @param resultCode código de lo encontrado, o {@code null} si no se encontró
+     * @param failure    código del resultado fallido, o {@code null} si se encontró
+     */
+    public void finish(String operation, String key, String resultCode, Enum<?> failure) {
+        end();
+        if (shouldCommit()) {
+            fill(operation, key, resultCode, outcomeOf(failure));
+        }
+    }
+
+    private void fill(String operation, String key, String resultCode, String outcome) {
+        this.operation = operation;
+        this.key = key;
+        this.resultCode = resultCode;
+        this.outcome = outcome;
+        commit();
+    }
+}
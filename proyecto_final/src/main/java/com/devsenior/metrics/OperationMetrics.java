@@ -0,0 +1,253 @@
+package com.devsenior.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Event;
+
+/**
+ * Contadores y latencias de una operación de servicio.
+ *
+ * Registrar una llamada no toma candados: los contadores son {@link LongAdder}
+ * y la latencia va a un {@link LatencyHistogram}. Los servicios envuelven cada
+ * operación con {@link #time(ThrowingSupplier)} o {@link #run(ThrowingRunnable)},
+ * que además terminan su evento JFR si se les pasa uno ya iniciado:
+ *
+ * <pre>
+ * return metrics.time(CreationEvent.start(),
+ *         (event, course, failure) -&gt; event.finish("course", name, codeOf(course), failure),
+ *         () -&gt; { ... });
+ * </pre>
+ *
+ * Los caminos calientes, como las búsquedas y {@code tryEnroll}, no crean
+ * lambdas por llamada: toman {@link System#nanoTime()} y llaman a
+ * {@link #record(long, Throwable)} o, si informan su resultado con un código en
+ * lugar de lanzar una excepción, a {@link #recordOutcome(long, Enum)}; esas
+ * fallas se cuentan por el nombre del código.
+ *
+ * Cada llamada se mide una sola vez: una operación pública no llama a otras
+ * operaciones medidas de su servicio, sino a sus núcleos privados.
+ */
+public class OperationMetrics implements OperationStatsMXBean {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    /** Fallas por clase de excepción o por código de resultado. */
+    private final Map<Object, LongAdder> failuresByType = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Operación medida que retorna un valor. Admite dos tipos de excepción para
+     * que las operaciones que declaran dos no tengan que declarar {@link Exception}.
+     */
+    @FunctionalInterface
+    public interface ThrowingSupplier<T, E1 extends Exception, E2 extends Exception> {
+        T get() throws E1, E2;
+    }
+
+    /**
+     * Operación medida que no retorna un valor.
+     */
+    @FunctionalInterface
+    public interface ThrowingRunnable<E1 extends Exception, E2 extends Exception> {
+        void run() throws E1, E2;
+    }
+
+    /**
+     * Termina el evento JFR de una operación.
+     *
+     * @param <V> tipo del evento
+     * @param <T> tipo del resultado de la operación
+     */
+    @FunctionalInterface
+    public interface EventFinisher<V extends Event, T> {
+
+        /**
+         * @param event   evento iniciado antes de la operación
+         * @param result  resultado, o {@code null} si la operación falló
+         * @param failure excepción con la que terminó, o {@code null} si terminó bien
+         */
+        void finish(V event, T result, Throwable failure);
+    }
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Registra una llamada que empezó en {@code start}.
+     *
+     * @param start   valor de {@link System#nanoTime()} al empezar la llamada
+     * @param failure excepción con la que terminó, o {@code null} si terminó bien
+     */
+    public void record(long start, Throwable failure) {
+        record(start, failure == null ? null : (Object) failure.getClass());
+    }
+
+    /**
+     * Registra una llamada que empezó en {@code start} y devolvió un código de resultado.
+     *
+     * @param start   valor de {@link System#nanoTime()} al empezar la llamada
+     * @param failure código del resultado fallido, o {@code null} si terminó bien
+     */
+    public void recordOutcome(long start, Enum<?> failure) {
+        record(start, (Object) failure);
+    }
+
+    /**
+     * Ejecuta y mide una operación que retorna un valor.
+     *
+     * @param operation operación a medir
+     * @return lo que retorna la operación
+     */
+    public <T, E1 extends Exception, E2 extends Exception> T time(ThrowingSupplier<T, E1, E2> operation)
+            throws E1, E2 {
+        return time(null, null, operation);
+    }
+
+    /**
+     * Ejecuta y mide una operación que retorna un valor y la registra en un evento JFR.
+     *
+     * @param event     evento iniciado justo antes, o {@code null} si está desactivado
+     * @param finisher  termina el evento con el resultado o la excepción
+     * @param operation operación a medir
+     * @return lo que retorna la operación
+     */
+    public <V extends Event, T, E1 extends Exception, E2 extends Exception> T time(V event,
+            EventFinisher<? super V, ? super T> finisher, ThrowingSupplier<T, E1, E2> operation) throws E1, E2 {
+        long start = System.nanoTime();
+        T result = null;
+        Throwable failure = null;
+        try {
+            result = operation.get();
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            record(start, failure);
+            if (event != null) {
+                finisher.finish(event, result, failure);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta y mide una operación que no retorna un valor.
+     *
+     * @param operation operación a medir
+     */
+    public <E1 extends Exception, E2 extends Exception> void run(ThrowingRunnable<E1, E2> operation) throws E1, E2 {
+        run(null, null, operation);
+    }
+
+    /**
+     * Ejecuta y mide una operación que no retorna un valor y la registra en un evento JFR.
+     *
+     * @param event     evento iniciado justo antes, o {@code null} si está desactivado
+     * @param finisher  termina el evento; el resultado siempre es {@code null}
+     * @param operation operación a medir
+     */
+    public <V extends Event, E1 extends Exception, E2 extends Exception> void run(V event,
+            EventFinisher<? super V, Object> finisher, ThrowingRunnable<E1, E2> operation) throws E1, E2 {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            operation.run();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            record(start, failure);
+            if (event != null) {
+                finisher.finish(event, null, failure);
+            }
+        }
+    }
+
+    private void record(long start, Object failureType) {
+        long nanos = System.nanoTime() - start;
+        calls.increment();
+        totalNanos.add(nanos);
+        latency.record(nanos);
+        if (failureType != null) {
+            failures.increment();
+            failuresByType.computeIfAbsent(failureType, type -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getSuccesses() {
+        return calls.sum() - failures.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByType() {
+        Map<String, Long> byType = new TreeMap<>();
+        failuresByType.forEach((type, count) -> byType.merge(
+                type instanceof Class<?> exception ? exception.getSimpleName() : type.toString(), count.sum(), Long::sum));
+        return byType;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long count = calls.sum();
+        return count == 0 ? 0 : totalNanos.sum() / 1e3 / count;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.percentile(0.50) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.percentile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.percentile(0.999) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.max() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        failures.reset();
+        totalNanos.reset();
+        failuresByType.clear();
+        latency.reset();
+    }
+
+    /**
+     * Retorna el histograma de latencias, por ejemplo para reportes propios.
+     *
+     * @return histograma de la operación
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
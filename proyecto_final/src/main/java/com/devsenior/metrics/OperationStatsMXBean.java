@@ -0,0 +1,40 @@
+package com.devsenior.metrics;
+
+import java.util.Map;
+
+/**
+ * Vista JMX de las métricas de una operación de servicio.
+ * Las latencias se reportan en microsegundos.
+ */
+public interface OperationStatsMXBean {
+
+    /** @return llamadas registradas */
+    long getCalls();
+
+    /** @return llamadas que terminaron sin excepción */
+    long getSuccesses();
+
+    /** @return llamadas que terminaron con excepción */
+    long getFailures();
+
+    /** @return fallas agrupadas por el nombre simple de la excepción */
+    Map<String, Long> getFailuresByType();
+
+    /** @return latencia promedio */
+    double getMeanMicros();
+
+    /** @return percentil 50 de la latencia */
+    double getP50Micros();
+
+    /** @return percentil 99 de la latencia */
+    double getP99Micros();
+
+    /** @return percentil 99.9 de la latencia */
+    double getP999Micros();
+
+    /** @return latencia máxima */
+    double getMaxMicros();
+
+    /** Reinicia todos los contadores de la operación. */
+    void reset();
+}
@@ -0,0 +1,27 @@
+package com.devsenior.metrics;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base de los eventos JFR de los servicios. La duración la mide JFR entre
+ * {@code begin()} y {@code end()}; con el evento desactivado ambas llamadas no
+ * hacen nada y los campos no se llenan.
+ */
+abstract class ServiceEvent extends Event {
+
+    /**
+     * {@code OK}, el nombre simple de la excepción con la que terminó la operación
+     * o el código de resultado que devolvió en lugar de lanzarla.
+     */
+    @Label("Resultado")
+    String outcome;
+
+    static String outcomeOf(Throwable failure) {
+        return failure == null ? "OK" : failure.getClass().getSimpleName();
+    }
+
+    static String outcomeOf(Enum<?> failure) {
+        return failure == null ? "OK" : failure.name();
+    }
+}
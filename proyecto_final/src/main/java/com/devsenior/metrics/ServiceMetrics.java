@@ -0,0 +1,99 @@
+package com.devsenior.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Métricas de todas las operaciones de un servicio.
+ *
+ * Cada servicio crea las suyas; para que el monitoreo las lea sin revisar los
+ * logs se publican como MXBeans con {@link #registerMBeans()}, bajo el nombre
+ * {@code com.devsenior:type=ServiceMetrics,service=<servicio>,operation=<operación>}.
+ */
+public class ServiceMetrics {
+    private static final Logger logger = LogManager.getLogger(ServiceMetrics.class);
+
+    /** Dominio JMX donde se publican las métricas. */
+    public static final String DOMAIN = "com.devsenior";
+
+    private final String service;
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Crea las métricas de un servicio.
+     *
+     * @param service nombre del servicio, usado en el nombre JMX
+     */
+    public ServiceMetrics(String service) {
+        this.service = service;
+    }
+
+    /**
+     * Retorna las métricas de una operación, creándolas la primera vez.
+     *
+     * @param name nombre de la operación
+     * @return métricas de la operación
+     */
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * Retorna las métricas de todas las operaciones registradas.
+     *
+     * @return métricas por nombre de operación
+     */
+    public Map<String, OperationMetrics> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Publica cada operación como MXBean en el servidor de la plataforma. Si ya
+     * había métricas publicadas con el mismo nombre (de otra instancia del
+     * servicio) se reemplazan.
+     */
+    public void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics metrics : operations.values()) {
+            try {
+                ObjectName name = objectName(metrics.getName());
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(metrics, name);
+            } catch (JMException e) {
+                logger.warn("No se pudieron publicar las metricas de {}.{}", service, metrics.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Retira del servidor de la plataforma las métricas publicadas por este servicio.
+     */
+    public void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics metrics : operations.values()) {
+            try {
+                ObjectName name = objectName(metrics.getName());
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                logger.warn("No se pudieron retirar las metricas de {}.{}", service, metrics.getName(), e);
+            }
+        }
+    }
+
+    private ObjectName objectName(String operation) throws JMException {
+        return new ObjectName(DOMAIN + ":type=ServiceMetrics,service=" + service
+                + ",operation=" + operation);
+    }
+}
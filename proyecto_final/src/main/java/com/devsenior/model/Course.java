@@ -1,19 +1,46 @@
 package com.devsenior.model;
 
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.devsenior.util.IntRoster;
+import com.devsenior.util.OrdinalBitmap;
+import com.devsenior.util.RosterRenderer;
 
 /**
  * Representa un curso dentro del sistema.
  * Un curso tiene un código único, un nombre, una capacidad máxima
  * y una lista de estudiantes inscritos.
+ * La lista de inscritos es un {@link IntRoster}, guardada por código numérico sin
+ * objetos por inscripción, y admite lecturas concurrentes mientras otro hilo la
+ * modifica; los listados y reportes la recorren con {@link #getStudentsSnapshot()},
+ * una foto inmutable que se obtiene sin candados. Junto a la lista se mantiene un
+ * {@link OrdinalBitmap} con los códigos numéricos de los inscritos, sobre el que
+ * los servicios calculan intersecciones, uniones y diferencias entre cursos.
+ *
+ * La ocupación se controla con un contador de cupos sin candados: la capacidad
+ * máxima y los cupos reservados se guardan juntos en un {@link AtomicLong}
+ * (capacidad en los 32 bits altos, reservados en los 32 bajos), de modo que
+ * reservar un cupo o cambiar la capacidad es una sola operación CAS y el curso
+ * nunca queda sobrecupado.
+ *
+ * Cuando el curso está lleno los estudiantes pueden esperar en una lista de
+ * espera en orden de llegada. La lista se crea con el primer estudiante en
+ * espera y solo se lee o modifica con el candado del curso tomado.
  */
 public class Course {
 
     private final String code;
     private String name;
-    private int maxCapacity;
-    private final Map<String, Student> students;
+    private final AtomicLong seats;
+    private final IntRoster<Student> students;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Student> waitlist;
+    private OrdinalBitmap ordinals;
+    private volatile OrdinalBitmap ordinalsSnapshot;
 
     /**
      * Crea un nuevo curso con código, nombre y capacidad máxima.
@@ -23,10 +50,23 @@ public class Course {
      * @param maxCapacity número máximo de estudiantes permitidos
      */
     public Course(String code, String name, int maxCapacity) {
+        this(code, name, maxCapacity, 0);
+    }
+
+    /**
+     * Crea un curso indicando cuántos inscritos se espera que tenga, para
+     * dimensionar la lista de una vez al recuperar el registro desde disco.
+     *
+     * @param code             identificador único del curso
+     * @param name             nombre del curso
+     * @param maxCapacity      número máximo de estudiantes permitidos
+     * @param expectedStudents cantidad esperada de inscritos
+     */
+    public Course(String code, String name, int maxCapacity, int expectedStudents) {
         this.code = code;
         this.name = name;
-        this.maxCapacity = maxCapacity;
-        students = new HashMap<>();
+        this.seats = new AtomicLong(pack(maxCapacity, 0));
+        students = new IntRoster<>(Student::getCode, expectedStudents);
     }
 
     /**
@@ -35,7 +75,8 @@ public class Course {
      */
     public Course() {
         this.code = null;
-        this.students = new HashMap<>();
+        this.seats = new AtomicLong();
+        this.students = new IntRoster<>(Student::getCode, 0);
     }
 
     public String getCode() {
@@ -47,11 +88,77 @@ public class Course {
     }
 
     public int getMaxCapacity() {
-        return maxCapacity;
+        return capacityOf(seats.get());
     }
 
+    /**
+     * Retorna la cantidad de cupos reservados actualmente.
+     *
+     * @return cupos ocupados o en proceso de ser ocupados
+     */
+    public int getReservedSeats() {
+        return reservedOf(seats.get());
+    }
+
+    /**
+     * Retorna la vista en vivo, de solo lectura, de los inscritos.
+     *
+     * @return inscritos por código
+     */
     public Map<String, Student> getStudents() {
-        return students;
+        return students.view();
+    }
+
+    /**
+     * Retorna una foto inmutable de los inscritos en un instante, para recorrerla
+     * sin candados mientras otros hilos inscriben o remueven estudiantes.
+     *
+     * @return inscritos por código
+     */
+    public Map<String, Student> getStudentsSnapshot() {
+        return students.snapshot();
+    }
+
+    /**
+     * Retorna una foto inmutable de los códigos numéricos de los inscritos
+     * ({@link IntRoster#key(String)}), que se reutiliza hasta la siguiente
+     * inscripción o remoción.
+     *
+     * @return conjunto de solo lectura con los inscritos
+     */
+    public OrdinalBitmap getStudentOrdinals() {
+        OrdinalBitmap snapshot = ordinalsSnapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = ordinalsSnapshot;
+                if (snapshot == null) {
+                    snapshot = ordinals == null ? new OrdinalBitmap().immutableCopy() : ordinals.immutableCopy();
+                    ordinalsSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Busca un inscrito por su código numérico.
+     *
+     * @param ordinal código numérico del estudiante
+     * @return el estudiante, o {@code null} si no está inscrito
+     */
+    public Student getStudentByOrdinal(int ordinal) {
+        return students.get(ordinal);
+    }
+
+    /**
+     * Retorna el candado propio del curso. Los servicios en modo concurrente
+     * lo toman para inscribir o remover estudiantes, de forma que las
+     * operaciones sobre cursos distintos nunca compiten entre sí.
+     *
+     * @return candado asociado a este curso
+     */
+    public ReentrantLock getLock() {
+        return lock;
     }
 
     public void setName(String name) {
@@ -59,26 +166,202 @@ public class Course {
     }
 
     public void setMaxCapacity(int maxCapacity) {
-        this.maxCapacity = maxCapacity;
+        seats.updateAndGet(current -> pack(maxCapacity, reservedOf(current)));
+    }
+
+    /**
+     * Cambia la capacidad máxima solo si los cupos reservados caben en ella.
+     * La verificación y el cambio son atómicos frente a reservas concurrentes.
+     *
+     * @param maxCapacity nueva capacidad máxima
+     * @return {@code true} si se cambió la capacidad, {@code false} si hay más
+     *         cupos reservados que la nueva capacidad
+     */
+    public boolean trySetMaxCapacity(int maxCapacity) {
+        long current;
+        do {
+            current = seats.get();
+            if (reservedOf(current) > maxCapacity) {
+                return false;
+            }
+        } while (!seats.compareAndSet(current, pack(maxCapacity, reservedOf(current))));
+        return true;
+    }
+
+    /**
+     * Intenta reservar un cupo en el curso sin tomar candados.
+     * Quien obtiene el cupo debe agregar al estudiante con
+     * {@link #addStudent(Student, String)} o devolverlo con {@link #releaseSeat()}.
+     *
+     * @return {@code true} si se reservó el cupo, {@code false} si el curso está lleno
+     */
+    public boolean tryReserveSeat() {
+        long current;
+        do {
+            current = seats.get();
+            if (reservedOf(current) >= capacityOf(current)) {
+                return false;
+            }
+        } while (!seats.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Intenta reservar varios cupos con una sola operación atómica.
+     * Si no hay suficientes, reserva los que queden.
+     *
+     * @param count cantidad de cupos solicitados
+     * @return cantidad de cupos reservados, entre 0 y {@code count}
+     */
+    public int tryReserveSeats(int count) {
+        long current;
+        int granted;
+        do {
+            current = seats.get();
+            granted = Math.min(count, capacityOf(current) - reservedOf(current));
+            if (granted <= 0) {
+                return 0;
+            }
+        } while (!seats.compareAndSet(current, current + granted));
+        return granted;
+    }
+
+    /**
+     * Devuelve un cupo reservado, ya sea porque un estudiante salió del curso
+     * o porque la inscripción que lo reservó no se completó.
+     */
+    public void releaseSeat() {
+        long current;
+        do {
+            current = seats.get();
+            if (reservedOf(current) == 0) {
+                return;
+            }
+        } while (!seats.compareAndSet(current, current - 1));
     }
 
     /**
      * Agrega un estudiante a la lista de inscritos en el curso.
+     * El cupo debe haberse reservado antes con {@link #tryReserveSeat()}.
      *
      * @param student estudiante a agregar
      * @param key     código del estudiante
      */
     public void addStudent(Student student, String key) {
         students.put(key, student);
+        index(IntRoster.key(key), true);
     }
 
     /**
      * Elimina un estudiante de la lista de inscritos.
+     * El cupo que ocupaba se devuelve aparte con {@link #releaseSeat()}.
      *
      * @param key código del estudiante a eliminar
      */
     public void removeStudent(String key) {
-        students.remove(key);
+        // La clave se toma antes de quitarlo: si era su última lista, el código se olvida.
+        int ordinal = IntRoster.key(key);
+        if (students.remove(key) != null) {
+            index(ordinal, false);
+        }
+    }
+
+    /**
+     * Verifica si un estudiante está inscrito en el curso buscándolo por su código.
+     *
+     * @param student estudiante a verificar
+     * @return {@code true} si ese mismo estudiante está inscrito, de lo contrario {@code false}
+     */
+    public boolean hasStudent(Student student) {
+        return student.getCode() != null && students.get(student.getCode()) == student;
+    }
+
+    /**
+     * Agrega un estudiante al final de la lista de espera.
+     * Se llama con el candado del curso tomado.
+     *
+     * @param student estudiante que espera un cupo
+     * @param key     código del estudiante
+     * @param limit   cantidad máxima de estudiantes en espera
+     * @return {@code true} si quedó en espera, {@code false} si la lista está llena
+     */
+    public boolean addToWaitlist(Student student, String key, int limit) {
+        if (getWaitlistSize() >= limit) {
+            return false;
+        } else if (waitlist == null) {
+            waitlist = new LinkedHashMap<>();
+        }
+        waitlist.put(key, student);
+        return true;
+    }
+
+    /**
+     * Saca al primer estudiante de la lista de espera.
+     * Se llama con el candado del curso tomado.
+     *
+     * @return el estudiante que llevaba más tiempo esperando, o {@code null} si no hay nadie
+     */
+    public Student pollWaitlist() {
+        if (waitlist == null || waitlist.isEmpty()) {
+            return null;
+        }
+        Iterator<Student> first = waitlist.values().iterator();
+        Student student = first.next();
+        first.remove();
+        return student;
+    }
+
+    /**
+     * Quita a un estudiante de la lista de espera.
+     * Se llama con el candado del curso tomado.
+     *
+     * @param key código del estudiante
+     * @return {@code true} si el estudiante estaba esperando
+     */
+    public boolean removeFromWaitlist(String key) {
+        return waitlist != null && waitlist.remove(key) != null;
+    }
+
+    /**
+     * Verifica si un estudiante está en la lista de espera.
+     * Se llama con el candado del curso tomado.
+     *
+     * @param key código del estudiante
+     * @return {@code true} si el estudiante está esperando un cupo
+     */
+    public boolean isWaiting(String key) {
+        return waitlist != null && waitlist.containsKey(key);
+    }
+
+    /**
+     * Retorna la posición de un estudiante en la lista de espera.
+     * Se llama con el candado del curso tomado.
+     *
+     * @param key código del estudiante
+     * @return posición empezando en 1, o 0 si el estudiante no está esperando
+     */
+    public int getWaitlistPosition(String key) {
+        if (!isWaiting(key)) {
+            return 0;
+        }
+        int position = 1;
+        for (String waiting : waitlist.keySet()) {
+            if (waiting.equals(key)) {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Retorna cuántos estudiantes esperan un cupo.
+     * Se llama con el candado del curso tomado.
+     *
+     * @return tamaño de la lista de espera
+     */
+    public int getWaitlistSize() {
+        return waitlist == null ? 0 : waitlist.size();
     }
 
     /**
@@ -87,7 +370,8 @@ public class Course {
      * @return {@code true} si el curso está lleno, de lo contrario {@code false}
      */
     public Boolean isFull() {
-        return students.size() == maxCapacity;
+        long current = seats.get();
+        return reservedOf(current) >= capacityOf(current);
     }
 
     /**
@@ -97,10 +381,34 @@ public class Course {
      */
     @Override
     public String toString() {
-        return String.format("""
-                Nombre del curso: %s 
-                Capacidad: %d
-                Codigo: %s
-                """, name, maxCapacity, code);
+        return RosterRenderer.renderCourse(this);
+    }
+
+    /**
+     * Refleja una inscripción o remoción en el conjunto de códigos. Se sincroniza
+     * aparte porque la carga desde disco agrega inscritos sin el candado del curso.
+     */
+    private synchronized void index(int ordinal, boolean enrolled) {
+        if (ordinals == null) {
+            ordinals = new OrdinalBitmap();
+        }
+        if (enrolled) {
+            ordinals.add(ordinal);
+        } else {
+            ordinals.remove(ordinal);
+        }
+        ordinalsSnapshot = null;
+    }
+
+    private static long pack(int capacity, int reserved) {
+        return ((long) capacity << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int capacityOf(long seats) {
+        return (int) (seats >>> 32);
+    }
+
+    private static int reservedOf(long seats) {
+        return (int) seats;
     }
 }
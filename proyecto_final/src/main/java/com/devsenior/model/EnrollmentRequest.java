@@ -0,0 +1,10 @@
+package com.devsenior.model;
+
+/**
+ * Solicitud de inscripción de un estudiante en un curso, identificados por sus códigos.
+ *
+ * @param studentCode código del estudiante
+ * @param courseCode  código del curso
+ */
+public record EnrollmentRequest(String studentCode, String courseCode) {
+}
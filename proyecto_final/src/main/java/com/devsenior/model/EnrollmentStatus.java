@@ -0,0 +1,28 @@
+package com.devsenior.model;
+
+/**
+ * Resultado de una solicitud de inscripción.
+ */
+public enum EnrollmentStatus {
+
+    /** El estudiante quedó inscrito en el curso. */
+    ENROLLED,
+
+    /** El estudiante ya estaba inscrito en el curso. */
+    ALREADY_ENROLLED,
+
+    /** El curso no tenía cupos disponibles. */
+    COURSE_FULL,
+
+    /** No existe un curso con ese código. */
+    COURSE_NOT_FOUND,
+
+    /** No existe un estudiante con ese código. */
+    STUDENT_NOT_FOUND,
+
+    /** El curso estaba lleno y el estudiante quedó en su lista de espera. */
+    WAITLISTED,
+
+    /** El curso estaba lleno y su lista de espera también. */
+    WAITLIST_FULL
+}
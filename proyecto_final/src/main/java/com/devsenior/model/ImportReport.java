@@ -0,0 +1,74 @@
+package com.devsenior.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva desde un archivo CSV.
+ * Cuenta las filas procesadas e importadas y guarda, por cada fila rechazada,
+ * su número de línea y la razón del rechazo.
+ */
+public class ImportReport {
+
+    /**
+     * Fila rechazada durante la importación.
+     *
+     * @param line    número de línea dentro del archivo (la primera es 1)
+     * @param message razón por la que no se importó
+     */
+    public record RowError(long line, String message) {
+    }
+
+    private long processed;
+    private long imported;
+    private final List<RowError> errors;
+
+    /**
+     * Crea un reporte vacío.
+     */
+    public ImportReport() {
+        errors = new ArrayList<>();
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Registra una fila importada correctamente.
+     */
+    public void addImported() {
+        processed++;
+        imported++;
+    }
+
+    /**
+     * Registra una fila rechazada.
+     *
+     * @param line    número de línea de la fila
+     * @param message razón del rechazo
+     */
+    public void addError(long line, String message) {
+        processed++;
+        errors.add(new RowError(line, message));
+    }
+
+    /**
+     * Retorna un resumen en texto del reporte.
+     *
+     * @return cadena con filas procesadas, importadas y rechazadas
+     */
+    @Override
+    public String toString() {
+        return "Filas procesadas: " + processed + "\nImportadas: " + imported + "\nRechazadas: " + errors.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.devsenior.model;
+
+/**
+ * Forma de comparar el texto de una búsqueda por nombre con los nombres registrados.
+ */
+public enum NameMatch {
+
+    /** El nombre empieza exactamente por el texto buscado. */
+    PREFIX,
+
+    /** El nombre empieza por el texto buscado sin distinguir mayúsculas ni tildes. */
+    IGNORE_CASE,
+
+    /**
+     * Como {@link #IGNORE_CASE}, pero tolera un error de escritura en el texto
+     * buscado: una letra de más, de menos, cambiada o dos letras intercambiadas.
+     * Primero se entregan las coincidencias exactas.
+     */
+    FUZZY
+}
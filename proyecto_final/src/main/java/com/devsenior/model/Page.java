@@ -0,0 +1,22 @@
+package com.devsenior.model;
+
+import java.util.List;
+
+/**
+ * Página de un listado ordenado.
+ *
+ * @param items      elementos de la página, en el orden pedido
+ * @param nextCursor cursor para pedir la página siguiente, o {@code null} si es la última
+ * @param <T>        tipo de los elementos
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Verifica si quedan elementos después de esta página.
+     *
+     * @return {@code true} si hay una página siguiente
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
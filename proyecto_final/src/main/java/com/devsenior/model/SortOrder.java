@@ -0,0 +1,13 @@
+package com.devsenior.model;
+
+/**
+ * Orden en que se recorren los listados paginados.
+ */
+public enum SortOrder {
+
+    /** Por código, de menor a mayor. */
+    CODE,
+
+    /** Por nombre; los nombres iguales se desempatan por código. */
+    NAME
+}
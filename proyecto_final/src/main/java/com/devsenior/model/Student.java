@@ -1,19 +1,25 @@
 package com.devsenior.model;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import com.devsenior.util.IntRoster;
+import com.devsenior.util.RosterRenderer;
+
 /**
  * Representa a un estudiante dentro del sistema.
  * Un estudiante tiene un código único, un nombre, un correo electrónico
  * y una lista de cursos en los que está inscrito.
+ * La lista de cursos es un {@link IntRoster}, guardada por código numérico, y
+ * admite que varios hilos inscriban al estudiante en cursos distintos al mismo
+ * tiempo; los listados la recorren con {@link #getCoursesSnapshot()}, una foto
+ * inmutable que se obtiene sin candados.
  */
 public class Student {
 
     private final String code;
     private String name;
     private String email;
-    private final Map<String, Course> courses;
+    private final IntRoster<Course> courses;
 
     /**
      * Crea un nuevo estudiante con código, nombre y correo.
@@ -23,10 +29,23 @@ public class Student {
      * @param email correo electrónico del estudiante
      */
     public Student(String code, String name, String email) {
+        this(code, name, email, 0);
+    }
+
+    /**
+     * Crea un estudiante indicando en cuántos cursos se espera que esté inscrito,
+     * para dimensionar la lista de una vez al recuperar el registro desde disco.
+     *
+     * @param code            identificador único del estudiante
+     * @param name            nombre del estudiante
+     * @param email           correo electrónico del estudiante
+     * @param expectedCourses cantidad esperada de cursos
+     */
+    public Student(String code, String name, String email, int expectedCourses) {
         this.code = code;
         this.name = name;
         this.email = email;
-        courses = new HashMap<>();
+        courses = new IntRoster<>(Course::getCode, expectedCourses);
     }
 
     /**
@@ -35,7 +54,7 @@ public class Student {
      */
     public Student() {
         this.code = null;
-        this.courses = new HashMap<>();
+        this.courses = new IntRoster<>(Course::getCode, 0);
     }
 
     public String getCode() {
@@ -50,8 +69,23 @@ public class Student {
         return email;
     }
 
+    /**
+     * Retorna la vista en vivo, de solo lectura, de los cursos del estudiante.
+     *
+     * @return cursos por código
+     */
     public Map<String, Course> getCourses() {
-        return courses;
+        return courses.view();
+    }
+
+    /**
+     * Retorna una foto inmutable de los cursos del estudiante en un instante,
+     * para recorrerla sin candados mientras se inscribe en otros cursos.
+     *
+     * @return cursos por código
+     */
+    public Map<String, Course> getCoursesSnapshot() {
+        return courses.snapshot();
     }
 
     public void setName(String name) {
@@ -81,6 +115,16 @@ public class Student {
         courses.remove(key);
     }
 
+    /**
+     * Verifica si el estudiante está inscrito en un curso buscándolo por su código.
+     *
+     * @param course curso a verificar
+     * @return {@code true} si ese mismo curso está en su lista, de lo contrario {@code false}
+     */
+    public boolean isEnrolledIn(Course course) {
+        return course.getCode() != null && courses.get(course.getCode()) == course;
+    }
+
     /**
      * Retorna una representación en texto del estudiante.
      *
@@ -88,11 +132,7 @@ public class Student {
      */
     @Override
     public String toString() {
-        return String.format("""
-            Nombre: %s
-            Email: %s
-            Codigo: %s
-        """, name, email, code);
+        return RosterRenderer.renderStudent(this);
     }
 }
 
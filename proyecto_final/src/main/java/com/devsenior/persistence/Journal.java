@@ -0,0 +1,650 @@
+package com.devsenior.persistence;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.RegistryListener;
+import com.devsenior.service.StudentService;
+
+/**
+ * Bitácora de solo escritura al final (write-ahead journal) con todas las
+ * modificaciones de {@link CourseService} y {@link StudentService}.
+ *
+ * Cada modificación se escribe como una línea de texto con sus campos separados
+ * por tabuladores y un CRC32 al final. La operación que la produjo no retorna
+ * hasta que la línea está sincronizada en disco, pero las escrituras se agrupan
+ * (group commit): mientras un hilo sincroniza, los demás acumulan sus registros
+ * y el siguiente {@code force} los confirma a todos juntos.
+ *
+ * Junto a la bitácora se guarda una {@link Snapshot} binaria con el estado
+ * completo. Al abrirse se carga la foto y luego se reproducen los registros de
+ * la bitácora; cuando la cantidad de registros supera un umbral se compacta en
+ * un hilo aparte. Con el candado de la bitácora solo se rota el archivo: el
+ * actual pasa a {@code .prev} y se abre uno vacío de la época siguiente. La foto
+ * de esa época se escribe después sin candados, mientras las operaciones siguen
+ * agregando registros al archivo nuevo, y al terminar se borra el {@code .prev}.
+ * La bitácora empieza con un registro {@code EPOCH} que indica a qué foto
+ * pertenece, y si es anterior a la foto cargada sus registros ya están incluidos
+ * en ella y no se reproducen. Si al abrirse queda un {@code .prev}, la última
+ * compactación no terminó: se reproducen ambos archivos y se escribe la foto.
+ * La reproducción tolera registros repetidos, de modo que una compactación
+ * concurrente con modificaciones nunca pierde información.
+ */
+public class Journal implements RegistryListener, Closeable {
+    private static final Logger logger = LogManager.getLogger(Journal.class);
+
+    /** Registros a partir de los cuales se compacta la bitácora si no se indica otro umbral. */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1_000_000;
+
+    static final String EPOCH = "EPOCH";
+    static final String COURSE = "COURSE";
+    static final String COURSE_NAME = "COURSE_NAME";
+    static final String CAPACITY = "CAPACITY";
+    static final String STUDENT = "STUDENT";
+    static final String STUDENT_NAME = "STUDENT_NAME";
+    static final String EMAIL = "EMAIL";
+    static final String ENROLL = "ENROLL";
+    static final String REMOVE = "REMOVE";
+
+    private final Path path;
+    private final Path snapshotPath;
+    private final Path previousPath;
+    private final CourseService courseService;
+    private final StudentService studentService;
+    private final long compactionThreshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Evita dos compactaciones a la vez; nunca se toma dentro de {@link #lock}. */
+    private final ReentrantLock compaction = new ReentrantLock();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            task -> Thread.ofPlatform().daemon().name("journal-compactor").unstarted(task));
+    private final Condition flushed = lock.newCondition();
+    private final StringBuilder pending = new StringBuilder();
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+    private FileChannel channel;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private IOException failure;
+    private long failedUpTo;
+    private long rotatedSeq;
+    private boolean compactionScheduled;
+    private long records;
+    private long epoch;
+    private final long skippedRecords;
+
+    private Journal(Path path, CourseService courseService, StudentService studentService, long compactionThreshold,
+            long records, long skippedRecords, long epoch) throws IOException {
+        this.skippedRecords = skippedRecords;
+        this.path = path;
+        this.snapshotPath = snapshotPathOf(path);
+        this.previousPath = previousPathOf(path);
+        this.epoch = epoch;
+        this.courseService = courseService;
+        this.studentService = studentService;
+        this.compactionThreshold = compactionThreshold;
+        this.records = records;
+        this.channel = openChannel(path);
+    }
+
+    /**
+     * Abre la bitácora con el umbral de compactación por defecto.
+     *
+     * @see #open(Path, CourseService, StudentService, long)
+     */
+    public static Journal open(Path path, CourseService courseService, StudentService studentService)
+            throws IOException {
+        return open(path, courseService, studentService, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Carga la foto y reproduce la bitácora existente sobre los servicios, y queda
+     * registrada como observador de ambos para guardar sus modificaciones siguientes.
+     * Desde entonces el servicio de cursos solo inscribe estudiantes registrados
+     * en {@code studentService}, cuyos registros ya están en la bitácora.
+     *
+     * @param path                archivo de la bitácora; se crea si no existe. La
+     *                            foto se guarda al lado, con extensión {@code .snapshot}
+     * @param courseService       servicio de cursos a recuperar y observar
+     * @param studentService      servicio de estudiantes a recuperar y observar
+     * @param compactionThreshold registros a partir de los cuales se compacta
+     * @return la bitácora abierta
+     * @throws IOException si la foto está dañada o los archivos no se pueden leer o crear
+     */
+    public static Journal open(Path path, CourseService courseService, StudentService studentService,
+            long compactionThreshold) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        courseService.requireRegisteredStudents(studentService);
+        long epoch = Snapshot.load(snapshotPathOf(path), courseService, studentService);
+        boolean rotating = Files.exists(previousPathOf(path));
+        long[] previous = rotating ? replay(previousPathOf(path), epoch, epoch, courseService, studentService)
+                : new long[] { 0, 0, epoch, 0 };
+        // Tras una rotación sin foto la bitácora actual es de la época siguiente a la foto.
+        long[] replayed = replay(path, epoch, rotating ? epoch + 1 : epoch, courseService, studentService);
+        long journalEpoch = Math.max(epoch, replayed[2]);
+        long skipped = previous[3] + replayed[3];
+        Journal journal = new Journal(path, courseService, studentService, compactionThreshold,
+                previous[0] + replayed[0], skipped, journalEpoch);
+        if (skipped > 0) {
+            logger.warn("{} registros de la bitacora {} no se pudieron aplicar y se omitieron", skipped, path);
+        }
+        if (rotating) {
+            logger.warn("La compactacion anterior de la bitacora {} no termino, se completa", path);
+            journal.rewrite();
+        } else if (replayed[1] > 0) {
+            logger.warn("La bitacora {} tenia {} registros incompletos al final, se compacta", path, replayed[1]);
+            journal.rewrite();
+        } else if (replayed[2] != epoch) {
+            // La bitácora no corresponde a la foto, se reemplaza por una vacía de la época actual.
+            journal.rewrite();
+        }
+        courseService.addListener(journal);
+        studentService.addListener(journal);
+        logger.info("Se abrio la bitacora {} con {} registros", path, previous[0] + replayed[0]);
+        return journal;
+    }
+
+    /**
+     * Retorna cuántos registros no se pudieron aplicar al abrir la bitácora. Los
+     * registros repetidos, que ya estaban aplicados, no se cuentan.
+     *
+     * @return registros omitidos al reproducir
+     */
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        append(COURSE, course.getCode(), course.getName(), String.valueOf(course.getMaxCapacity()));
+    }
+
+    @Override
+    public void courseRenamed(Course course) {
+        append(COURSE_NAME, course.getCode(), course.getName());
+    }
+
+    @Override
+    public void capacityChanged(Course course) {
+        append(CAPACITY, course.getCode(), String.valueOf(course.getMaxCapacity()));
+    }
+
+    @Override
+    public void studentEnrolled(Course course, Student student) {
+        append(ENROLL, course.getCode(), student.getCode());
+    }
+
+    @Override
+    public void studentRemoved(Course course, Student student) {
+        append(REMOVE, course.getCode(), student.getCode());
+    }
+
+    @Override
+    public void studentAdded(Student student) {
+        append(STUDENT, student.getCode(), student.getName(), student.getEmail());
+    }
+
+    @Override
+    public void studentRenamed(Student student) {
+        append(STUDENT_NAME, student.getCode(), student.getName());
+    }
+
+    @Override
+    public void emailChanged(Student student) {
+        append(EMAIL, student.getCode(), student.getEmail());
+    }
+
+    /**
+     * Espera a que los registros agregados por este hilo estén en disco.
+     *
+     * @throws UncheckedIOException si no se pudo escribir la bitácora
+     */
+    @Override
+    public void commit() {
+        long[] last = lastAppended.get();
+        long seq = last[0];
+        if (seq == 0) {
+            return;
+        }
+        last[0] = 0;
+        awaitDurable(seq);
+    }
+
+    /**
+     * Espera a que todos los registros agregados hasta ahora estén en disco.
+     */
+    public void flush() {
+        long seq;
+        lock.lock();
+        try {
+            seq = appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    /**
+     * Rota la bitácora a una época nueva y escribe la foto de esa época. Solo la
+     * rotación toma el candado de la bitácora; la foto se escribe sin él, así que
+     * las operaciones siguen agregando registros mientras tanto. Si la foto de
+     * una compactación anterior falló, se reintenta esa en lugar de rotar otra vez.
+     *
+     * @throws IOException si no se pudo rotar la bitácora o escribir la foto
+     */
+    public void compact() throws IOException {
+        compaction.lock();
+        try {
+            if (!Files.exists(previousPath)) {
+                rotate();
+            }
+            long target;
+            lock.lock();
+            try {
+                target = epoch;
+            } finally {
+                lock.unlock();
+            }
+            Snapshot.write(snapshotPath, target, courseService, studentService);
+            Files.deleteIfExists(previousPath);
+            lock.lock();
+            try {
+                // La foto incluye todo lo aplicado antes de rotar, aunque no haya llegado al disco.
+                if (durableSeq < rotatedSeq) {
+                    durableSeq = rotatedSeq;
+                }
+                if (failure != null && failedUpTo <= rotatedSeq) {
+                    failure = null;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            logger.info("Se compacto la bitacora {} en la foto {} (epoca {})", path, snapshotPath, target);
+        } finally {
+            compaction.unlock();
+        }
+    }
+
+    /**
+     * Pasa la bitácora actual a {@code .prev} y abre una vacía de la época
+     * siguiente. Los registros pendientes se escriben en la nueva.
+     */
+    private void rotate() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            long next = epoch + 1;
+            Path tmp = writeEmpty(next);
+            channel.close();
+            Files.move(path, previousPath, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = openChannel(path);
+            epoch = next;
+            rotatedSeq = appendedSeq;
+            records = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reemplaza la foto y la bitácora por una foto nueva y una bitácora vacía de la
+     * época siguiente, en ese orden: una caída entre los dos pasos deja archivos
+     * de épocas anteriores, que al abrirse se descartan porque la foto ya los
+     * incluye. Se usa al abrir, antes de observar los servicios.
+     */
+    private void rewrite() throws IOException {
+        long next = epoch + 1;
+        Path tmp = writeEmpty(next);
+        Snapshot.write(snapshotPath, next, courseService, studentService);
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(previousPath);
+        channel = openChannel(path);
+        epoch = next;
+        records = 0;
+        logger.info("Se reescribio la bitacora {} en la foto {} (epoca {})", path, snapshotPath, next);
+    }
+
+    /**
+     * Escribe junto a la bitácora un archivo temporal que solo tiene el registro de época.
+     */
+    private Path writeEmpty(long epoch) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, (encode(EPOCH, String.valueOf(epoch)) + "\n").getBytes(StandardCharsets.UTF_8));
+            out.force(true);
+        }
+        return tmp;
+    }
+
+    /**
+     * Deja de observar los servicios, espera los registros pendientes y cierra el archivo.
+     *
+     * @throws IOException si no se pudo cerrar el archivo
+     */
+    @Override
+    public void close() throws IOException {
+        courseService.removeListener(this);
+        studentService.removeListener(this);
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compacta en el hilo de compactación y registra el error si falla.
+     */
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            logger.error("No se pudo compactar la bitacora {}", path, e);
+        } finally {
+            lock.lock();
+            try {
+                compactionScheduled = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Agrega un registro al búfer pendiente. Se invoca con el candado del curso
+     * tomado, por lo que solo copia texto y nunca espera al disco; si la bitácora
+     * superó el umbral, pide la compactación al hilo de compactación.
+     */
+    private void append(String... fields) {
+        String record = encode(fields);
+        lock.lock();
+        try {
+            pending.append(record).append('\n');
+            records++;
+            lastAppended.get()[0] = ++appendedSeq;
+            if (records >= compactionThreshold && !compactionScheduled && !compactor.isShutdown()) {
+                compactionScheduled = true;
+                try {
+                    compactor.execute(this::compactInBackground);
+                } catch (RejectedExecutionException e) {
+                    // La bitácora se está cerrando.
+                    compactionScheduled = false;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Espera a que el registro {@code seq} esté en disco. Si nadie está
+     * sincronizando, este hilo toma todo lo pendiente, lo escribe y lo sincroniza
+     * para todos; si otro hilo ya lo está haciendo, espera su resultado.
+     */
+    private void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw new UncheckedIOException("No se pudo escribir la bitacora", failure);
+                }
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                long upTo = appendedSeq;
+                byte[] batch = pending.toString().getBytes(StandardCharsets.UTF_8);
+                pending.setLength(0);
+                FileChannel target = channel;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    write(target, batch);
+                    target.force(false);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                    failedUpTo = upTo;
+                    logger.error("No se pudo escribir la bitacora {}", path, error);
+                } else if (upTo > durableSeq) {
+                    durableSeq = upTo;
+                }
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void write(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static Path snapshotPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".snapshot");
+    }
+
+    private static Path previousPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".prev");
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Aplica los registros del archivo sobre los servicios. Los registros cuyo
+     * efecto ya está aplicado (repetidos tras una compactación) se ignoran; los
+     * que fallan por otro motivo se omiten con una advertencia y se cuentan. La lectura se
+     * detiene en el primer registro con CRC inválido, que solo puede ser el final
+     * de una escritura interrumpida. Si la bitácora es de una época anterior a la
+     * foto cargada no se aplica nada, porque la foto ya incluye sus registros.
+     *
+     * @param epoch    época de la foto ya cargada, {@code 0} si no había foto
+     * @param maxEpoch época más nueva aceptada; la siguiente a la foto si quedó una rotación a medias
+     * @return registros leídos, registros descartados al final, época de la bitácora y registros omitidos
+     * @throws IOException si el archivo no se puede leer o es posterior a {@code maxEpoch}
+     */
+    static long[] replay(Path path, long epoch, long maxEpoch, CourseService courseService,
+            StudentService studentService) throws IOException {
+        if (!Files.exists(path)) {
+            return new long[] { 0, 0, epoch, 0 };
+        }
+        long applied = 0;
+        long skipped = 0;
+        long torn = 0;
+        long journalEpoch = -1;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = decode(line);
+                if (fields == null) {
+                    torn++;
+                    while (reader.readLine() != null) {
+                        torn++;
+                    }
+                    break;
+                }
+                if (journalEpoch < 0) {
+                    journalEpoch = EPOCH.equals(fields[0]) ? Long.parseLong(fields[1]) : 0;
+                    if (journalEpoch > maxEpoch) {
+                        throw new IOException("La bitacora " + path + " es de la epoca " + journalEpoch
+                                + " pero la foto es de la epoca " + epoch);
+                    } else if (journalEpoch < epoch) {
+                        logger.info("La bitacora {} es de una epoca anterior a la foto, se descarta", path);
+                        return new long[] { 0, 0, journalEpoch, 0 };
+                    } else if (EPOCH.equals(fields[0])) {
+                        continue;
+                    }
+                }
+                applied++;
+                if (isApplied(fields, courseService, studentService)) {
+                    continue;
+                }
+                try {
+                    apply(fields, courseService, studentService);
+                } catch (Exception e) {
+                    skipped++;
+                    logger.warn("Registro de bitacora omitido {}: {}", line, e.getMessage());
+                }
+            }
+        }
+        return new long[] { applied, torn, journalEpoch < 0 ? epoch : journalEpoch, skipped };
+    }
+
+    /**
+     * Verifica si el efecto de un registro ya está en los servicios, por ejemplo
+     * una inscripción que la foto ya incluye.
+     */
+    private static boolean isApplied(String[] f, CourseService courses, StudentService students) {
+        if (f.length < 2) {
+            return false;
+        }
+        Course course = courses.getCourse(f[1]);
+        Student student = students.getStudent(f[1]);
+        return switch (f[0]) {
+            case COURSE -> course != null;
+            case COURSE_NAME -> course != null && f.length > 2 && f[2].equals(course.getName());
+            case CAPACITY -> course != null && f.length > 2 && f[2].equals(String.valueOf(course.getMaxCapacity()));
+            case STUDENT -> student != null;
+            case STUDENT_NAME -> student != null && f.length > 2 && f[2].equals(student.getName());
+            case EMAIL -> student != null && f.length > 2 && f[2].equals(student.getEmail());
+            case ENROLL, REMOVE -> {
+                Student enrolled = f.length > 2 ? students.getStudent(f[2]) : null;
+                yield course != null && enrolled != null && enrolled.isEnrolledIn(course) == f[0].equals(ENROLL);
+            }
+            default -> false;
+        };
+    }
+
+    private static void apply(String[] f, CourseService courses, StudentService students) throws Exception {
+        switch (f[0]) {
+            case COURSE -> courses.addCourse(new Course(f[1], f[2], Integer.parseInt(f[3])));
+            case COURSE_NAME -> courses.setNewName(courses.getCourse(f[1]), f[2]);
+            case CAPACITY -> courses.setNewCapacity(courses.getCourse(f[1]), f[2]);
+            case STUDENT -> students.addStudent(new Student(f[1], f[2], f[3]));
+            case STUDENT_NAME -> students.setNewName(students.getStudent(f[1]), f[2]);
+            case EMAIL -> students.setNewEmail(students.getStudent(f[1]), f[2]);
+            case ENROLL -> courses.enrrolStudent(students.getStudent(f[2]), courses.getCourse(f[1]));
+            case REMOVE -> courses.removeStudentFromCourse(courses.getCourse(f[1]), students.getStudent(f[2]));
+            default -> throw new IllegalArgumentException("Tipo de registro desconocido " + f[0]);
+        }
+    }
+
+    /**
+     * Codifica un registro: campos separados por tabuladores, con {@code \}, tabuladores
+     * y saltos de línea escapados, seguido del CRC32 del texto.
+     */
+    static String encode(String... fields) {
+        StringBuilder record = new StringBuilder(64);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                record.append('\t');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\' -> record.append("\\\\");
+                    case '\t' -> record.append("\\t");
+                    case '\n' -> record.append("\\n");
+                    case '\r' -> record.append("\\r");
+                    default -> record.append(c);
+                }
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.toString().getBytes(StandardCharsets.UTF_8));
+        return record.append('\t').append(Long.toHexString(crc.getValue())).toString();
+    }
+
+    /**
+     * Decodifica un registro producido por {@link #encode(String...)}.
+     *
+     * @return los campos, o {@code null} si el registro está incompleto o dañado
+     */
+    static String[] decode(String line) {
+        int last = line.lastIndexOf('\t');
+        if (last < 0) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(line.substring(0, last).getBytes(StandardCharsets.UTF_8));
+        if (!Long.toHexString(crc.getValue()).equals(line.substring(last + 1))) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < last; i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < last) {
+                char next = line.charAt(++i);
+                field.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+}
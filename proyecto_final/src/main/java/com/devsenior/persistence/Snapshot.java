@@ -0,0 +1,375 @@
+package com.devsenior.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+/**
+ * Foto binaria completa del registro: cursos, estudiantes y las inscripciones
+ * entre ellos.
+ *
+ * Formato del archivo (enteros en big endian):
+ * <ul>
+ * <li>Encabezado: marca {@code SNAP}, versión, época, cantidad de cursos, de
+ * estudiantes y de inscripciones.</li>
+ * <li>Cursos: código, nombre y capacidad de cada uno.</li>
+ * <li>Estudiantes: código, nombre y correo de cada uno.</li>
+ * <li>Inscripciones: pares de enteros (posición del curso, posición del
+ * estudiante) agrupados por curso.</li>
+ * <li>Índice: posición de inicio de cada bloque de {@value #CHUNK} cursos y de
+ * cada bloque de {@value #CHUNK} estudiantes, y el inicio de las inscripciones.</li>
+ * <li>Cierre: posición del índice y CRC32 de todo lo anterior.</li>
+ * </ul>
+ * Los textos se guardan como longitud de dos bytes seguida de los bytes UTF-8.
+ *
+ * Cada curso se lee con su candado tomado, de modo que su capacidad y sus
+ * inscritos corresponden al mismo instante aunque la foto se escriba mientras
+ * el servicio sigue recibiendo operaciones.
+ *
+ * Para cargarla el archivo se mapea en memoria y cada bloque del índice se
+ * decodifica en paralelo, sin reconstruir el registro operación por operación.
+ * Se escribe en un archivo aparte que reemplaza al anterior con un movimiento
+ * atómico.
+ */
+public final class Snapshot {
+    private static final Logger logger = LogManager.getLogger(Snapshot.class);
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 8;
+    private static final int TRAILER_SIZE = 8 + 8;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    /** Registros por bloque de decodificación. */
+    static final int CHUNK = 4096;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Escribe el estado actual de los servicios en {@code path}, reemplazándolo
+     * de forma atómica.
+     *
+     * @param path           archivo destino
+     * @param epoch          época de la foto, para relacionarla con su bitácora
+     * @param courseService  servicio de cursos a guardar
+     * @param studentService servicio de estudiantes a guardar
+     * @throws IOException si no se pudo escribir el archivo
+     */
+    public static void write(Path path, long epoch, CourseService courseService, StudentService studentService)
+            throws IOException {
+        Collection<Course> courses = courseService.snapshotCourses().values();
+        Collection<Student> students = studentService.snapshotStudents().values();
+        // Se copian para que la cantidad escrita en el encabezado coincida con los registros.
+        Course[] courseArray = courses.toArray(Course[]::new);
+        Student[] studentArray = students.toArray(Student[]::new);
+        Map<Student, Integer> studentIndex = new IdentityHashMap<>(studentArray.length);
+        for (int i = 0; i < studentArray.length; i++) {
+            studentIndex.put(studentArray[i], i);
+        }
+        // Nombre, capacidad e inscritos de cada curso se leen juntos con su candado, así
+        // una remoción seguida de una baja de capacidad nunca deja más inscritos que cupos.
+        String[] names = new String[courseArray.length];
+        int[] capacities = new int[courseArray.length];
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        for (int c = 0; c < courseArray.length; c++) {
+            Course course = courseArray[c];
+            Map<String, Student> roster;
+            course.getLock().lock();
+            try {
+                names[c] = course.getName();
+                capacities[c] = course.getMaxCapacity();
+                roster = course.getStudentsSnapshot();
+            } finally {
+                course.getLock().unlock();
+            }
+            for (Student student : roster.values()) {
+                Integer s = studentIndex.get(student);
+                if (s == null) {
+                    continue;
+                }
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                }
+                pairs[pairCount++] = ((long) c << 32) | s;
+            }
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(tmp)) {
+            CountingOutput counter = new CountingOutput(new CheckedOutputStream(file, crc));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(epoch);
+            out.writeInt(courseArray.length);
+            out.writeInt(studentArray.length);
+            out.writeLong(pairCount);
+
+            List<Long> courseChunks = new ArrayList<>();
+            for (int i = 0; i < courseArray.length; i++) {
+                if (i % CHUNK == 0) {
+                    out.flush();
+                    courseChunks.add(counter.count);
+                }
+                writeString(out, courseArray[i].getCode());
+                writeString(out, names[i]);
+                out.writeInt(capacities[i]);
+            }
+            List<Long> studentChunks = new ArrayList<>();
+            for (int i = 0; i < studentArray.length; i++) {
+                if (i % CHUNK == 0) {
+                    out.flush();
+                    studentChunks.add(counter.count);
+                }
+                Student student = studentArray[i];
+                writeString(out, student.getCode());
+                writeString(out, student.getName());
+                writeString(out, student.getEmail());
+            }
+            out.flush();
+            long enrollmentsOffset = counter.count;
+            for (int i = 0; i < pairCount; i++) {
+                out.writeLong(pairs[i]);
+            }
+
+            out.flush();
+            long indexOffset = counter.count;
+            writeOffsets(out, courseChunks);
+            writeOffsets(out, studentChunks);
+            out.writeLong(enrollmentsOffset);
+            out.writeLong(indexOffset);
+            out.flush();
+            // El CRC cubre todo lo escrito hasta aquí y se escribe fuera del flujo que lo calcula.
+            ByteBuffer trailer = ByteBuffer.allocate(8).putLong(crc.getValue());
+            file.write(trailer.array());
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Se guardo la foto {} con {} cursos, {} estudiantes y {} inscripciones", path,
+                courseArray.length, studentArray.length, pairCount);
+    }
+
+    /**
+     * Carga la foto en los servicios, que deberían estar vacíos.
+     *
+     * @param path           archivo de la foto
+     * @param courseService  servicio donde se cargan los cursos
+     * @param studentService servicio donde se cargan los estudiantes
+     * @return época de la foto, o {@code 0} si el archivo no existe
+     * @throws IOException si el archivo está dañado, no se puede leer o tiene un
+     *                     curso con más inscritos que su capacidad
+     */
+    public static long load(Path path, CourseService courseService, StudentService studentService)
+            throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("La foto " + path + " es demasiado grande para mapearla");
+            }
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("La foto " + path + " esta incompleta");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int end = (int) size - 8;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, end));
+            if (crc.getValue() != buffer.getLong(end)) {
+                throw new IOException("La foto " + path + " esta dañada");
+            }
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("La foto " + path + " no tiene un formato conocido");
+            }
+            long epoch = buffer.getLong(8);
+            int courseCount = buffer.getInt(16);
+            int studentCount = buffer.getInt(20);
+            long pairCount = buffer.getLong(24);
+
+            int index = (int) buffer.getLong(end - 8);
+            int[] courseChunks = readOffsets(buffer, index);
+            index += 4 + courseChunks.length * 8;
+            int[] studentChunks = readOffsets(buffer, index);
+            index += 4 + studentChunks.length * 8;
+            int enrollmentsOffset = (int) buffer.getLong(index);
+
+            // Se cuentan primero los inscritos de cada curso y los cursos de cada estudiante
+            // para crear sus listas ya dimensionadas y no redimensionarlas al enlazar.
+            int[] perCourse = new int[courseCount];
+            int[] perStudent = new int[studentCount];
+            for (long i = 0; i < pairCount; i++) {
+                long pair = buffer.getLong(enrollmentsOffset + (int) (i * 8));
+                perCourse[(int) (pair >>> 32)]++;
+                perStudent[(int) pair]++;
+            }
+            Course[] courses = new Course[courseCount];
+            Student[] students = new Student[studentCount];
+            CompletableFuture<Void> courseSection = CompletableFuture.runAsync(() -> IntStream
+                    .range(0, courseChunks.length).parallel()
+                    .forEach(chunk -> decodeCourses(buffer, courseChunks[chunk], chunk * CHUNK, courses, perCourse)));
+            IntStream.range(0, studentChunks.length).parallel()
+                    .forEach(chunk -> decodeStudents(buffer, studentChunks[chunk], chunk * CHUNK, students, perStudent));
+            courseSection.join();
+            // El servicio nunca baja la capacidad por debajo de los inscritos; una foto
+            // así no la escribió él, y cargarla dejaría los cupos reservados por debajo
+            // de los inscritos.
+            for (int i = 0; i < courseCount; i++) {
+                if (perCourse[i] > courses[i].getMaxCapacity()) {
+                    throw new IOException("La foto " + path + " tiene " + perCourse[i] + " inscritos en el curso "
+                            + courses[i].getCode() + " de capacidad " + courses[i].getMaxCapacity());
+                }
+            }
+
+            CompletableFuture<Integer> restoredCourses = CompletableFuture
+                    .supplyAsync(() -> courseService.restoreCourses(courses));
+            CompletableFuture<Integer> restoredStudents = CompletableFuture
+                    .supplyAsync(() -> studentService.restoreStudents(students));
+            int pairChunks = (int) ((pairCount + CHUNK - 1) / CHUNK);
+            IntStream.range(0, pairChunks).parallel().forEach(chunk -> link(buffer, enrollmentsOffset, chunk,
+                    pairCount, courses, students));
+            IntStream.range(0, courseCount).parallel()
+                    .forEach(i -> courses[i].tryReserveSeats(courses[i].getStudents().size()));
+            restoredCourses.join();
+            restoredStudents.join();
+            logger.info("Se cargo la foto {} con {} cursos, {} estudiantes y {} inscripciones", path, courseCount,
+                    studentCount, pairCount);
+            return epoch;
+        }
+    }
+
+    private static void decodeCourses(ByteBuffer buffer, int offset, int first, Course[] courses, int[] expected) {
+        int last = Math.min(courses.length, first + CHUNK);
+        int[] position = { offset };
+        for (int i = first; i < last; i++) {
+            String code = readString(buffer, position);
+            String name = readString(buffer, position);
+            int capacity = buffer.getInt(position[0]);
+            position[0] += 4;
+            courses[i] = new Course(code, name, capacity, expected[i]);
+        }
+    }
+
+    private static void decodeStudents(ByteBuffer buffer, int offset, int first, Student[] students,
+            int[] expected) {
+        int last = Math.min(students.length, first + CHUNK);
+        int[] position = { offset };
+        for (int i = first; i < last; i++) {
+            String code = readString(buffer, position);
+            String name = readString(buffer, position);
+            String email = readString(buffer, position);
+            students[i] = new Student(code, name, email, expected[i]);
+        }
+    }
+
+    /**
+     * Enlaza en ambos sentidos las inscripciones del bloque {@code chunk}.
+     */
+    private static void link(ByteBuffer buffer, int offset, int chunk, long pairCount, Course[] courses,
+            Student[] students) {
+        long last = Math.min(pairCount, (long) (chunk + 1) * CHUNK);
+        for (long i = (long) chunk * CHUNK; i < last; i++) {
+            long pair = buffer.getLong(offset + (int) (i * 8));
+            Course course = courses[(int) (pair >>> 32)];
+            Student student = students[(int) pair];
+            course.addStudent(student, student.getCode());
+            student.addCourse(course, course.getCode());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IOException("Texto demasiado largo para la foto");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, int[] position) {
+        int length = buffer.getChar(position[0]);
+        position[0] += 2;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeOffsets(DataOutputStream out, List<Long> offsets) throws IOException {
+        out.writeInt(offsets.size());
+        for (long offset : offsets) {
+            out.writeLong(offset);
+        }
+    }
+
+    private static int[] readOffsets(ByteBuffer buffer, int index) {
+        int[] offsets = new int[buffer.getInt(index)];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (int) buffer.getLong(index + 4 + i * 8);
+        }
+        return offsets;
+    }
+
+    /**
+     * Flujo que cuenta los bytes escritos, para conocer la posición de cada bloque.
+     */
+    private static final class CountingOutput extends FilterOutputStream {
+        private long count;
+
+        CountingOutput(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
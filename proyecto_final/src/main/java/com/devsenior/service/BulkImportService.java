@@ -0,0 +1,303 @@
+package com.devsenior.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.devsenior.model.ImportReport;
+import com.devsenior.util.ValidationResult;
+import com.devsenior.util.Validator;
+
+/**
+ * Servicio de importación masiva de estudiantes y cursos desde archivos CSV.
+ *
+ * El archivo se lee en lotes con un {@link BufferedReader}, sin cargarlo completo
+ * en memoria. Cada lote se separa en columnas y se valida y luego se inserta fila
+ * por fila en {@link StudentService} o {@link CourseService}, en el mismo orden
+ * del archivo. Las filas con errores se registran en el {@link ImportReport} sin
+ * detener la importación.
+ *
+ * Cada lote se inserta dentro de un {@link RegistryBatch}, así que con la
+ * bitácora registrada se sincroniza una vez por lote y no una vez por fila.
+ *
+ * Con un paralelismo mayor a 1 la validación de cada lote se reparte entre varios
+ * hilos y se solapa con la inserción del lote anterior.
+ *
+ * Formatos esperados (la primera línea puede ser un encabezado que empiece por
+ * {@code nombre}):
+ * <ul>
+ * <li>Estudiantes: {@code nombre,email}</li>
+ * <li>Cursos: {@code nombre,capacidad}</li>
+ * </ul>
+ */
+public class BulkImportService {
+    private static final Logger logger = LogManager.getLogger(BulkImportService.class);
+
+    /** Cantidad de filas por lote cuando no se indica otra. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final CourseService courseService;
+    private final StudentService studentService;
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Fila del archivo ya separada en columnas y validada.
+     *
+     * @param line   número de línea
+     * @param fields columnas de la fila
+     * @param error  razón del rechazo, o {@code null} si la fila es válida
+     */
+    private record ParsedRow(long line, String[] fields, String error) {
+    }
+
+    /**
+     * Operación que inserta una fila válida en el servicio correspondiente.
+     */
+    @FunctionalInterface
+    private interface RowInserter {
+        void insert(String[] fields) throws Exception;
+    }
+
+    /**
+     * Operación que valida las columnas de una fila.
+     */
+    @FunctionalInterface
+    private interface RowValidator {
+        String validate(String[] fields);
+    }
+
+    /**
+     * Crea un importador de un solo hilo con el tamaño de lote por defecto.
+     *
+     * @param courseService  servicio donde se crean los cursos
+     * @param studentService servicio donde se crean los estudiantes
+     */
+    public BulkImportService(CourseService courseService, StudentService studentService) {
+        this(courseService, studentService, DEFAULT_BATCH_SIZE, 1);
+    }
+
+    /**
+     * Crea un importador indicando tamaño de lote y cantidad de hilos de validación.
+     *
+     * @param courseService  servicio donde se crean los cursos
+     * @param studentService servicio donde se crean los estudiantes
+     * @param batchSize      filas por lote
+     * @param parallelism    hilos usados para validar; 1 valida en el hilo que importa
+     */
+    public BulkImportService(CourseService courseService, StudentService studentService, int batchSize,
+            int parallelism) {
+        this.courseService = courseService;
+        this.studentService = studentService;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Importa estudiantes desde un CSV con columnas {@code nombre,email}.
+     *
+     * @param file archivo a importar
+     * @return reporte con filas importadas y rechazadas
+     * @throws IOException si el archivo no se puede leer
+     */
+    public ImportReport importStudents(Path file) throws IOException {
+        return importRows(file, fields -> {
+            ValidationResult name = Validator.checkName(fields[0]);
+            if (!name.isValid()) {
+                return "Nombre no valido (" + name + ")";
+            }
+            ValidationResult email = Validator.checkEmail(fields[1]);
+            return email.isValid() ? null : "Email no valido (" + email + ")";
+        }, fields -> studentService.createStudent(fields[0], fields[1]), studentService::beginBatch);
+    }
+
+    /**
+     * Importa cursos desde un CSV con columnas {@code nombre,capacidad}.
+     *
+     * @param file archivo a importar
+     * @return reporte con filas importadas y rechazadas
+     * @throws IOException si el archivo no se puede leer
+     */
+    public ImportReport importCourses(Path file) throws IOException {
+        return importRows(file, fields -> {
+            ValidationResult name = Validator.checkName(fields[0]);
+            if (!name.isValid()) {
+                return "Nombre no valido (" + name + ")";
+            }
+            ValidationResult capacity = Validator.checkCapacity(fields[1]);
+            return capacity.isValid() ? null : "Capacidad no valida (" + capacity + ")";
+        }, fields -> courseService.createCourse(fields[0], fields[1]), courseService::beginBatch);
+    }
+
+    /**
+     * Recorre el archivo por lotes: mientras se inserta un lote, el siguiente ya
+     * se está validando. Cada lote se inserta dentro de un {@link RegistryBatch}
+     * que solo se abre y se cierra, por eso se omite el aviso {@code try}.
+     */
+    @SuppressWarnings("try")
+    private ImportReport importRows(Path file, RowValidator validator, RowInserter inserter,
+            Supplier<RegistryBatch> batches) throws IOException {
+        ImportReport report = new ImportReport();
+        ExecutorService pool = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long[] lineNumber = { 0 };
+            List<String> lines = readBatch(reader, lineNumber, true);
+            long firstLine = lineNumber[0] - lines.size() + 1;
+            CompletableFuture<ParsedRow[]> pending = parse(lines, firstLine, validator, pool);
+            while (pending != null) {
+                ParsedRow[] rows = join(pending);
+                List<String> next = readBatch(reader, lineNumber, false);
+                pending = next.isEmpty() ? null
+                        : parse(next, lineNumber[0] - next.size() + 1, validator, pool);
+                try (RegistryBatch ignored = batches.get()) {
+                    insert(rows, inserter, report);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        logger.info("Se importo el archivo {}: {} filas procesadas, {} importadas, {} rechazadas", file,
+                report.getProcessed(), report.getImported(), report.getErrors().size());
+        return report;
+    }
+
+    /**
+     * Lee hasta {@code batchSize} líneas, omitiendo el encabezado si es la primera.
+     * Las líneas en blanco se conservan para no desfasar la numeración y se
+     * descartan al separar el lote.
+     */
+    private List<String> readBatch(BufferedReader reader, long[] lineNumber, boolean first) throws IOException {
+        List<String> lines = new ArrayList<>(batchSize);
+        String line;
+        while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+            lineNumber[0]++;
+            if (first && lineNumber[0] == 1 && line.regionMatches(true, 0, "nombre", 0, 6)) {
+                continue;
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Separa y valida un lote, repartiéndolo entre los hilos del pool si existe.
+     */
+    private CompletableFuture<ParsedRow[]> parse(List<String> lines, long firstLine, RowValidator validator,
+            ExecutorService pool) {
+        ParsedRow[] rows = new ParsedRow[lines.size()];
+        if (pool == null) {
+            parseRange(lines, firstLine, validator, rows, 0, rows.length);
+            return CompletableFuture.completedFuture(rows);
+        }
+        int chunk = (rows.length + parallelism - 1) / parallelism;
+        List<CompletableFuture<Void>> parts = new ArrayList<>(parallelism);
+        for (int from = 0; from < rows.length; from += chunk) {
+            int start = from;
+            int end = Math.min(rows.length, from + chunk);
+            parts.add(CompletableFuture.runAsync(() -> parseRange(lines, firstLine, validator, rows, start, end), pool));
+        }
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).thenApply(done -> rows);
+    }
+
+    /**
+     * Valida en su lugar las filas {@code [from, to)} del lote.
+     * Las líneas en blanco del lote se descartan dejando la posición en {@code null}.
+     */
+    private static void parseRange(List<String> lines, long firstLine, RowValidator validator, ParsedRow[] rows,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            String line = lines.get(i);
+            long number = firstLine + i;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = splitCsv(line);
+            if (fields.length != 2) {
+                rows[i] = new ParsedRow(number, fields, "Cantidad de columnas invalida, se esperaban 2");
+            } else {
+                rows[i] = new ParsedRow(number, fields, validator.validate(fields));
+            }
+        }
+    }
+
+    /**
+     * Inserta en orden las filas válidas y registra el resultado de cada una.
+     */
+    private static void insert(ParsedRow[] rows, RowInserter inserter, ImportReport report) {
+        for (ParsedRow row : rows) {
+            if (row == null) {
+                continue;
+            }
+            if (row.error() != null) {
+                report.addError(row.line(), row.error());
+                continue;
+            }
+            try {
+                inserter.insert(row.fields());
+                report.addImported();
+            } catch (Exception e) {
+                report.addError(row.line(), e.getMessage());
+            }
+        }
+    }
+
+    private static ParsedRow[] join(CompletableFuture<ParsedRow[]> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("La importacion fue interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error validando el archivo", e.getCause());
+        }
+    }
+
+    /**
+     * Separa una línea CSV en columnas. Admite campos entre comillas dobles,
+     * con {@code ""} como comilla escapada, y recorta espacios alrededor de cada campo.
+     *
+     * @param line línea a separar
+     * @return columnas de la línea
+     */
+    static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(String[]::new);
+    }
+}
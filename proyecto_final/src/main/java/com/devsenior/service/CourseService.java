@@ -1,17 +1,41 @@
 package com.devsenior.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.devsenior.exception.ConflictException;
 import com.devsenior.exception.CourseFullException;
 import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
+import com.devsenior.metrics.CreationEvent;
+import com.devsenior.metrics.EnrollmentEvent;
+import com.devsenior.metrics.LookupEvent;
+import com.devsenior.metrics.OperationMetrics;
+import com.devsenior.metrics.ServiceMetrics;
 import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentRequest;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
 import com.devsenior.model.Student;
+import com.devsenior.util.IdAllocator;
+import com.devsenior.util.OrdinalBitmap;
+import com.devsenior.util.SnapshotMap;
 import com.devsenior.util.Validator;
 
 
@@ -19,33 +43,246 @@ import com.devsenior.util.Validator;
  * Servicio encargado de gestionar los cursos del sistema.
  * Permite crear, modificar, eliminar y buscar cursos, así como gestionar
  * la inscripción y desinscripción de estudiantes en los mismos.
+ *
+ * En modo concurrente el repositorio es un {@link ConcurrentHashMap} y las
+ * operaciones que modifican la lista de inscritos de un curso toman el candado
+ * propio de ese curso ({@link Course#getLock()}), por lo que inscripciones en
+ * cursos distintos nunca compiten y la capacidad máxima nunca se sobrepasa.
+ * Las solicitudes a un curso lleno se rechazan sin candados ({@link Course#isFull()});
+ * el cupo se reserva ya con el candado tomado y solo después de inscribir a quienes
+ * esperan en la lista de espera, así nadie se adelanta a un estudiante en espera.
+ *
+ * Además del repositorio por código se mantiene un índice por nombre, de modo que
+ * buscar un curso por nombre o verificar si un nombre está libre no recorre todos
+ * los cursos. El índice se actualiza al agregar cursos y al renombrarlos.
+ * Los códigos de los cursos nuevos los entrega un {@link IdAllocator}.
+ *
+ * Un curso nuevo se entrega a los observadores antes de publicarlo en el
+ * repositorio o en los índices, y las inscripciones y remociones rechazan los
+ * cursos que aún no están registrados. Así la bitácora siempre guarda el curso
+ * antes que cualquier inscripción en él. Con
+ * {@link #requireRegisteredStudents(StudentService)} se exige lo mismo de los
+ * estudiantes.
+ *
+ * Los listados completos se entregan como fotos inmutables ({@link SnapshotMap}):
+ * se copian sin candados solo cuando el registro o la lista de inscritos cambió
+ * desde la foto anterior, y quien las recorre ve un instante coherente mientras
+ * las inscripciones siguen sin esperarlo. Para recorrer
+ * registros grandes hay listados paginados por código o por nombre con cursores,
+ * respaldados por índices ordenados, donde cada página cuesta según su tamaño y
+ * no según la cantidad total de cursos. Los mismos índices sirven para sugerir
+ * cursos por prefijo del nombre con {@link #searchCourses(String, NameMatch, int)}.
+ *
+ * Un curso lleno puede guardar estudiantes en una lista de espera acotada con
+ * {@link #enrollOrWaitlist(Student, Course)}. Cuando se libera un cupo, porque
+ * un estudiante sale o porque crece la capacidad, el primero en espera se
+ * inscribe en la misma operación y con el mismo candado del curso, de modo que
+ * los clientes no tienen que reintentar.
+ *
+ * Las búsquedas e inscripciones frecuentes tienen además una versión que no
+ * lanza excepciones ({@link #tryFindCourseByCode(String)}, {@link #tryEnroll(Student, Course)}):
+ * informan el resultado con un {@link Optional} o un {@link EnrollmentStatus}, de
+ * modo que un curso lleno o un código inexistente no cuesta armar una traza de
+ * pila. Los métodos que lanzan excepciones se mantienen sobre el mismo núcleo.
+ *
+ * Cada modificación se notifica a los {@link RegistryListener} registrados y
+ * cada operación registra su latencia y resultado en {@link #getMetrics()}.
  */
 public class CourseService {
     private static final Logger logger = LogManager.getLogger(CourseService.class);
 
+    /** Cantidad máxima de estudiantes en la lista de espera de un curso si no se indica otra. */
+    public static final int DEFAULT_WAITLIST_LIMIT = 100;
 
-    private final Map<String, Course> courses;
+
+    private final SnapshotMap<String, Course> courses;
+    private final Map<String, Course> coursesByName;
+    private final OrderedIndex<Course> ordered;
+    private final IdAllocator ids;
+    /** Hace atómicos verificar y publicar un curso nuevo o reservar un nombre. */
+    private final ReentrantLock registration = new ReentrantLock();
+    private volatile StudentService studentRegistry;
+    private final List<RegistryListener> listeners;
+    private final ThreadLocal<int[]> batchDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private final boolean concurrent;
+    private volatile int waitlistLimit = DEFAULT_WAITLIST_LIMIT;
+    private final ServiceMetrics metrics;
+    private final OperationMetrics addCourseMetrics;
+    private final OperationMetrics createCourseMetrics;
+    private final OperationMetrics listCoursesMetrics;
+    private final OperationMetrics findCourseByCodeMetrics;
+    private final OperationMetrics findCourseByNameMetrics;
+    private final OperationMetrics tryFindCourseByCodeMetrics;
+    private final OperationMetrics tryFindCourseByNameMetrics;
+    private final OperationMetrics enrrolStudentMetrics;
+    private final OperationMetrics tryEnrollMetrics;
+    private final OperationMetrics enrollBatchMetrics;
+    private final OperationMetrics enrollOrWaitlistMetrics;
+    private final OperationMetrics getWaitlistPositionMetrics;
+    private final OperationMetrics leaveWaitlistMetrics;
+    private final OperationMetrics setWaitlistLimitMetrics;
+    private final OperationMetrics removeStudentFromCourseMetrics;
+    private final OperationMetrics setNewNameMetrics;
+    private final OperationMetrics setNewCapacityMetrics;
+    private final OperationMetrics listStudentsByCourseMetrics;
+    private final OperationMetrics listCoursesPageMetrics;
+    private final OperationMetrics searchCoursesMetrics;
+    private final OperationMetrics listStudentsByCoursePageMetrics;
+    private final OperationMetrics listStudentsInBothMetrics;
+    private final OperationMetrics listStudentsInAnyMetrics;
+    private final OperationMetrics listStudentsOnlyInMetrics;
+    private final OperationMetrics countStudentsInBothMetrics;
+    private final OperationMetrics countStudentsInAnyMetrics;
 
     /**
      * Crea un nuevo servicio de cursos con un repositorio vacío.
      */
     public CourseService() {
-        courses = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Crea un nuevo servicio de cursos indicando si será usado por varios hilos.
+     *
+     * @param concurrent {@code true} para usar estructuras concurrentes y
+     *                   candados por curso, {@code false} para uso de un solo hilo
+     */
+    public CourseService(boolean concurrent) {
+        this.concurrent = concurrent;
+        courses = new SnapshotMap<>(concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+        ids = new IdAllocator();
+        listeners = new CopyOnWriteArrayList<>();
+        metrics = new ServiceMetrics("CourseService");
+        addCourseMetrics = metrics.operation("addCourse");
+        createCourseMetrics = metrics.operation("createCourse");
+        listCoursesMetrics = metrics.operation("listCourses");
+        findCourseByCodeMetrics = metrics.operation("findCourseByCode");
+        findCourseByNameMetrics = metrics.operation("findCourseByName");
+        tryFindCourseByCodeMetrics = metrics.operation("tryFindCourseByCode");
+        tryFindCourseByNameMetrics = metrics.operation("tryFindCourseByName");
+        enrrolStudentMetrics = metrics.operation("enrrolStudent");
+        tryEnrollMetrics = metrics.operation("tryEnroll");
+        enrollBatchMetrics = metrics.operation("enrollBatch");
+        enrollOrWaitlistMetrics = metrics.operation("enrollOrWaitlist");
+        getWaitlistPositionMetrics = metrics.operation("getWaitlistPosition");
+        leaveWaitlistMetrics = metrics.operation("leaveWaitlist");
+        setWaitlistLimitMetrics = metrics.operation("setWaitlistLimit");
+        removeStudentFromCourseMetrics = metrics.operation("removeStudentFromCourse");
+        setNewNameMetrics = metrics.operation("setNewName");
+        setNewCapacityMetrics = metrics.operation("setNewCapacity");
+        listStudentsByCourseMetrics = metrics.operation("listStudentsByCourse");
+        listCoursesPageMetrics = metrics.operation("listCoursesPage");
+        searchCoursesMetrics = metrics.operation("searchCourses");
+        listStudentsByCoursePageMetrics = metrics.operation("listStudentsByCoursePage");
+        listStudentsInBothMetrics = metrics.operation("listStudentsInBoth");
+        listStudentsInAnyMetrics = metrics.operation("listStudentsInAny");
+        listStudentsOnlyInMetrics = metrics.operation("listStudentsOnlyIn");
+        countStudentsInBothMetrics = metrics.operation("countStudentsInBoth");
+        countStudentsInAnyMetrics = metrics.operation("countStudentsInAny");
+        coursesByName = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        ordered = new OrderedIndex<>(concurrent);
     }
 
     /**
      * Agrega un curso al sistema si no existe previamente.
      *
      * @param course curso a agregar
-     * @throws Exception si el curso ya está registrado
+     * @throws ConflictException si el curso ya está registrado
      */
     public void addCourse(Course course) throws Exception {
-        if (!courses.containsKey(course.getCode()) && !courses.containsValue(course)) {
+        addCourseMetrics.run(() -> {
+            if (register(course, false) != Registration.ADDED) {
+                logger.warn("El curso no pudo ser añadido");
+                throw new ConflictException("El curso ya se encuentra registrado");
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Agrega un curso al repositorio y a los índices con el candado de registro
+     * tomado. Los observadores reciben el curso antes de publicarlo, de modo que
+     * nadie puede encontrarlo para inscribir estudiantes hasta que la bitácora
+     * tiene su registro.
+     *
+     * @param course     curso a agregar
+     * @param uniqueName {@code true} para rechazarlo si su nombre ya está en uso
+     * @return {@link Registration#ADDED}, o el motivo por el que no se agregó
+     */
+    private Registration register(Course course, boolean uniqueName) {
+        lockRegistration();
+        try {
+            String name = course.getName();
+            if (courses.containsKey(course.getCode())) {
+                return Registration.CODE_IN_USE;
+            } else if (uniqueName && name != null && coursesByName.containsKey(name)) {
+                return Registration.NAME_IN_USE;
+            }
+            listeners.forEach(listener -> listener.courseAdded(course));
             courses.put(course.getCode(), course);
-        } else {
-            logger.warn("El curso no pudo ser añadido");
-            throw new Exception("El curso ya se encuentra registrado");
+            ids.markUsed(course.getCode());
+            if (name != null) {
+                coursesByName.putIfAbsent(name, course);
+            }
+            ordered.add(course.getCode(), name, course);
+            return Registration.ADDED;
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Carga de una vez los cursos recuperados desde disco. A diferencia de
+     * {@link #addCourse(Course)} no registra cada curso ni avisa a los
+     * observadores, porque los cursos ya estaban guardados.
+     *
+     * @param restored cursos a cargar, con sus inscritos ya enlazados
+     * @return cantidad de cursos cargados; los de código repetido se omiten
+     */
+    public int restoreCourses(Course[] restored) {
+        int loaded = 0;
+        for (Course course : restored) {
+            if (courses.putIfAbsent(course.getCode(), course) != null) {
+                continue;
+            }
+            ids.markUsed(course.getCode());
+            if (course.getName() != null) {
+                coursesByName.putIfAbsent(course.getName(), course);
+            }
+            ordered.add(course.getCode(), course.getName(), course);
+            loaded++;
         }
+        logger.info("Se recuperaron {} cursos", loaded);
+        return loaded;
+    }
+
+    /**
+     * Retorna las métricas de las operaciones del servicio: llamadas, fallas por
+     * tipo de excepción y percentiles de latencia. Se publican por JMX con
+     * {@link ServiceMetrics#registerMBeans()}.
+     *
+     * @return métricas del servicio
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registra un observador de las modificaciones del registro de cursos.
+     *
+     * @param listener observador a registrar
+     */
+    public void addListener(RegistryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un observador registrado con {@link #addListener(RegistryListener)}.
+     *
+     * @param listener observador a quitar
+     */
+    public void removeListener(RegistryListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -54,52 +291,88 @@ public class CourseService {
      * @param name     nombre del curso
      * @param capacity capacidad máxima en formato String
      * @return el curso creado
-     * @throws Exception            si ocurre un error al registrar el curso
+     * @throws ConflictException    si el código asignado ya está registrado
      * @throws InvalidDataException si el nombre o la capacidad no son válidos
      */
     public Course createCourse(String name, String capacity) throws Exception, InvalidDataException {
-        if (!Validator.validateName(name)) {
-            logger.warn("No se pudo crear el curso debido a nombre no valido");
-            throw new InvalidDataException("Nombre no valido");
-        } else if (!Validator.validateCapacity(capacity)) {
-            logger.warn("No se pudo crear el curso debido a que se digito una capacidad invalida");
-            throw new InvalidDataException("capacidad no valida");
-        } else if (!isNameAviable(name)) {
-            logger.warn("No se pudo crear el curso debido a que su nombre ya esta en uso");
-            throw new InvalidDataException("Nombre ya en uso");
-        } else {
-            String id = Validator.createId();
-            while (!hasNotCourses()) {
-                Boolean close = true;
-                for (Course courses1 : courses.values()) {
-                    if (id.equals(courses1.getCode())) {
-                        id = Validator.createId();
-                        close = false;
-                    }
+        return createCourseMetrics.time(CreationEvent.start(),
+                (event, result, failure) -> event.finish("course", name, result == null ? null : result.getCode(), failure), () -> {
+            int maxCapacity = Validator.parseCapacity(capacity);
+            if (!Validator.validateName(name)) {
+                logger.warn("No se pudo crear el curso debido a nombre no valido");
+                throw new InvalidDataException("Nombre no valido");
+            } else if (maxCapacity < 0) {
+                logger.warn("No se pudo crear el curso debido a que se digito una capacidad invalida");
+                throw new InvalidDataException("Capacidad no valida");
+            } else if (!isNameAviable(name)) {
+                logger.warn("No se pudo crear el curso debido a que su nombre ya esta en uso");
+                throw new InvalidDataException("Nombre ya en uso");
+            } else {
+                String id = ids.nextId();
+                if (id == null) {
+                    logger.warn("No se pudo crear el curso debido a que no quedan codigos disponibles");
+                    throw new InvalidDataException("No hay codigos disponibles");
                 }
-                if (close) {
-                    break;
+                Course course = new Course(id, name, maxCapacity);
+                Registration registered = register(course, true);
+                if (registered == Registration.NAME_IN_USE) {
+                    ids.release(id);
+                    logger.warn("No se pudo crear el curso debido a que su nombre ya esta en uso");
+                    throw new InvalidDataException("Nombre ya en uso");
+                } else if (registered == Registration.CODE_IN_USE) {
+                    logger.warn("El curso no pudo ser añadido");
+                    throw new ConflictException("El curso ya se encuentra registrado");
                 }
+                commit();
+                logger.info("Se creo el curso {} con el codigo {}", course.getName(), course.getCode());
+                return course;
             }
-            Course course = new Course(id, name, Integer.parseInt(capacity));
-            addCourse(course);
-            logger.info("Se creo el curso {} con el codigo {}", course.getName(), course.getCode());
-            return course;
-        }
+        });
     }
 
     /**
      * Lista todos los cursos registrados.
      *
-     * @return mapa de cursos registrados
+     * @return foto inmutable de los cursos registrados, por código
      * @throws CourseNotFoundException si no existen cursos registrados
      */
     public Map<String, Course> listCourses() throws CourseNotFoundException {
-        if (hasNotCourses()) {
-            logger.warn("No existen actualmente datos de ningun curso");
-            throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        }
-        return courses;
+        return listCoursesMetrics.time(() -> {
+            if (hasNotCourses()) {
+                logger.warn("No existen actualmente datos de ningun curso");
+                throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
+            }
+            return courses.snapshot();
+        });
+    }
+
+    /**
+     * Lista una página de los cursos registrados en el orden pedido. A diferencia
+     * de {@link #listCourses()} un registro vacío entrega una página vacía.
+     *
+     * @param order    orden del listado
+     * @param cursor   {@link Page#nextCursor()} de la página anterior, o {@code null} para la primera
+     * @param pageSize cantidad máxima de cursos, entre 1 y 1000
+     * @return página de cursos
+     * @throws InvalidDataException si el cursor o el tamaño de página no son válidos
+     */
+    public Page<Course> listCourses(SortOrder order, String cursor, int pageSize) throws InvalidDataException {
+        return listCoursesPageMetrics.time(() -> ordered.page(order, cursor, pageSize));
+    }
+
+    /**
+     * Busca los cursos cuyo nombre empieza por un texto, para sugerencias mientras
+     * se escribe. Los resultados salen en orden alfabético y el costo depende de
+     * {@code limit}, no de la cantidad de cursos registrados.
+     *
+     * @param query texto buscado
+     * @param match forma de comparar el texto con los nombres
+     * @param limit cantidad máxima de resultados, entre 1 y 1000
+     * @return los cursos encontrados
+     * @throws InvalidDataException si el texto está vacío o el límite no es válido
+     */
+    public List<Course> searchCourses(String query, NameMatch match, int limit) throws InvalidDataException {
+        return searchCoursesMetrics.time(() -> ordered.search(query, match, limit));
     }
 
     /**
@@ -110,18 +383,63 @@ public class CourseService {
      * @throws CourseNotFoundException si no existe el curso
      */
     public Course findCourseByCode(String code) throws CourseNotFoundException {
-        if (hasNotCourses()) {
-            logger.warn("No existen actualmente datos de ningun curso");
-            throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        } else if (courses.containsKey(code)) {
-            logger.info("Se busco el curso {} con el codigo {}", courses.get(code).getName(), courses.get(code).getCode());
-            return courses.get(code);
-        } else {
-            logger.warn("No se encontro a ningun curso ");
-            throw new CourseNotFoundException("No se encontro ningun curso con ese codigo ");
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Course course = null;
+        Throwable failure = null;
+        try {
+            if (hasNotCourses()) {
+                logger.warn("No existen actualmente datos de ningun curso");
+                throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
+            } else if (courses.containsKey(code)) {
+                course = courses.get(code);
+                logger.info("Se busco el curso {} con el codigo {}", course.getName(), course.getCode());
+                return course;
+            } else {
+                logger.warn("No se encontro a ningun curso ");
+                throw new CourseNotFoundException("No se encontro ningun curso con ese codigo ");
+            }
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            findCourseByCodeMetrics.record(start, failure);
+            if (event != null) {
+                event.finish("findCourseByCode", code, course == null ? null : course.getCode(), failure);
+            }
         }
     }
 
+    /**
+     * Busca un curso por su código sin lanzar excepciones.
+     *
+     * @param code código del curso
+     * @return el curso, o vacío si no existe
+     */
+    public Optional<Course> tryFindCourseByCode(String code) {
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Course course = code == null ? null : courses.get(code);
+        EnrollmentStatus outcome = course == null ? EnrollmentStatus.COURSE_NOT_FOUND : null;
+        logger.debug("Se busco el curso con el codigo {}: {}", code, course == null ? "no encontrado" : course.getName());
+        tryFindCourseByCodeMetrics.recordOutcome(start, outcome);
+        if (event != null) {
+            event.finish("tryFindCourseByCode", code, course == null ? null : code, outcome);
+        }
+        return Optional.ofNullable(course);
+    }
+
+    /**
+     * Obtiene un curso por su código sin registrar la búsqueda ni lanzar excepciones.
+     * Lo usan las operaciones por lotes y la recuperación del registro desde disco.
+     *
+     * @param code código del curso
+     * @return el curso, o {@code null} si no existe
+     */
+    public Course getCourse(String code) {
+        return code == null ? null : courses.get(code);
+    }
+
     /**
      * Busca un curso por su nombre.
      *
@@ -130,18 +448,50 @@ public class CourseService {
      * @throws CourseNotFoundException si no existe el curso
      */
     public Course findCourseByName(String name) throws CourseNotFoundException {
-        if (hasNotCourses()) {
-            logger.warn("No existen actualmente datos de ningun curso");
-            throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        }
-        for (String code : courses.keySet()) {
-            if (courses.get(code).getName().equals(name)) {
-                logger.info("Se busco el curso {} con el codigo {}", courses.get(code).getName(), courses.get(code).getCode());
-                return courses.get(code);
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Course course = null;
+        Throwable failure = null;
+        try {
+            if (hasNotCourses()) {
+                logger.warn("No existen actualmente datos de ningun curso");
+                throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
+            }
+            course = name == null ? null : coursesByName.get(name);
+            if (course != null) {
+                logger.info("Se busco el curso {} con el codigo {}", course.getName(), course.getCode());
+                return course;
             }
+            logger.warn("No se encontro a ningun curso con ese nombre ");
+            throw new CourseNotFoundException("No se encontro ningun curso con ese nombre");
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            findCourseByNameMetrics.record(start, failure);
+            if (event != null) {
+                event.finish("findCourseByName", name, course == null ? null : course.getCode(), failure);
+            }
+        }
+    }
+
+    /**
+     * Busca un curso por su nombre sin lanzar excepciones.
+     *
+     * @param name nombre del curso
+     * @return el curso, o vacío si no existe
+     */
+    public Optional<Course> tryFindCourseByName(String name) {
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Course course = name == null ? null : coursesByName.get(name);
+        EnrollmentStatus outcome = course == null ? EnrollmentStatus.COURSE_NOT_FOUND : null;
+        logger.debug("Se busco el curso con el nombre {}: {}", name, course == null ? "no encontrado" : course.getCode());
+        tryFindCourseByNameMetrics.recordOutcome(start, outcome);
+        if (event != null) {
+            event.finish("tryFindCourseByName", name, course == null ? null : course.getCode(), outcome);
         }
-        logger.warn("No se encontro a ningun curso con ese nombre ");
-        throw new CourseNotFoundException("No se encontro ningun curso con ese nombre");
+        return Optional.ofNullable(course);
     }
 
     /**
@@ -149,28 +499,360 @@ public class CourseService {
      *
      * @param student estudiante a inscribir
      * @param course  curso en el cual inscribir
-     * @throws Exception             si el estudiante ya está inscrito
+     * @throws ConflictException     si el estudiante ya está inscrito
      * @throws CourseFullException   si el curso ya está en su capacidad máxima
      * @throws CourseNotFoundException si no existen cursos
      */
     public void enrrolStudent(Student student, Course course) throws Exception, CourseFullException, CourseNotFoundException {
+        enrrolStudentMetrics.run(EnrollmentEvent.start(),
+                (event, result, failure) -> event.finish("enrrolStudent", course, student, failure), () -> {
+            EnrollmentStatus status = enroll(student, course);
+            if (status == EnrollmentStatus.COURSE_FULL) {
+                throw new CourseFullException("El curso ya esta en su maxima capacidad ");
+            } else if (status == EnrollmentStatus.COURSE_NOT_FOUND && hasNotCourses()) {
+                throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
+            } else if (status == EnrollmentStatus.COURSE_NOT_FOUND) {
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            } else if (status == EnrollmentStatus.STUDENT_NOT_FOUND) {
+                throw new StudentNotFoundException("No se encontro ningun estudiante");
+            } else if (status == EnrollmentStatus.ALREADY_ENROLLED && student.isEnrolledIn(course)) {
+                throw new ConflictException("El estudiante ya esta inscrito en este curso ");
+            } else if (status == EnrollmentStatus.ALREADY_ENROLLED) {
+                throw new ConflictException("El curso ya tiene actualmente inscrito a el estudiante");
+            }
+        });
+    }
+
+    /**
+     * Inscribe un estudiante en un curso sin lanzar excepciones por los rechazos
+     * esperables, para los caminos donde un curso lleno es frecuente.
+     *
+     * @param student estudiante a inscribir
+     * @param course  curso en el cual inscribir
+     * @return {@link EnrollmentStatus#ENROLLED}, {@code COURSE_FULL}, {@code ALREADY_ENROLLED},
+     *         {@code COURSE_NOT_FOUND} o {@code STUDENT_NOT_FOUND}
+     */
+    public EnrollmentStatus tryEnroll(Student student, Course course) {
+        long start = System.nanoTime();
+        EnrollmentEvent event = EnrollmentEvent.start();
+        EnrollmentStatus status;
+        try {
+            if (course == null || !isRegistered(course)) {
+                status = EnrollmentStatus.COURSE_NOT_FOUND;
+            } else if (student == null || student.getCode() == null) {
+                status = EnrollmentStatus.STUDENT_NOT_FOUND;
+            } else {
+                status = enroll(student, course);
+            }
+        } catch (RuntimeException | Error e) {
+            tryEnrollMetrics.record(start, e);
+            if (event != null) {
+                event.finish("tryEnroll", course, student, e);
+            }
+            throw e;
+        }
+        EnrollmentStatus outcome = status == EnrollmentStatus.ENROLLED ? null : status;
+        tryEnrollMetrics.recordOutcome(start, outcome);
+        if (event != null) {
+            event.finish("tryEnroll", course, student, outcome);
+        }
+        return status;
+    }
+
+    /**
+     * Núcleo de {@link #enrrolStudent(Student, Course)} y {@link #tryEnroll(Student, Course)}:
+     * rechaza sin candados los cursos llenos y decide todo lo demás con el
+     * candado del curso tomado.
+     */
+    private EnrollmentStatus enroll(Student student, Course course) {
         if (course.isFull()) {
             logger.warn("El curso ya alcanzo su maxima capacidad ");
-            throw new CourseFullException("El curso ya esta en su maxima capacidad ");
-        } else if (hasNotCourses()) {
+            return EnrollmentStatus.COURSE_FULL;
+        }
+        EnrollmentStatus status;
+        lock(course);
+        try {
+            status = enrollLocked(student, course);
+        } finally {
+            unlock(course);
+        }
+        commit();
+        return status;
+    }
+
+    /**
+     * Realiza la inscripción con el candado del curso tomado.
+     */
+    private EnrollmentStatus enrollLocked(Student student, Course course) {
+        if (hasNotCourses()) {
             logger.warn("No existen actualmente datos de ningun curso");
-            throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        } else if (student.getCourses().containsValue(course)) {
+            return EnrollmentStatus.COURSE_NOT_FOUND;
+        } else if (!isRegistered(course)) {
+            logger.warn("Curso no encontrado para inscribir al estudiante");
+            return EnrollmentStatus.COURSE_NOT_FOUND;
+        } else if (!isRegistered(student)) {
+            logger.warn("Estudiante no encontrado para inscribirlo en el curso {} con el codigo {}", course.getName(), course.getCode());
+            return EnrollmentStatus.STUDENT_NOT_FOUND;
+        } else if (student.isEnrolledIn(course)) {
             logger.warn("El estudiante {} con codigo {} actualmente ya esta inscrito en el curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
-            throw new Exception("El estudiante ya esta inscrito en este curso ");
-        } else if (course.getStudents().containsValue(student)) {
+            return EnrollmentStatus.ALREADY_ENROLLED;
+        } else if (course.hasStudent(student)) {
             logger.warn("El curso {} con el codigo {} ya tiene actualmente inscrito a el estudiante {} con codigo {}", course.getName(), course.getCode(), student.getName(), student.getCode());
-            throw new Exception("El curso ya tiene actualmente inscrito a el estudiante");
-        } else {
+            return EnrollmentStatus.ALREADY_ENROLLED;
+        } else if (!reserveSeatLocked(course)) {
+            logger.warn("El curso ya alcanzo su maxima capacidad ");
+            return EnrollmentStatus.COURSE_FULL;
+        }
+        student.addCourse(course, course.getCode());
+        course.addStudent(student, student.getCode());
+        course.removeFromWaitlist(student.getCode());
+        listeners.forEach(listener -> listener.studentEnrolled(course, student));
+        logger.info("El estudiante {} con codigo {} se inscribio en el curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
+        return EnrollmentStatus.ENROLLED;
+    }
+
+    /**
+     * Inscribe un estudiante en un curso o, si está lleno, lo deja en la lista
+     * de espera del curso sin lanzar excepciones. Quien queda en espera se
+     * inscribe solo cuando se libera un cupo y puede consultar su turno con
+     * {@link #getWaitlistPosition(Course, Student)}.
+     *
+     * @param student estudiante a inscribir
+     * @param course  curso en el cual inscribir
+     * @return {@link EnrollmentStatus#ENROLLED}, {@code WAITLISTED} (también si ya
+     *         estaba esperando), {@code WAITLIST_FULL}, {@code ALREADY_ENROLLED},
+     *         {@code COURSE_NOT_FOUND} o {@code STUDENT_NOT_FOUND}
+     */
+    public EnrollmentStatus enrollOrWaitlist(Student student, Course course) {
+        return enrollOrWaitlistMetrics.time(() -> {
+            if (course == null || !isRegistered(course)) {
+                return EnrollmentStatus.COURSE_NOT_FOUND;
+            } else if (student == null || student.getCode() == null) {
+                return EnrollmentStatus.STUDENT_NOT_FOUND;
+            }
+            EnrollmentStatus status;
+            lock(course);
+            try {
+                status = enrollOrWaitlistLocked(student, course);
+            } finally {
+                unlock(course);
+            }
+            commit();
+            return status;
+        });
+    }
+
+    /**
+     * Realiza {@link #enrollOrWaitlist(Student, Course)} con el candado del curso tomado.
+     */
+    private EnrollmentStatus enrollOrWaitlistLocked(Student student, Course course) {
+        if (!isRegistered(student)) {
+            return EnrollmentStatus.STUDENT_NOT_FOUND;
+        } else if (student.isEnrolledIn(course) || course.hasStudent(student)) {
+            return EnrollmentStatus.ALREADY_ENROLLED;
+        } else if (course.isWaiting(student.getCode())) {
+            return EnrollmentStatus.WAITLISTED;
+        } else if (reserveSeatLocked(course)) {
             student.addCourse(course, course.getCode());
             course.addStudent(student, student.getCode());
+            listeners.forEach(listener -> listener.studentEnrolled(course, student));
             logger.info("El estudiante {} con codigo {} se inscribio en el curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
+            return EnrollmentStatus.ENROLLED;
+        } else if (course.addToWaitlist(student, student.getCode(), waitlistLimit)) {
+            logger.info("El estudiante {} con codigo {} quedo en la lista de espera del curso {} con el codigo {} en la posicion {}", student.getName(), student.getCode(), course.getName(), course.getCode(), course.getWaitlistSize());
+            return EnrollmentStatus.WAITLISTED;
         }
+        logger.warn("La lista de espera del curso {} con el codigo {} esta llena", course.getName(), course.getCode());
+        return EnrollmentStatus.WAITLIST_FULL;
+    }
+
+    /**
+     * Reserva un cupo con el candado del curso tomado. Los cupos libres son
+     * primero de quienes están en la lista de espera, así que se les entregan
+     * antes de intentar la reserva.
+     *
+     * @return {@code true} si quedó un cupo reservado para quien llama
+     */
+    private boolean reserveSeatLocked(Course course) {
+        promoteWaitlist(course, listeners);
+        return course.tryReserveSeat();
+    }
+
+    /**
+     * Retorna el turno de un estudiante en la lista de espera de un curso.
+     *
+     * @param course  curso a consultar
+     * @param student estudiante a consultar
+     * @return posición empezando en 1, o 0 si el estudiante no está esperando
+     * @throws CourseNotFoundException si el curso no existe
+     */
+    public int getWaitlistPosition(Course course, Student student) throws CourseNotFoundException {
+        return getWaitlistPositionMetrics.time(() -> {
+            if (!isRegistered(course)) {
+                logger.warn("Curso no encontrado para consultar su lista de espera");
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            }
+            lock(course);
+            try {
+                return course.getWaitlistPosition(student.getCode());
+            } finally {
+                unlock(course);
+            }
+        });
+    }
+
+    /**
+     * Saca a un estudiante de la lista de espera de un curso.
+     *
+     * @param course  curso a modificar
+     * @param student estudiante que deja de esperar
+     * @throws CourseNotFoundException  si el curso no existe
+     * @throws StudentNotFoundException si el estudiante no estaba esperando
+     */
+    public void leaveWaitlist(Course course, Student student) throws CourseNotFoundException, StudentNotFoundException {
+        leaveWaitlistMetrics.<CourseNotFoundException, StudentNotFoundException>run(() -> {
+            if (!isRegistered(course)) {
+                logger.warn("Curso no encontrado para modificar su lista de espera");
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            }
+            lock(course);
+            try {
+                if (!course.removeFromWaitlist(student.getCode())) {
+                    logger.warn("El estudiante {} con el codigo {} no esta en la lista de espera del curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
+                    throw new StudentNotFoundException("El estudiante no esta en la lista de espera del curso");
+                }
+                logger.info("El estudiante {} con el codigo {} salio de la lista de espera del curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
+            } finally {
+                unlock(course);
+            }
+        });
+    }
+
+    /**
+     * Cambia la cantidad máxima de estudiantes en la lista de espera de cada curso.
+     * Las listas que ya superan el nuevo límite se conservan, pero no aceptan más estudiantes.
+     *
+     * @param limit nuevo límite, mayor o igual a 0
+     * @throws InvalidDataException si el límite es negativo
+     */
+    public void setWaitlistLimit(int limit) throws InvalidDataException {
+        setWaitlistLimitMetrics.run(() -> {
+            if (limit < 0) {
+                throw new InvalidDataException("Limite de lista de espera no valido");
+            }
+            waitlistLimit = limit;
+        });
+    }
+
+    /**
+     * Inscribe a los primeros estudiantes en espera mientras el curso tenga cupos.
+     * Se llama con el candado del curso tomado, justo después de liberar cupos;
+     * los observadores reciben cada inscripción como cualquier otra.
+     *
+     * @param course    curso con cupos posiblemente libres
+     * @param listeners observadores a los que avisar
+     * @return cantidad de estudiantes inscritos desde la lista de espera
+     */
+    static int promoteWaitlist(Course course, List<RegistryListener> listeners) {
+        int promoted = 0;
+        while (course.getWaitlistSize() > 0 && course.tryReserveSeat()) {
+            Student student = course.pollWaitlist();
+            if (student.isEnrolledIn(course) || course.hasStudent(student)) {
+                course.releaseSeat();
+                continue;
+            }
+            student.addCourse(course, course.getCode());
+            course.addStudent(student, student.getCode());
+            listeners.forEach(listener -> listener.studentEnrolled(course, student));
+            logger.info("El estudiante {} con codigo {} paso de la lista de espera al curso {} con el codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /**
+     * Inscribe un lote de estudiantes en cursos sin lanzar excepciones.
+     *
+     * Las solicitudes se agrupan por curso: cada curso se bloquea una sola vez,
+     * se resuelven y descartan las solicitudes inválidas y los cupos necesarios se
+     * reservan con una sola operación atómica. Dentro de un mismo curso las
+     * solicitudes se atienden en el orden recibido, de modo que si no alcanzan los
+     * cupos quedan fuera las últimas. Los cupos libres se entregan primero a la
+     * lista de espera del curso, como en {@link #enrollOrWaitlist(Student, Course)}.
+     *
+     * @param requests       solicitudes de inscripción por código
+     * @param studentService servicio donde se buscan los estudiantes
+     * @return resultado de cada solicitud, en la misma posición que en {@code requests}
+     */
+    public EnrollmentStatus[] enrollBatch(List<EnrollmentRequest> requests, StudentService studentService) {
+        return enrollBatchMetrics.time(() -> {
+            EnrollmentStatus[] results = new EnrollmentStatus[requests.size()];
+            Map<String, List<Integer>> byCourse = new LinkedHashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                byCourse.computeIfAbsent(requests.get(i).courseCode(), code -> new ArrayList<>()).add(i);
+            }
+            for (Map.Entry<String, List<Integer>> group : byCourse.entrySet()) {
+                Course course = getCourse(group.getKey());
+                if (course == null) {
+                    for (int index : group.getValue()) {
+                        results[index] = EnrollmentStatus.COURSE_NOT_FOUND;
+                    }
+                    logger.warn("No se encontro el curso con el codigo {} para inscribir {} estudiantes", group.getKey(), group.getValue().size());
+                    continue;
+                }
+                lock(course);
+                try {
+                    enrollGroupLocked(course, group.getValue(), requests, studentService, results);
+                } finally {
+                    unlock(course);
+                }
+            }
+            commit();
+            return results;
+        });
+    }
+
+    /**
+     * Atiende las solicitudes de un mismo curso con su candado tomado.
+     */
+    private void enrollGroupLocked(Course course, List<Integer> indexes, List<EnrollmentRequest> requests,
+            StudentService studentService, EnrollmentStatus[] results) {
+        Student[] candidates = new Student[indexes.size()];
+        Set<String> seen = new HashSet<>();
+        int wanted = 0;
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            Student student = studentService.getStudent(requests.get(index).studentCode());
+            if (student == null) {
+                results[index] = EnrollmentStatus.STUDENT_NOT_FOUND;
+            } else if (!seen.add(student.getCode()) || student.isEnrolledIn(course) || course.hasStudent(student)) {
+                results[index] = EnrollmentStatus.ALREADY_ENROLLED;
+            } else {
+                candidates[i] = student;
+                wanted++;
+            }
+        }
+        promoteWaitlist(course, listeners);
+        int granted = wanted == 0 ? 0 : course.tryReserveSeats(wanted);
+        int enrolled = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            Student student = candidates[i];
+            if (student == null) {
+                continue;
+            }
+            int index = indexes.get(i);
+            if (enrolled < granted) {
+                student.addCourse(course, course.getCode());
+                course.addStudent(student, student.getCode());
+                course.removeFromWaitlist(student.getCode());
+                listeners.forEach(listener -> listener.studentEnrolled(course, student));
+                results[index] = EnrollmentStatus.ENROLLED;
+                enrolled++;
+            } else {
+                results[index] = EnrollmentStatus.COURSE_FULL;
+            }
+        }
+        logger.info("Se inscribieron {} de {} estudiantes solicitados en el curso {} con el codigo {}", enrolled, indexes.size(), course.getName(), course.getCode());
     }
 
     /**
@@ -182,16 +864,42 @@ public class CourseService {
      * @throws CourseNotFoundException  si el curso no existe
      */
     public void removeStudentFromCourse(Course course, Student student) throws StudentNotFoundException, CourseNotFoundException {
+        removeStudentFromCourseMetrics.<EnrollmentEvent, StudentNotFoundException, CourseNotFoundException>run(
+                EnrollmentEvent.start(),
+                (event, result, failure) -> event.finish("removeStudentFromCourse", course, student, failure), () -> {
+            lock(course);
+            try {
+                removeStudentFromCourseLocked(course, student);
+            } finally {
+                unlock(course);
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Realiza la remoción de {@link #removeStudentFromCourse(Course, Student)} con el candado del curso tomado.
+     */
+    private void removeStudentFromCourseLocked(Course course, Student student) throws StudentNotFoundException, CourseNotFoundException {
         if (hasNotCourses()) {
             logger.warn("No existen actualmente datos de ningun curso");
             throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        } else if (!course.getStudents().containsValue(student)) {
+        } else if (!isRegistered(course)) {
+            logger.warn("Curso no encontrado para remover al estudiante");
+            throw new CourseNotFoundException("No se encontro ningun curso");
+        } else if (!isRegistered(student)) {
+            logger.warn("Estudiante no encontrado para removerlo del curso {} con el codigo {}", course.getName(), course.getCode());
+            throw new StudentNotFoundException("No se encontro ningun estudiante");
+        } else if (!course.hasStudent(student)) {
             logger.warn("El curso {} con el codigo {} no cuenta con el estudiante {} con el codigo {} inscrito en el", course.getName(), course.getCode(), student.getName(), student.getCode());
             throw new StudentNotFoundException("El curso no tiene inscrito actualmente a el estudiante");
         } else {
             student.removeCourse(course.getCode());
             course.removeStudent(student.getCode());
+            course.releaseSeat();
+            listeners.forEach(listener -> listener.studentRemoved(course, student));
             logger.info("El curso {} con codigo {} removio a el estudiante {} con el codigo {} de su lista de estudiantes y viceversa", course.getName(), course.getCode(), student.getName(), student.getCode());
+            promoteWaitlist(course, listeners);
         }
     }
 
@@ -204,20 +912,41 @@ public class CourseService {
      * @throws CourseNotFoundException si el curso no existe
      */
     public void setNewName(Course course, String name) throws InvalidDataException, CourseNotFoundException {
+        setNewNameMetrics.run(() -> {
+            lock(course);
+            try {
+                setNewNameLocked(course, name);
+            } finally {
+                unlock(course);
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Realiza el cambio de {@link #setNewName(Course, String)} con el candado del curso tomado.
+     */
+    private void setNewNameLocked(Course course, String name) throws InvalidDataException, CourseNotFoundException {
         if (hasNotCourses()) {
             logger.warn("No existen actualmente datos de ningun curso");
             throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
         } else if (!Validator.validateName(name)) {
             logger.warn("No se pudo cambiar el nombre del curso {} con el codigo {} debido a que el nombre no es valido", course.getName(), course.getCode());
             throw new InvalidDataException("Nombre no valido");
-        } else if (!courses.containsValue(course)) {
+        } else if (!isRegistered(course)) {
             logger.warn("Curso no encontrado para cambiar el nombre");
             throw new CourseNotFoundException("No se encontro ningun curso");
-        } else if (!isNameAviable(name)) {
+        } else if (!reserveName(name, course)) {
             logger.warn("El nombre ya esta en uso");
             throw new InvalidDataException("Nombre ya esta siendo usado");
         } else {
+            String oldName = course.getName();
             course.setName(name);
+            if (oldName != null) {
+                coursesByName.remove(oldName, course);
+            }
+            ordered.rename(course.getCode(), oldName, name, course);
+            listeners.forEach(listener -> listener.courseRenamed(course));
             logger.info("El curso {} con codigo {} cambio su nombre", course.getName(), course.getCode());
         }
     }
@@ -231,24 +960,44 @@ public class CourseService {
      * @throws CourseNotFoundException si el curso no existe
      */
     public void setNewCapacity(Course course, String capacity) throws InvalidDataException, CourseNotFoundException {
+        setNewCapacityMetrics.run(() -> {
+            lock(course);
+            try {
+                setNewCapacityLocked(course, capacity);
+            } finally {
+                unlock(course);
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Realiza el cambio de {@link #setNewCapacity(Course, String)} con el candado del curso tomado.
+     */
+    private void setNewCapacityLocked(Course course, String capacity) throws InvalidDataException, CourseNotFoundException {
+        int maxCapacity = Validator.parseCapacity(capacity);
         if (hasNotCourses()) {
             logger.warn("No existen actualmente datos de ningun curso");
             throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        } else if (!Validator.validateCapacity(capacity)) {
+        } else if (maxCapacity < 0) {
             logger.warn("No se pudo crear el curso debido a que se digito una capacidad invalida");
-            throw new InvalidDataException("capacidad no valida");
-        } else if (!courses.containsValue(course)) {
+            throw new InvalidDataException("Capacidad no valida");
+        } else if (!isRegistered(course)) {
             logger.warn("Curso no encontrado para cambiar el nombre");
             throw new CourseNotFoundException("No se encontro ningun curso");
-        } else if (course.getStudents().size() > Integer.parseInt(capacity)) {
+        } else if (course.getStudents().size() > maxCapacity) {
             logger.warn("La nueva capacidad que se quiere implementar a el curso {} con el codigo {}, no se puede implementar debido a que tiene demasiados estudiantes inscritos", course.getName(), course.getCode());
             throw new InvalidDataException("Capacidad no valida, actualmente el curso tiene " + course.getStudents().size() + " estudiantes, remover estudiantes y volver a intentar");
-        } else if (course.getMaxCapacity() == Integer.parseInt(capacity)) {
+        } else if (course.getMaxCapacity() == maxCapacity) {
             logger.warn("El curso {} con el codigo {} ya posee esa capacidad", course.getName(), course.getCode());
             throw new InvalidDataException("El curso ya posee actualmente esa capacidad");
+        } else if (!course.trySetMaxCapacity(maxCapacity)) {
+            logger.warn("La nueva capacidad que se quiere implementar a el curso {} con el codigo {}, no se puede implementar debido a que tiene demasiados estudiantes inscritos", course.getName(), course.getCode());
+            throw new InvalidDataException("Capacidad no valida, actualmente el curso tiene " + course.getReservedSeats() + " estudiantes, remover estudiantes y volver a intentar");
         } else {
-            course.setMaxCapacity(Integer.parseInt(capacity));
+            listeners.forEach(listener -> listener.capacityChanged(course));
             logger.info("El curso {} con el codigo {} cambio su capacidad", course.getName(), course.getCode());
+            promoteWaitlist(course, listeners);
         }
     }
 
@@ -256,22 +1005,126 @@ public class CourseService {
      * Lista todos los estudiantes inscritos en un curso.
      *
      * @param course curso del cual obtener estudiantes
-     * @return mapa de estudiantes inscritos
+     * @return vista de solo lectura de los estudiantes inscritos, por código
      * @throws StudentNotFoundException si no hay estudiantes inscritos
      * @throws CourseNotFoundException  si el curso no existe
      */
     public Map<String, Student> listStudentsByCourse(Course course) throws StudentNotFoundException, CourseNotFoundException {
-        if (hasNotCourses()) {
-            logger.warn("No existen actualmente datos de ningun curso");
-            throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
-        } else if (!courses.containsValue(course)) {
-            logger.warn("Curso no encontrado para mostrar sus estudiantes");
-            throw new CourseNotFoundException("No se encontro ningun curso");
-        } else if (course.getStudents().isEmpty()) {
-            logger.warn("El curso {} con el codigo {} no tiene estudiantes inscritos actualmente", course.getName(), course.getCode());
-            throw new StudentNotFoundException("El curso no tiene estudiantes inscritos actualmente");
-        }
-        return course.getStudents();
+        return listStudentsByCourseMetrics.<Map<String, Student>, StudentNotFoundException, CourseNotFoundException>time(() -> {
+            if (hasNotCourses()) {
+                logger.warn("No existen actualmente datos de ningun curso");
+                throw new CourseNotFoundException("No existen datos de ningun curso actualmente");
+            } else if (!isRegistered(course)) {
+                logger.warn("Curso no encontrado para mostrar sus estudiantes");
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            } else if (course.getStudents().isEmpty()) {
+                logger.warn("El curso {} con el codigo {} no tiene estudiantes inscritos actualmente", course.getName(), course.getCode());
+                throw new StudentNotFoundException("El curso no tiene estudiantes inscritos actualmente");
+            }
+            return course.getStudentsSnapshot();
+        });
+    }
+
+    /**
+     * Lista una página de los estudiantes inscritos en un curso. La lista de
+     * inscritos está limitada por la capacidad del curso, así que se ordena en
+     * cada consulta en lugar de mantener un índice por curso. Un curso sin
+     * inscritos entrega una página vacía.
+     *
+     * @param course   curso del cual obtener estudiantes
+     * @param order    orden del listado
+     * @param cursor   {@link Page#nextCursor()} de la página anterior, o {@code null} para la primera
+     * @param pageSize cantidad máxima de estudiantes, entre 1 y 1000
+     * @return página de estudiantes inscritos
+     * @throws CourseNotFoundException si el curso no existe
+     * @throws InvalidDataException    si el cursor o el tamaño de página no son válidos
+     */
+    public Page<Student> listStudentsByCourse(Course course, SortOrder order, String cursor, int pageSize)
+            throws CourseNotFoundException, InvalidDataException {
+        return listStudentsByCoursePageMetrics.time(() -> {
+            if (!isRegistered(course)) {
+                logger.warn("Curso no encontrado para mostrar sus estudiantes");
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            }
+            return OrderedIndex.page(OrderedIndex.sort(course.getStudentsSnapshot().values(), order,
+                    Student::getCode, Student::getName), cursor, pageSize);
+        });
+    }
+
+    /**
+     * Lista los estudiantes inscritos en ambos cursos. La intersección se
+     * calcula sobre los {@link OrdinalBitmap} de los cursos, sin recorrer las
+     * listas de inscritos.
+     *
+     * @param first  primer curso
+     * @param second segundo curso
+     * @return estudiantes inscritos en los dos cursos, en orden de código
+     * @throws CourseNotFoundException si alguno de los cursos no existe
+     */
+    public List<Student> listStudentsInBoth(Course first, Course second) throws CourseNotFoundException {
+        return listStudentsInBothMetrics.time(() -> {
+            checkRegistered(List.of(first, second));
+            return resolve(OrdinalBitmap.and(first.getStudentOrdinals(), second.getStudentOrdinals()), List.of(first));
+        });
+    }
+
+    /**
+     * Lista los estudiantes inscritos en al menos uno de los cursos.
+     *
+     * @param courses cursos a unir
+     * @return estudiantes sin repetir, en orden de código
+     * @throws CourseNotFoundException si alguno de los cursos no existe
+     */
+    public List<Student> listStudentsInAny(Collection<Course> courses) throws CourseNotFoundException {
+        return listStudentsInAnyMetrics.time(() -> {
+            checkRegistered(courses);
+            return resolve(union(courses), courses);
+        });
+    }
+
+    /**
+     * Lista los estudiantes inscritos en un curso que no están inscritos en otro.
+     *
+     * @param course   curso de origen
+     * @param excluded curso cuyos inscritos se descartan
+     * @return estudiantes de {@code course} que no están en {@code excluded}, en orden de código
+     * @throws CourseNotFoundException si alguno de los cursos no existe
+     */
+    public List<Student> listStudentsOnlyIn(Course course, Course excluded) throws CourseNotFoundException {
+        return listStudentsOnlyInMetrics.time(() -> {
+            checkRegistered(List.of(course, excluded));
+            return resolve(OrdinalBitmap.andNot(course.getStudentOrdinals(), excluded.getStudentOrdinals()),
+                    List.of(course));
+        });
+    }
+
+    /**
+     * Cuenta los estudiantes inscritos en ambos cursos sin armar la lista.
+     *
+     * @param first  primer curso
+     * @param second segundo curso
+     * @return cantidad de estudiantes en común
+     * @throws CourseNotFoundException si alguno de los cursos no existe
+     */
+    public int countStudentsInBoth(Course first, Course second) throws CourseNotFoundException {
+        return countStudentsInBothMetrics.time(() -> {
+            checkRegistered(List.of(first, second));
+            return OrdinalBitmap.andCardinality(first.getStudentOrdinals(), second.getStudentOrdinals());
+        });
+    }
+
+    /**
+     * Cuenta los estudiantes distintos inscritos en al menos uno de los cursos.
+     *
+     * @param courses cursos a unir
+     * @return cantidad de estudiantes sin repetir
+     * @throws CourseNotFoundException si alguno de los cursos no existe
+     */
+    public int countStudentsInAny(Collection<Course> courses) throws CourseNotFoundException {
+        return countStudentsInAnyMetrics.time(() -> {
+            checkRegistered(courses);
+            return union(courses).cardinality();
+        });
     }
 
     /**
@@ -281,12 +1134,51 @@ public class CourseService {
      * @return true si está disponible, false si ya está en uso
      */
     public Boolean isNameAviable(String name) {
-        for (Course course : courses.values()) {
-            if (course.getName().equals(name)) {
-                return false;
-            }
+        return name == null || !coursesByName.containsKey(name);
+    }
+
+    /**
+     * Reserva un nombre para un curso de forma atómica. Si dos hilos intentan
+     * reservar el mismo nombre al mismo tiempo, solo uno lo consigue.
+     *
+     * @param name   nombre a reservar
+     * @param course curso al que quedará asociado el nombre
+     * @return true si el nombre quedó reservado para el curso, false si ya estaba en uso
+     */
+    public Boolean reserveName(String name, Course course) {
+        lockRegistration();
+        try {
+            return coursesByName.putIfAbsent(name, course) == null;
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Exige que los estudiantes que se inscriben o se remueven estén registrados
+     * en {@code studentService}, que a su vez los entrega a la bitácora antes de
+     * publicarlos. Sin llamarlo se acepta cualquier estudiante.
+     *
+     * @param studentService servicio donde deben estar registrados los estudiantes
+     */
+    public void requireRegisteredStudents(StudentService studentService) {
+        studentRegistry = studentService;
+    }
+
+    /**
+     * Retorna una foto de los cursos registrados para guardarla en disco. Espera a
+     * que terminen los registros en curso, así un curso que ya se entregó a los
+     * observadores siempre está en la foto.
+     *
+     * @return foto inmutable de los cursos por código, vacía si no hay cursos
+     */
+    public Map<String, Course> snapshotCourses() {
+        lockRegistration();
+        try {
+            return courses.snapshot();
+        } finally {
+            unlockRegistration();
         }
-        return true;
     }
 
     /**
@@ -298,4 +1190,120 @@ public class CourseService {
         return courses.isEmpty();
     }
 
+    /**
+     * Verifica que todos los cursos de una consulta de conjuntos estén registrados.
+     */
+    private void checkRegistered(Collection<Course> courses) throws CourseNotFoundException {
+        for (Course course : courses) {
+            if (course == null || !isRegistered(course)) {
+                logger.warn("Curso no encontrado para consultar sus inscritos");
+                throw new CourseNotFoundException("No se encontro ningun curso");
+            }
+        }
+    }
+
+    private static OrdinalBitmap union(Collection<Course> courses) {
+        List<OrdinalBitmap> ordinals = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            ordinals.add(course.getStudentOrdinals());
+        }
+        return OrdinalBitmap.or(ordinals);
+    }
+
+    /**
+     * Convierte los códigos numéricos de un resultado en estudiantes, buscándolos
+     * en las listas de los cursos de origen. Un estudiante removido después de
+     * tomar las fotos ya no se encuentra y se omite.
+     */
+    private static List<Student> resolve(OrdinalBitmap ordinals, Collection<Course> sources) {
+        List<Student> result = new ArrayList<>(ordinals.cardinality());
+        ordinals.forEach(ordinal -> {
+            for (Course course : sources) {
+                Student student = course.getStudentByOrdinal(ordinal);
+                if (student != null) {
+                    result.add(student);
+                    return;
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Verifica si el curso es el que está registrado bajo su código.
+     *
+     * @param course curso a verificar
+     * @return true si el curso está registrado en el servicio
+     */
+    private boolean isRegistered(Course course) {
+        return course.getCode() != null && courses.get(course.getCode()) == course;
+    }
+
+    /**
+     * Verifica si el estudiante está registrado en el servicio indicado con
+     * {@link #requireRegisteredStudents(StudentService)}, si se indicó alguno.
+     *
+     * @param student estudiante a verificar
+     * @return true si el estudiante puede inscribirse o removerse
+     */
+    private boolean isRegistered(Student student) {
+        StudentService registry = studentRegistry;
+        return student != null && student.getCode() != null
+                && (registry == null || registry.getStudent(student.getCode()) == student);
+    }
+
+    /**
+     * Abre un lote de operaciones del hilo actual que se confirman juntas al
+     * cerrarlo, para importar muchas filas con una sola sincronización de la bitácora.
+     *
+     * @return lote a cerrar con try-with-resources
+     */
+    public RegistryBatch beginBatch() {
+        return new RegistryBatch(batchDepth.get(), () -> listeners.forEach(RegistryListener::commit));
+    }
+
+    /**
+     * Confirma ante los observadores las modificaciones notificadas por la
+     * operación actual, salvo que el hilo tenga un {@link RegistryBatch} abierto.
+     */
+    private void commit() {
+        if (batchDepth.get()[0] == 0) {
+            listeners.forEach(RegistryListener::commit);
+        }
+    }
+
+    /**
+     * Toma el candado del curso cuando el servicio está en modo concurrente.
+     *
+     * @param course curso a bloquear
+     */
+    private void lock(Course course) {
+        if (concurrent) {
+            course.getLock().lock();
+        }
+    }
+
+    /**
+     * Libera el candado del curso tomado por {@link #lock(Course)}.
+     *
+     * @param course curso a desbloquear
+     */
+    private void unlock(Course course) {
+        if (concurrent) {
+            course.getLock().unlock();
+        }
+    }
+
+    private void lockRegistration() {
+        if (concurrent) {
+            registration.lock();
+        }
+    }
+
+    private void unlockRegistration() {
+        if (concurrent) {
+            registration.unlock();
+        }
+    }
+
 }
\ No newline at end of file
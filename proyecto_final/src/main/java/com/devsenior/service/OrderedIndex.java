@@ -0,0 +1,267 @@
+package com.devsenior.service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.devsenior.exception.InvalidDataException;
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
+
+/**
+ * Índices ordenados por código y por nombre para los listados paginados y la
+ * búsqueda de nombres por prefijo.
+ *
+ * El cursor de una página es la clave del último elemento entregado, de modo que
+ * la página siguiente empieza justo después de ella con {@link NavigableMap#tailMap}
+ * y cuesta lo mismo sin importar cuántas páginas se hayan pedido antes. Como la
+ * clave de nombre incluye el código, el orden es total y un cursor sigue siendo
+ * válido aunque se agreguen elementos entre una página y otra.
+ *
+ * La búsqueda por prefijo usa el mismo recorrido: los nombres que empiezan por
+ * un texto son un rango contiguo del índice. Un tercer índice guarda los nombres
+ * en minúsculas y sin tildes para buscar sin distinguirlos. La búsqueda con un
+ * error de escritura recorre el rango de cada variante del texto a distancia de
+ * edición 1 y se queda con las primeras en orden alfabético.
+ *
+ * @param <T> tipo de los elementos indexados
+ */
+final class OrderedIndex<T> {
+
+    /** Tamaño máximo de página que se acepta. */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /** Separa el nombre del código en las claves por nombre; ordena antes que cualquier letra. */
+    private static final char SEPARATOR = '\u0000';
+
+    /** Letras con que se arman las variantes de la búsqueda con errores; los nombres válidos solo usan estas. */
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz ";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final NavigableMap<String, T> byCode;
+    private final NavigableMap<String, T> byName;
+    private final NavigableMap<String, T> byFoldedName;
+
+    /**
+     * Crea los índices vacíos.
+     *
+     * @param concurrent {@code true} para usar mapas concurrentes
+     */
+    OrderedIndex(boolean concurrent) {
+        byCode = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        byName = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        byFoldedName = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Agrega un elemento a los índices.
+     */
+    void add(String code, String name, T item) {
+        byCode.put(code, item);
+        byName.put(nameKey(name, code), item);
+        byFoldedName.put(nameKey(fold(name), code), item);
+    }
+
+    /**
+     * Mueve un elemento renombrado a su nueva posición en los índices por nombre.
+     */
+    void rename(String code, String oldName, String newName, T item) {
+        byName.put(nameKey(newName, code), item);
+        byName.remove(nameKey(oldName, code), item);
+        byFoldedName.put(nameKey(fold(newName), code), item);
+        byFoldedName.remove(nameKey(fold(oldName), code), item);
+    }
+
+    /**
+     * Retorna una página del índice pedido.
+     *
+     * @param order    orden del listado
+     * @param cursor   cursor de la página anterior, o {@code null} para la primera
+     * @param pageSize cantidad máxima de elementos
+     * @return la página
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    Page<T> page(SortOrder order, String cursor, int pageSize) throws InvalidDataException {
+        return page(order == SortOrder.NAME ? byName : byCode, cursor, pageSize);
+    }
+
+    /**
+     * Busca los primeros elementos, en orden alfabético, cuyo nombre empieza por un texto.
+     *
+     * @param query texto buscado
+     * @param match forma de comparar el texto con los nombres
+     * @param limit cantidad máxima de resultados
+     * @return elementos encontrados; con {@link NameMatch#FUZZY} primero los que no necesitan corrección
+     * @throws InvalidDataException si el texto está vacío o el límite no es válido
+     */
+    List<T> search(String query, NameMatch match, int limit) throws InvalidDataException {
+        if (query == null || query.isEmpty() || query.indexOf(SEPARATOR) >= 0) {
+            throw new InvalidDataException("Texto de busqueda no valido");
+        }
+        checkSize(limit);
+        if (match == NameMatch.PREFIX) {
+            return new ArrayList<>(prefix(byName, query, limit).values());
+        }
+        String folded = fold(query);
+        Map<String, T> exact = prefix(byFoldedName, folded, limit);
+        if (match == NameMatch.IGNORE_CASE || exact.size() == limit || folded.length() < 2) {
+            return new ArrayList<>(exact.values());
+        }
+        NavigableMap<String, T> corrected = new TreeMap<>();
+        for (String variant : variants(folded, reach(byFoldedName, folded))) {
+            corrected.putAll(prefix(byFoldedName, variant, limit));
+        }
+        List<T> found = new ArrayList<>(exact.values());
+        for (Map.Entry<String, T> entry : corrected.entrySet()) {
+            if (found.size() == limit) {
+                break;
+            } else if (!exact.containsKey(entry.getKey())) {
+                found.add(entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Ordena una colección pequeña, como la lista de inscritos de un curso, con
+     * las mismas claves que los índices, para paginarla con {@link #page(NavigableMap, String, int)}.
+     */
+    static <T> NavigableMap<String, T> sort(Collection<T> items, SortOrder order,
+            Function<T, String> code, Function<T, String> name) {
+        NavigableMap<String, T> sorted = new TreeMap<>();
+        for (T item : items) {
+            String key = order == SortOrder.NAME ? nameKey(name.apply(item), code.apply(item)) : code.apply(item);
+            sorted.put(key, item);
+        }
+        return sorted;
+    }
+
+    /**
+     * Retorna los elementos que siguen al cursor en un mapa ordenado.
+     */
+    static <T> Page<T> page(NavigableMap<String, T> index, String cursor, int pageSize) throws InvalidDataException {
+        checkSize(pageSize);
+        Map<String, T> tail = cursor == null ? index : index.tailMap(decode(cursor), false);
+        Iterator<Map.Entry<String, T>> entries = tail.entrySet().iterator();
+        List<T> items = new ArrayList<>(pageSize);
+        String last = null;
+        while (items.size() < pageSize && entries.hasNext()) {
+            Map.Entry<String, T> entry = entries.next();
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(items, entries.hasNext() ? encode(last) : null);
+    }
+
+    /**
+     * Retorna, en orden, los primeros elementos cuya clave empieza por {@code prefix}.
+     */
+    private static <T> Map<String, T> prefix(NavigableMap<String, T> index, String prefix, int limit) {
+        Map<String, T> found = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : index.tailMap(prefix, true).entrySet()) {
+            if (found.size() == limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            found.put(entry.getKey(), entry.getValue());
+        }
+        return found;
+    }
+
+    /**
+     * Largo del prefijo más largo de {@code query} con el que empieza alguna clave.
+     */
+    private static int reach(NavigableMap<String, ?> index, String query) {
+        int reach = 0;
+        while (reach < query.length()) {
+            String prefix = query.substring(0, reach + 1);
+            String next = index.ceilingKey(prefix);
+            if (next == null || !next.startsWith(prefix)) {
+                break;
+            }
+            reach++;
+        }
+        return reach;
+    }
+
+    /**
+     * Textos a distancia de edición 1 de {@code query}. Solo se corrigen las
+     * posiciones hasta {@code reach}: si ninguna clave empieza por lo anterior
+     * a una posición, ninguna variante corregida más adelante puede coincidir.
+     * Se omiten además las cubiertas por otra: cambiar la última letra equivale
+     * a borrarla y agregar una letra al final no cambia el rango del prefijo original.
+     */
+    private static Set<String> variants(String query, int reach) {
+        Set<String> variants = new HashSet<>();
+        int length = query.length();
+        for (int i = 0; i <= reach && i < length; i++) {
+            String head = query.substring(0, i);
+            variants.add(head + query.substring(i + 1));
+            if (i + 1 < length) {
+                variants.add(head + query.charAt(i + 1) + query.charAt(i) + query.substring(i + 2));
+            }
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                char letter = ALPHABET.charAt(c);
+                variants.add(head + letter + query.substring(i));
+                if (i + 1 < length && letter != query.charAt(i)) {
+                    variants.add(head + letter + query.substring(i + 1));
+                }
+            }
+        }
+        variants.remove(query);
+        return variants;
+    }
+
+    /**
+     * Pasa un nombre a minúsculas y le quita las tildes.
+     */
+    static String fold(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0x7F) {
+                return MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("")
+                        .toLowerCase(Locale.ROOT);
+            }
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static void checkSize(int size) throws InvalidDataException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidDataException("El tamaño de pagina debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static String nameKey(String name, String code) {
+        return (name == null ? "" : name) + SEPARATOR + code;
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) throws InvalidDataException {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Cursor no valido");
+        }
+    }
+}
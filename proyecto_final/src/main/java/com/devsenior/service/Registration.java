@@ -0,0 +1,15 @@
+package com.devsenior.service;
+
+/**
+ * Resultado de agregar un curso o un estudiante al repositorio de su servicio.
+ */
+enum Registration {
+    /** Quedó registrado y publicado en los índices. */
+    ADDED,
+    /** Ya hay otro registrado con el mismo código. */
+    CODE_IN_USE,
+    /** Se pidió nombre único y el nombre ya está en uso. */
+    NAME_IN_USE,
+    /** Se pidió correo único y el correo ya está en uso. */
+    EMAIL_IN_USE
+}
@@ -0,0 +1,40 @@
+package com.devsenior.service;
+
+/**
+ * Agrupa varias operaciones de un hilo sobre un servicio para confirmarlas
+ * juntas: mientras el lote está abierto las operaciones no invocan
+ * {@link RegistryListener#commit()} y al cerrarlo se invoca una sola vez. Con
+ * la bitácora registrada, las operaciones del lote retornan antes de estar en
+ * disco y {@link #close()} espera a que lo estén todas con una sola
+ * sincronización.
+ *
+ * Los lotes de un mismo hilo pueden anidarse; solo el más externo confirma.
+ */
+public final class RegistryBatch implements AutoCloseable {
+
+    private final int[] depth;
+    private final Runnable commit;
+    private boolean closed;
+
+    RegistryBatch(int[] depth, Runnable commit) {
+        this.depth = depth;
+        this.commit = commit;
+        depth[0]++;
+    }
+
+    /**
+     * Cierra el lote y, si es el más externo, confirma sus operaciones.
+     *
+     * @throws java.io.UncheckedIOException si la bitácora no se pudo escribir
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (--depth[0] == 0) {
+            commit.run();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.devsenior.service;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+
+/**
+ * Recibe las modificaciones que {@link CourseService} y {@link StudentService}
+ * aplican a sus registros, por ejemplo para guardarlas en disco.
+ *
+ * Los métodos de cada modificación se invocan justo después de aplicarla y,
+ * cuando el servicio está en modo concurrente, mientras aún tiene tomado el
+ * candado del curso afectado. Así reciben las modificaciones de un mismo curso
+ * en el orden en que ocurrieron, pero no deben bloquearse. Los cursos y
+ * estudiantes nuevos son la excepción: se notifican justo antes de publicarlos,
+ * para que su registro preceda a cualquier modificación hecha sobre ellos. Una vez liberados los
+ * candados el servicio invoca {@link #commit()}, donde sí se puede esperar.
+ */
+public interface RegistryListener {
+
+    /**
+     * Se agrega un curso al registro; todavía no se puede buscar.
+     *
+     * @param course curso agregado
+     */
+    default void courseAdded(Course course) {
+    }
+
+    /**
+     * Un curso cambió su nombre.
+     *
+     * @param course curso con el nombre nuevo
+     */
+    default void courseRenamed(Course course) {
+    }
+
+    /**
+     * Un curso cambió su capacidad máxima.
+     *
+     * @param course curso con la capacidad nueva
+     */
+    default void capacityChanged(Course course) {
+    }
+
+    /**
+     * Un estudiante quedó inscrito en un curso.
+     *
+     * @param course  curso
+     * @param student estudiante inscrito
+     */
+    default void studentEnrolled(Course course, Student student) {
+    }
+
+    /**
+     * Un estudiante fue removido de un curso.
+     *
+     * @param course  curso
+     * @param student estudiante removido
+     */
+    default void studentRemoved(Course course, Student student) {
+    }
+
+    /**
+     * Se agrega un estudiante al registro; todavía no se puede buscar.
+     *
+     * @param student estudiante agregado
+     */
+    default void studentAdded(Student student) {
+    }
+
+    /**
+     * Un estudiante cambió su nombre.
+     *
+     * @param student estudiante con el nombre nuevo
+     */
+    default void studentRenamed(Student student) {
+    }
+
+    /**
+     * Un estudiante cambió su correo.
+     *
+     * @param student estudiante con el correo nuevo
+     */
+    default void emailChanged(Student student) {
+    }
+
+    /**
+     * Se invoca al terminar una operación que notificó modificaciones, ya sin
+     * candados tomados. La operación no retorna a quien la pidió hasta que este
+     * método termina.
+     */
+    default void commit() {
+    }
+}
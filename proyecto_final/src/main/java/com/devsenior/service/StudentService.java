@@ -1,48 +1,247 @@
 package com.devsenior.service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.devsenior.exception.ConflictException;
 import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
+import com.devsenior.metrics.CreationEvent;
+import com.devsenior.metrics.LookupEvent;
+import com.devsenior.metrics.OperationMetrics;
+import com.devsenior.metrics.ServiceMetrics;
 import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
 import com.devsenior.model.Student;
+import com.devsenior.util.IdAllocator;
+import com.devsenior.util.SnapshotMap;
 import com.devsenior.util.Validator;
 
 /**
  * Servicio encargado de la gestión de estudiantes dentro del sistema.
  * Permite registrar, buscar, modificar y listar estudiantes, así como
  * administrar su relación con cursos.
+ *
+ * En modo concurrente el repositorio es un {@link ConcurrentHashMap} y la
+ * remoción de cursos toma el candado del curso afectado, el mismo que usa
+ * {@link CourseService}, para no competir con inscripciones simultáneas.
+ *
+ * Nombres y correos son únicos, por lo que se mantienen índices por nombre y por
+ * correo junto al repositorio por código. Verificar disponibilidad y buscar por
+ * nombre o correo no recorre a todos los estudiantes.
+ * Los códigos de los estudiantes nuevos los entrega un {@link IdAllocator}.
+ * Un estudiante nuevo se entrega a los observadores antes de publicarlo en el
+ * repositorio o en los índices, así la bitácora lo guarda antes que cualquier
+ * inscripción suya.
+ *
+ * Los listados completos se entregan como fotos inmutables ({@link SnapshotMap})
+ * que se obtienen sin candados y solo se copian de nuevo tras un cambio. Para recorrer
+ * miles de estudiantes hay listados paginados por código o por nombre con
+ * cursores, respaldados por índices ordenados: pedir una página cuesta según su
+ * tamaño y no según la cantidad total de estudiantes. Los mismos índices sirven
+ * para sugerir estudiantes por prefijo del nombre con
+ * {@link #searchStudents(String, NameMatch, int)}.
+ *
+ * Las búsquedas por código, nombre o correo tienen además una versión que
+ * retorna un {@link Optional} vacío en lugar de lanzar una excepción, para los
+ * caminos frecuentes donde no encontrar al estudiante es un resultado normal.
+ *
+ * Cada modificación se notifica a los {@link RegistryListener} registrados y
+ * cada operación registra su latencia y resultado en {@link #getMetrics()}.
  */
 public class StudentService {
     private static final Logger logger = LogManager.getLogger(StudentService.class);
 
-    private final Map<String, Student> students;
+    private final SnapshotMap<String, Student> students;
+    private final Map<String, Student> studentsByName;
+    private final Map<String, Student> studentsByEmail;
+    private final OrderedIndex<Student> ordered;
+    private final IdAllocator ids;
+    /** Hace atómicos verificar y publicar un estudiante nuevo o reservar un nombre o correo. */
+    private final ReentrantLock registration = new ReentrantLock();
+    private final List<RegistryListener> listeners;
+    private final ThreadLocal<int[]> batchDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private final boolean concurrent;
+    private final ServiceMetrics metrics;
+    private final OperationMetrics addStudentMetrics;
+    private final OperationMetrics createStudentMetrics;
+    private final OperationMetrics findStudentByIdMetrics;
+    private final OperationMetrics findStudentByNameMetrics;
+    private final OperationMetrics findStudentByEmailMetrics;
+    private final OperationMetrics tryFindStudentByIdMetrics;
+    private final OperationMetrics tryFindStudentByNameMetrics;
+    private final OperationMetrics tryFindStudentByEmailMetrics;
+    private final OperationMetrics listCoursesByStudentMetrics;
+    private final OperationMetrics listStudentsMetrics;
+    private final OperationMetrics removeCourseFromStudentMetrics;
+    private final OperationMetrics setNewNameMetrics;
+    private final OperationMetrics setNewEmailMetrics;
+    private final OperationMetrics listStudentsPageMetrics;
+    private final OperationMetrics searchStudentsMetrics;
+    private final OperationMetrics listCoursesByStudentPageMetrics;
 
     /**
      * Constructor que inicializa el contenedor de estudiantes.
      */
     public StudentService() {
-        students = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Constructor que inicializa el contenedor de estudiantes indicando si será
+     * usado por varios hilos.
+     *
+     * @param concurrent {@code true} para usar estructuras concurrentes y
+     *                   candados por curso, {@code false} para uso de un solo hilo
+     */
+    public StudentService(boolean concurrent) {
+        this.concurrent = concurrent;
+        students = new SnapshotMap<>(concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+        ids = new IdAllocator();
+        listeners = new CopyOnWriteArrayList<>();
+        metrics = new ServiceMetrics("StudentService");
+        addStudentMetrics = metrics.operation("addStudent");
+        createStudentMetrics = metrics.operation("createStudent");
+        findStudentByIdMetrics = metrics.operation("findStudentById");
+        findStudentByNameMetrics = metrics.operation("findStudentByName");
+        findStudentByEmailMetrics = metrics.operation("findStudentByEmail");
+        tryFindStudentByIdMetrics = metrics.operation("tryFindStudentById");
+        tryFindStudentByNameMetrics = metrics.operation("tryFindStudentByName");
+        tryFindStudentByEmailMetrics = metrics.operation("tryFindStudentByEmail");
+        listCoursesByStudentMetrics = metrics.operation("listCoursesByStudent");
+        listStudentsMetrics = metrics.operation("listStudents");
+        removeCourseFromStudentMetrics = metrics.operation("removeCourseFromStudent");
+        setNewNameMetrics = metrics.operation("setNewName");
+        setNewEmailMetrics = metrics.operation("setNewEmail");
+        listStudentsPageMetrics = metrics.operation("listStudentsPage");
+        searchStudentsMetrics = metrics.operation("searchStudents");
+        listCoursesByStudentPageMetrics = metrics.operation("listCoursesByStudentPage");
+        studentsByName = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        studentsByEmail = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        ordered = new OrderedIndex<>(concurrent);
     }
 
     /**
      * Agrega un estudiante al sistema si no existe previamente.
      *
      * @param student objeto Student a agregar
-     * @throws Exception si el estudiante ya existe en el sistema
+     * @throws ConflictException si el estudiante ya existe en el sistema
      */
     public void addStudent(Student student) throws Exception {
-        if (!students.containsKey(student.getCode()) && !students.containsValue(student)) {
+        addStudentMetrics.run(() -> {
+            if (register(student, false) != Registration.ADDED) {
+                logger.warn("No se pudo añadir el estudiante");
+                throw new ConflictException("El estudiante no fue añadido debido a que ya existe");
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Agrega un estudiante al repositorio y a los índices con el candado de
+     * registro tomado. Los observadores reciben el estudiante antes de
+     * publicarlo, de modo que nadie puede encontrarlo para inscribirlo hasta que
+     * la bitácora tiene su registro.
+     *
+     * @param student estudiante a agregar
+     * @param unique  {@code true} para rechazarlo si su nombre o correo ya están en uso
+     * @return {@link Registration#ADDED}, o el motivo por el que no se agregó
+     */
+    private Registration register(Student student, boolean unique) {
+        lockRegistration();
+        try {
+            String name = student.getName();
+            String email = student.getEmail();
+            if (students.containsKey(student.getCode())) {
+                return Registration.CODE_IN_USE;
+            } else if (unique && name != null && studentsByName.containsKey(name)) {
+                return Registration.NAME_IN_USE;
+            } else if (unique && email != null && studentsByEmail.containsKey(email)) {
+                return Registration.EMAIL_IN_USE;
+            }
+            listeners.forEach(listener -> listener.studentAdded(student));
             students.put(student.getCode(), student);
-        } else {
-            logger.warn("No se pudo añadir el estudiante");
-            throw new Exception("El estudiante no fue añadido debido a que ya existe");
+            ids.markUsed(student.getCode());
+            if (name != null) {
+                studentsByName.putIfAbsent(name, student);
+            }
+            if (email != null) {
+                studentsByEmail.putIfAbsent(email, student);
+            }
+            ordered.add(student.getCode(), name, student);
+            return Registration.ADDED;
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Carga de una vez los estudiantes recuperados desde disco. A diferencia de
+     * {@link #addStudent(Student)} no registra cada estudiante ni avisa a los
+     * observadores, porque los estudiantes ya estaban guardados.
+     *
+     * @param restored estudiantes a cargar
+     * @return cantidad de estudiantes cargados; los de código repetido se omiten
+     */
+    public int restoreStudents(Student[] restored) {
+        int loaded = 0;
+        for (Student student : restored) {
+            if (students.putIfAbsent(student.getCode(), student) != null) {
+                continue;
+            }
+            ids.markUsed(student.getCode());
+            if (student.getName() != null) {
+                studentsByName.putIfAbsent(student.getName(), student);
+            }
+            if (student.getEmail() != null) {
+                studentsByEmail.putIfAbsent(student.getEmail(), student);
+            }
+            ordered.add(student.getCode(), student.getName(), student);
+            loaded++;
         }
+        logger.info("Se recuperaron {} estudiantes", loaded);
+        return loaded;
+    }
+
+    /**
+     * Retorna las métricas de las operaciones del servicio: llamadas, fallas por
+     * tipo de excepción y percentiles de latencia. Se publican por JMX con
+     * {@link ServiceMetrics#registerMBeans()}.
+     *
+     * @return métricas del servicio
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registra un observador de las modificaciones del registro de estudiantes.
+     *
+     * @param listener observador a registrar
+     */
+    public void addListener(RegistryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un observador registrado con {@link #addListener(RegistryListener)}.
+     *
+     * @param listener observador a quitar
+     */
+    public void removeListener(RegistryListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -51,41 +250,49 @@ public class StudentService {
      * @param name  nombre del estudiante
      * @param email correo electrónico del estudiante
      * @return el estudiante creado
-     * @throws Exception           si ocurre un error al agregar el estudiante
+     * @throws ConflictException   si el código asignado ya está registrado
      * @throws InvalidDataException si los datos son inválidos (nombre/email duplicado o no válido)
      */
     public Student createStudent(String name, String email) throws Exception, InvalidDataException {
-        if (!Validator.validateName(name)) {
-            logger.warn("No se pudo crear el estudiante debido a nombre no valido");
-            throw new InvalidDataException("Nombre no valido");
-        } else if (!Validator.validateEmail(email)) {
-            logger.warn("No se pudo crear el estudiante debido a email no valido");
-            throw new InvalidDataException("Email no valido");
-        } else if (!isNameAvaiable(name)) {
-            logger.warn("No se pudo crear el estudiante debido a que el nombre ya esta en uso");
-            throw new InvalidDataException("Nombre ya en uso");
-        } else if (!isEmailAvaiable(email)) {
-            logger.warn("No se pudo crear el estudiante debido a que el email ya esta en uso");
-            throw new InvalidDataException("Email ya en uso");
-        } else {
-            String id = Validator.createId();
-            while (!hasNotStudents()) {
-                Boolean close = true;
-                for (Student student1 : students.values()) {
-                    if (id.equals(student1.getCode())) {
-                        id = Validator.createId();
-                        close = false;
-                    }
+        return createStudentMetrics.time(CreationEvent.start(),
+                (event, result, failure) -> event.finish("student", name, result == null ? null : result.getCode(), failure), () -> {
+            if (!Validator.validateName(name)) {
+                logger.warn("No se pudo crear el estudiante debido a nombre no valido");
+                throw new InvalidDataException("Nombre no valido");
+            } else if (!Validator.validateEmail(email)) {
+                logger.warn("No se pudo crear el estudiante debido a email no valido");
+                throw new InvalidDataException("Email no valido");
+            } else if (!isNameAvaiable(name)) {
+                logger.warn("No se pudo crear el estudiante debido a que el nombre ya esta en uso");
+                throw new InvalidDataException("Nombre ya en uso");
+            } else if (!isEmailAvaiable(email)) {
+                logger.warn("No se pudo crear el estudiante debido a que el email ya esta en uso");
+                throw new InvalidDataException("Email ya en uso");
+            } else {
+                String id = ids.nextId();
+                if (id == null) {
+                    logger.warn("No se pudo crear el estudiante debido a que no quedan codigos disponibles");
+                    throw new InvalidDataException("No hay codigos disponibles");
                 }
-                if (close) {
-                    break;
+                Student student = new Student(id, name, email);
+                Registration registered = register(student, true);
+                if (registered == Registration.NAME_IN_USE) {
+                    ids.release(id);
+                    logger.warn("No se pudo crear el estudiante debido a que el nombre ya esta en uso");
+                    throw new InvalidDataException("Nombre ya en uso");
+                } else if (registered == Registration.EMAIL_IN_USE) {
+                    ids.release(id);
+                    logger.warn("No se pudo crear el estudiante debido a que el email ya esta en uso");
+                    throw new InvalidDataException("Email ya en uso");
+                } else if (registered == Registration.CODE_IN_USE) {
+                    logger.warn("No se pudo añadir el estudiante");
+                    throw new ConflictException("El estudiante no fue añadido debido a que ya existe");
                 }
+                commit();
+                logger.info("Se creo el estudiante {} con el codigo {} ", student.getName(), student.getCode());
+                return student;
             }
-            Student student = new Student(id, name, email);
-            addStudent(student);
-            logger.info("Se creo el estudiante {} con el codigo {} ", student.getName(), student.getCode());
-            return student;
-        }
+        });
     }
 
     /**
@@ -96,15 +303,30 @@ public class StudentService {
      * @throws StudentNotFoundException si no existe un estudiante con ese código
      */
     public Student findStudentById(String id) throws StudentNotFoundException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        } else if (students.containsKey(id)) {
-            logger.info("Se busco el estudiante {} con el codigo {}", students.get(id).getName(), students.get(id).getCode());
-            return students.get(id);
-        } else {
-            logger.warn("No se encontro a ningun estudiante ");
-            throw new StudentNotFoundException("No se encontro ningun estudiante con ese codigo");
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Student student = null;
+        Throwable failure = null;
+        try {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            } else if (students.containsKey(id)) {
+                student = students.get(id);
+                logger.info("Se busco el estudiante {} con el codigo {}", student.getName(), student.getCode());
+                return student;
+            } else {
+                logger.warn("No se encontro a ningun estudiante ");
+                throw new StudentNotFoundException("No se encontro ningun estudiante con ese codigo");
+            }
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            findStudentByIdMetrics.record(start, failure);
+            if (event != null) {
+                event.finish("findStudentById", id, student == null ? null : student.getCode(), failure);
+            }
         }
     }
 
@@ -116,54 +338,207 @@ public class StudentService {
      * @throws StudentNotFoundException si no existe un estudiante con ese nombre
      */
     public Student findStudentByName(String name) throws StudentNotFoundException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Student student = null;
+        Throwable failure = null;
+        try {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            }
+            student = name == null ? null : studentsByName.get(name);
+            if (student != null) {
+                logger.info("Se busco el estudiante {} con el codigo {}", student.getName(), student.getCode());
+                return student;
+            }
+            logger.warn("No se encontro a ningun estudiante con ese nombre ");
+            throw new StudentNotFoundException("No se encontro ningun estudiante con ese nombre ");
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            findStudentByNameMetrics.record(start, failure);
+            if (event != null) {
+                event.finish("findStudentByName", name, student == null ? null : student.getCode(), failure);
+            }
         }
-        for (String code : students.keySet()) {
-            if (students.get(code).getName().equals(name)) {
-                logger.info("Se busco el estudiante {} con el codigo {}", students.get(code).getName(), students.get(code).getCode());
-                return students.get(code);
+    }
+
+    /**
+     * Busca un estudiante por su correo electrónico.
+     *
+     * @param email correo del estudiante
+     * @return el estudiante encontrado
+     * @throws StudentNotFoundException si no existe un estudiante con ese correo
+     */
+    public Student findStudentByEmail(String email) throws StudentNotFoundException {
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Student student = null;
+        Throwable failure = null;
+        try {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            }
+            student = email == null ? null : studentsByEmail.get(email);
+            if (student != null) {
+                logger.info("Se busco el estudiante {} con el codigo {}", student.getName(), student.getCode());
+                return student;
             }
+            logger.warn("No se encontro a ningun estudiante con ese email ");
+            throw new StudentNotFoundException("No se encontro ningun estudiante con ese email");
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            findStudentByEmailMetrics.record(start, failure);
+            if (event != null) {
+                event.finish("findStudentByEmail", email, student == null ? null : student.getCode(), failure);
+            }
+        }
+    }
+
+    /**
+     * Busca un estudiante por su código sin lanzar excepciones.
+     *
+     * @param id código del estudiante
+     * @return el estudiante, o vacío si no existe
+     */
+    public Optional<Student> tryFindStudentById(String id) {
+        return tryFind(students.view(), id, tryFindStudentByIdMetrics, "tryFindStudentById");
+    }
+
+    /**
+     * Busca un estudiante por su nombre sin lanzar excepciones.
+     *
+     * @param name nombre del estudiante
+     * @return el estudiante, o vacío si no existe
+     */
+    public Optional<Student> tryFindStudentByName(String name) {
+        return tryFind(studentsByName, name, tryFindStudentByNameMetrics, "tryFindStudentByName");
+    }
+
+    /**
+     * Busca un estudiante por su correo electrónico sin lanzar excepciones.
+     *
+     * @param email correo del estudiante
+     * @return el estudiante, o vacío si no existe
+     */
+    public Optional<Student> tryFindStudentByEmail(String email) {
+        return tryFind(studentsByEmail, email, tryFindStudentByEmailMetrics, "tryFindStudentByEmail");
+    }
+
+    /**
+     * Busca en uno de los índices y registra el resultado como código, sin excepciones.
+     */
+    private Optional<Student> tryFind(Map<String, Student> index, String key, OperationMetrics operation, String name) {
+        long start = System.nanoTime();
+        LookupEvent event = LookupEvent.start();
+        Student student = key == null ? null : index.get(key);
+        EnrollmentStatus outcome = student == null ? EnrollmentStatus.STUDENT_NOT_FOUND : null;
+        logger.debug("Se busco el estudiante {}: {}", key, student == null ? "no encontrado" : student.getCode());
+        operation.recordOutcome(start, outcome);
+        if (event != null) {
+            event.finish(name, key, student == null ? null : student.getCode(), outcome);
         }
-        logger.warn("No se encontro a ningun estudiante con ese nombre ");
-        throw new StudentNotFoundException("No se encontro ningun estudiante con ese nombre ");
+        return Optional.ofNullable(student);
     }
 
     /**
      * Lista todos los cursos a los que está inscrito un estudiante.
      *
      * @param student estudiante a consultar
-     * @return mapa de cursos en los que está inscrito
+     * @return foto inmutable de los cursos en los que está inscrito, por código
      * @throws StudentNotFoundException si el estudiante no existe
      * @throws CourseNotFoundException  si el estudiante no está inscrito en ningún curso
      */
     public Map<String, Course> listCoursesByStudent(Student student) throws StudentNotFoundException, CourseNotFoundException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        } else if (!students.containsValue(student)) {
-            logger.warn("Estudiante no encontrado para mostrar sus cursos");
-            throw new StudentNotFoundException("No se encontro ningun estudiante ");
-        } else if (student.getCourses().isEmpty()) {
-            logger.warn("El estudiante no esta inscrito a ningun curso actualmente ");
-            throw new CourseNotFoundException("El estudiante no se encuentra inscrito a ningun curso actualmente");
-        }
-        return student.getCourses();
+        return listCoursesByStudentMetrics.<Map<String, Course>, StudentNotFoundException, CourseNotFoundException>time(() -> {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            } else if (!isRegistered(student)) {
+                logger.warn("Estudiante no encontrado para mostrar sus cursos");
+                throw new StudentNotFoundException("No se encontro ningun estudiante ");
+            } else if (student.getCourses().isEmpty()) {
+                logger.warn("El estudiante no esta inscrito a ningun curso actualmente ");
+                throw new CourseNotFoundException("El estudiante no se encuentra inscrito a ningun curso actualmente");
+            }
+            return student.getCoursesSnapshot();
+        });
+    }
+
+    /**
+     * Lista una página de los cursos en los que está inscrito un estudiante. Los
+     * cursos de un estudiante son pocos, así que se ordenan en cada consulta en
+     * lugar de mantener un índice por estudiante. Un estudiante sin cursos
+     * entrega una página vacía.
+     *
+     * @param student  estudiante a consultar
+     * @param order    orden del listado
+     * @param cursor   {@link Page#nextCursor()} de la página anterior, o {@code null} para la primera
+     * @param pageSize cantidad máxima de cursos, entre 1 y 1000
+     * @return página de cursos
+     * @throws StudentNotFoundException si el estudiante no existe
+     * @throws InvalidDataException     si el cursor o el tamaño de página no son válidos
+     */
+    public Page<Course> listCoursesByStudent(Student student, SortOrder order, String cursor, int pageSize)
+            throws StudentNotFoundException, InvalidDataException {
+        return listCoursesByStudentPageMetrics.time(() -> {
+            if (!isRegistered(student)) {
+                logger.warn("Estudiante no encontrado para mostrar sus cursos");
+                throw new StudentNotFoundException("No se encontro ningun estudiante ");
+            }
+            return OrderedIndex.page(OrderedIndex.sort(student.getCoursesSnapshot().values(), order,
+                    Course::getCode, Course::getName), cursor, pageSize);
+        });
     }
 
     /**
      * Lista todos los estudiantes registrados en el sistema.
      *
-     * @return mapa de estudiantes
+     * @return foto inmutable de los estudiantes, por código
      * @throws StudentNotFoundException si no hay estudiantes registrados
      */
     public Map<String, Student> listStudents() throws StudentNotFoundException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        }
-        return students;
+        return listStudentsMetrics.time(() -> {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            }
+            return students.snapshot();
+        });
+    }
+
+    /**
+     * Lista una página de los estudiantes registrados en el orden pedido. A
+     * diferencia de {@link #listStudents()} un registro vacío entrega una página vacía.
+     *
+     * @param order    orden del listado
+     * @param cursor   {@link Page#nextCursor()} de la página anterior, o {@code null} para la primera
+     * @param pageSize cantidad máxima de estudiantes, entre 1 y 1000
+     * @return página de estudiantes
+     * @throws InvalidDataException si el cursor o el tamaño de página no son válidos
+     */
+    public Page<Student> listStudents(SortOrder order, String cursor, int pageSize) throws InvalidDataException {
+        return listStudentsPageMetrics.time(() -> ordered.page(order, cursor, pageSize));
+    }
+
+    /**
+     * Busca los estudiantes cuyo nombre empieza por un texto, para sugerencias mientras
+     * se escribe. Los resultados salen en orden alfabético y el costo depende de
+     * {@code limit}, no de la cantidad de estudiantes registrados.
+     *
+     * @param query texto buscado
+     * @param match forma de comparar el texto con los nombres
+     * @param limit cantidad máxima de resultados, entre 1 y 1000
+     * @return los estudiantes encontrados
+     * @throws InvalidDataException si el texto está vacío o el límite no es válido
+     */
+    public List<Student> searchStudents(String query, NameMatch match, int limit) throws InvalidDataException {
+        return searchStudentsMetrics.time(() -> ordered.search(query, match, limit));
     }
 
     /**
@@ -175,16 +550,41 @@ public class StudentService {
      * @throws CourseNotFoundException  si el curso no está asociado al estudiante
      */
     public void removeCourseFromStudent(Student student, Course course) throws StudentNotFoundException, CourseNotFoundException {
+        removeCourseFromStudentMetrics.<StudentNotFoundException, CourseNotFoundException>run(() -> {
+            if (concurrent) {
+                course.getLock().lock();
+            }
+            try {
+                removeCourseFromStudentLocked(student, course);
+            } finally {
+                if (concurrent) {
+                    course.getLock().unlock();
+                }
+            }
+            commit();
+        });
+    }
+
+    /**
+     * Realiza la remoción de {@link #removeCourseFromStudent(Student, Course)} con el candado del curso tomado.
+     */
+    private void removeCourseFromStudentLocked(Student student, Course course) throws StudentNotFoundException, CourseNotFoundException {
         if (hasNotStudents()) {
             logger.warn("No existen actualmente datos de ningun estudiante");
             throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        } else if (!student.getCourses().containsValue(course)) {
+        } else if (!isRegistered(student)) {
+            logger.warn("Estudiante no encontrado para remover el curso");
+            throw new StudentNotFoundException("No se encontro ningun estudiante ");
+        } else if (!student.isEnrolledIn(course)) {
             logger.warn("El estudiante {} con el codigo {} no se encuentra inscrito en el curso {} con codigo {}", student.getName(), student.getCode(), course.getName(), course.getCode());
             throw new CourseNotFoundException("El estudiante no esta inscrito actualmente en ese curso");
         } else {
             course.removeStudent(student.getCode());
             student.removeCourse(course.getCode());
+            course.releaseSeat();
+            listeners.forEach(listener -> listener.studentRemoved(course, student));
             logger.info("El estudiante {} con el codigo {} removio el curso {} con codigo {} de su lista de cursos y viceversa", student.getName(), student.getCode(), course.getName(), course.getCode());
+            CourseService.promoteWaitlist(course, listeners);
         }
     }
 
@@ -197,22 +597,33 @@ public class StudentService {
      * @throws InvalidDataException     si el nuevo nombre no es válido
      */
     public void setNewName(Student student, String name) throws StudentNotFoundException, InvalidDataException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        } else if (!Validator.validateName(name)) {
-            logger.warn("No se pudo cambiar el nombre del estudiante {} con el codigo {} debido a que el nombre no es valido", student.getName(), student.getCode());
-            throw new InvalidDataException("Nombre no valido");
-        } else if (!students.containsValue(student)) {
-            logger.warn("Estudiante no encontrado para cambiar el nombre");
-            throw new StudentNotFoundException("No se encontro ningun estudiante ");
-        } else if (!isNameAvaiable(name)) {
-            logger.warn("El nombre ya esta en uso");
-            throw new InvalidDataException("Nombre ya esta siendo usado");
-        } else {
-            student.setName(name);
-            logger.info("El estudiante {} con codigo {} cambio su nombre", student.getName(), student.getCode());
-        }
+        setNewNameMetrics.run(() -> {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            } else if (!Validator.validateName(name)) {
+                logger.warn("No se pudo cambiar el nombre del estudiante {} con el codigo {} debido a que el nombre no es valido", student.getName(), student.getCode());
+                throw new InvalidDataException("Nombre no valido");
+            } else if (!isRegistered(student)) {
+                logger.warn("Estudiante no encontrado para cambiar el nombre");
+                throw new StudentNotFoundException("No se encontro ningun estudiante ");
+            } else if (!reserveName(name, student)) {
+                logger.warn("El nombre ya esta en uso");
+                throw new InvalidDataException("Nombre ya esta siendo usado");
+            } else {
+                synchronized (student) {
+                    String oldName = student.getName();
+                    student.setName(name);
+                    if (oldName != null) {
+                        studentsByName.remove(oldName, student);
+                    }
+                    ordered.rename(student.getCode(), oldName, name, student);
+                    listeners.forEach(listener -> listener.studentRenamed(student));
+                }
+                commit();
+                logger.info("El estudiante {} con codigo {} cambio su nombre", student.getName(), student.getCode());
+            }
+        });
     }
 
     /**
@@ -224,22 +635,32 @@ public class StudentService {
      * @throws InvalidDataException     si el nuevo email no es válido
      */
     public void setNewEmail(Student student, String email) throws StudentNotFoundException, InvalidDataException {
-        if (hasNotStudents()) {
-            logger.warn("No existen actualmente datos de ningun estudiante");
-            throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
-        } else if (!Validator.validateEmail(email)) {
-            logger.warn("No se pudo cambiar el nombre del estudiante {} con el codigo {} debido a que el emaile es no valido", student.getName(), student.getCode());
-            throw new InvalidDataException("Nombre no valido");
-        } else if (!students.containsValue(student)) {
-            logger.warn("Estudiante no encontrado para cambiar el nombre");
-            throw new StudentNotFoundException("No se encontro ningun estudiante ");
-        } else if (!isEmailAvaiable(email)) {
-            logger.warn("El email ya esta en uso");
-            throw new InvalidDataException("Email ya esta siendo usado");
-        } else {
-            student.setEmail(email);
-            logger.info("El estudiante {} con codigo {} cambio su email", student.getName(), student.getCode());
-        }
+        setNewEmailMetrics.run(() -> {
+            if (hasNotStudents()) {
+                logger.warn("No existen actualmente datos de ningun estudiante");
+                throw new StudentNotFoundException("No existen datos de ningun estudiante actualmente");
+            } else if (!Validator.validateEmail(email)) {
+                logger.warn("No se pudo cambiar el nombre del estudiante {} con el codigo {} debido a que el emaile es no valido", student.getName(), student.getCode());
+                throw new InvalidDataException("Nombre no valido");
+            } else if (!isRegistered(student)) {
+                logger.warn("Estudiante no encontrado para cambiar el nombre");
+                throw new StudentNotFoundException("No se encontro ningun estudiante ");
+            } else if (!reserveEmail(email, student)) {
+                logger.warn("El email ya esta en uso");
+                throw new InvalidDataException("Email ya esta siendo usado");
+            } else {
+                synchronized (student) {
+                    String oldEmail = student.getEmail();
+                    student.setEmail(email);
+                    if (oldEmail != null) {
+                        studentsByEmail.remove(oldEmail, student);
+                    }
+                    listeners.forEach(listener -> listener.emailChanged(student));
+                }
+                commit();
+                logger.info("El estudiante {} con codigo {} cambio su email", student.getName(), student.getCode());
+            }
+        });
     }
 
     /**
@@ -249,12 +670,7 @@ public class StudentService {
      * @return true si el nombre no está en uso, false en caso contrario
      */
     public Boolean isNameAvaiable(String name) {
-        for (Student student : students.values()) {
-            if (student.getName().equals(name)) {
-                return false;
-            }
-        }
-        return true;
+        return name == null || !studentsByName.containsKey(name);
     }
 
     /**
@@ -264,12 +680,96 @@ public class StudentService {
      * @return true si el correo no está en uso, false en caso contrario
      */
     public Boolean isEmailAvaiable(String email) {
-        for (Student student : students.values()) {
-            if (student.getEmail().equals(email)) {
-                return false;
-            }
+        return email == null || !studentsByEmail.containsKey(email);
+    }
+
+    /**
+     * Reserva un nombre para un estudiante de forma atómica.
+     *
+     * @param name    nombre a reservar
+     * @param student estudiante al que quedará asociado el nombre
+     * @return true si el nombre quedó reservado, false si ya estaba en uso
+     */
+    public Boolean reserveName(String name, Student student) {
+        lockRegistration();
+        try {
+            return studentsByName.putIfAbsent(name, student) == null;
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Reserva un correo electrónico para un estudiante de forma atómica.
+     *
+     * @param email   correo a reservar
+     * @param student estudiante al que quedará asociado el correo
+     * @return true si el correo quedó reservado, false si ya estaba en uso
+     */
+    public Boolean reserveEmail(String email, Student student) {
+        lockRegistration();
+        try {
+            return studentsByEmail.putIfAbsent(email, student) == null;
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Retorna una foto de los estudiantes registrados para guardarla en disco.
+     * Espera a que terminen los registros en curso, así un estudiante que ya se
+     * entregó a los observadores siempre está en la foto.
+     *
+     * @return foto inmutable de los estudiantes por código, vacía si no hay estudiantes
+     */
+    public Map<String, Student> snapshotStudents() {
+        lockRegistration();
+        try {
+            return students.snapshot();
+        } finally {
+            unlockRegistration();
+        }
+    }
+
+    /**
+     * Abre un lote de operaciones del hilo actual que se confirman juntas al
+     * cerrarlo, para importar muchas filas con una sola sincronización de la bitácora.
+     *
+     * @return lote a cerrar con try-with-resources
+     */
+    public RegistryBatch beginBatch() {
+        return new RegistryBatch(batchDepth.get(), () -> listeners.forEach(RegistryListener::commit));
+    }
+
+    /**
+     * Confirma ante los observadores las modificaciones notificadas por la
+     * operación actual, salvo que el hilo tenga un {@link RegistryBatch} abierto.
+     */
+    private void commit() {
+        if (batchDepth.get()[0] == 0) {
+            listeners.forEach(RegistryListener::commit);
         }
-        return true;
+    }
+
+    /**
+     * Verifica si el estudiante es el que está registrado bajo su código.
+     *
+     * @param student estudiante a verificar
+     * @return true si el estudiante está registrado en el servicio
+     */
+    private boolean isRegistered(Student student) {
+        return student.getCode() != null && students.get(student.getCode()) == student;
+    }
+
+    /**
+     * Obtiene un estudiante por su código sin registrar la búsqueda ni lanzar excepciones.
+     * Lo usan las operaciones por lotes y la recuperación del registro desde disco.
+     *
+     * @param code código del estudiante
+     * @return el estudiante, o {@code null} si no existe
+     */
+    public Student getStudent(String code) {
+        return code == null ? null : students.get(code);
     }
 
     /**
@@ -280,4 +780,16 @@ public class StudentService {
     public boolean hasNotStudents() {
         return students.isEmpty();
     }
+
+    private void lockRegistration() {
+        if (concurrent) {
+            registration.lock();
+        }
+    }
+
+    private void unlockRegistration() {
+        if (concurrent) {
+            registration.unlock();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.devsenior.util;
+
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Asignador de códigos únicos de 6 dígitos (del 100000 al 999999).
+ *
+ * Recorre el espacio de códigos siguiendo un generador congruencial lineal de
+ * periodo completo, que visita cada código exactamente una vez en orden
+ * desordenado, y marca los códigos entregados en un {@link BitSet}. Así cada
+ * código se obtiene en O(1) sin volver a revisar las entidades existentes, aun
+ * cuando el espacio está casi lleno.
+ *
+ * Es seguro para varios hilos. No se guarda en disco: al recuperar el registro
+ * los códigos existentes se vuelven a marcar con {@link #markUsed(String)}.
+ */
+public final class IdAllocator {
+
+    /** Menor código que entrega el asignador. */
+    public static final int MIN_ID = 100000;
+
+    /** Cantidad de códigos distintos disponibles. */
+    public static final int RANGE = 900000;
+
+    /*
+     * Con m = 900000 = 2^5 * 3^2 * 5^5 el generador x -> (a*x + c) mod m tiene
+     * periodo completo si c es coprimo con m y a - 1 es múltiplo de 2, 3, 5 y 4.
+     */
+    private static final long MULTIPLIER = 475141;
+    private static final long INCREMENT = 510511;
+
+    private final BitSet used;
+    private int cursor;
+    private int count;
+
+    /**
+     * Crea un asignador vacío que comienza en una posición aleatoria de la secuencia.
+     */
+    public IdAllocator() {
+        this.cursor = ThreadLocalRandom.current().nextInt(RANGE);
+        this.used = new BitSet(RANGE);
+    }
+
+    /**
+     * Entrega el siguiente código libre.
+     *
+     * @return código de 6 dígitos, o {@code null} si ya no quedan códigos libres
+     */
+    public synchronized String nextId() {
+        if (count == RANGE) {
+            return null;
+        }
+        do {
+            cursor = (int) ((MULTIPLIER * cursor + INCREMENT) % RANGE);
+        } while (used.get(cursor));
+        used.set(cursor);
+        count++;
+        return String.valueOf(MIN_ID + cursor);
+    }
+
+    /**
+     * Marca como usado un código asignado por fuera del asignador, por ejemplo
+     * un curso agregado con un código propio, para que nunca se vuelva a entregar.
+     * Los códigos fuera del rango de 6 dígitos se ignoran.
+     *
+     * @param code código a marcar
+     * @return {@code true} si el código estaba libre y quedó marcado
+     */
+    public synchronized boolean markUsed(String code) {
+        int index = indexOf(code);
+        if (index < 0 || used.get(index)) {
+            return false;
+        }
+        used.set(index);
+        count++;
+        return true;
+    }
+
+    /**
+     * Devuelve un código entregado por {@link #nextId()} que nunca llegó a
+     * asignarse, por ejemplo porque la creación falló, para que pueda volver a
+     * entregarse. No debe usarse con códigos de entidades que ya se registraron.
+     *
+     * @param code código a liberar
+     * @return {@code true} si el código estaba en uso y quedó libre
+     */
+    public synchronized boolean release(String code) {
+        int index = indexOf(code);
+        if (index < 0 || !used.get(index)) {
+            return false;
+        }
+        used.clear(index);
+        count--;
+        return true;
+    }
+
+    /**
+     * Retorna cuántos códigos están en uso.
+     *
+     * @return cantidad de códigos en uso
+     */
+    public synchronized int usedCount() {
+        return count;
+    }
+
+    /**
+     * Convierte un código de 6 dígitos en su posición dentro del espacio de códigos.
+     *
+     * @return posición, o -1 si el código no es un número de 6 dígitos
+     */
+    private static int indexOf(String code) {
+        if (code == null || code.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value < MIN_ID ? -1 : value - MIN_ID;
+    }
+}
@@ -0,0 +1,539 @@
+package com.devsenior.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Lista de inscripciones de un curso o de un estudiante guardada por código
+ * numérico en una tabla de direccionamiento abierto.
+ *
+ * Cada inscripción ocupa una posición en un {@code int[]} de códigos y otra en
+ * un arreglo de referencias: no hay {@link Map.Entry} por elemento ni códigos
+ * en cajas, y el código como texto se obtiene del propio elemento cuando se arma
+ * una foto. Los códigos de 6 dígitos que entrega {@link IdAllocator}, y los de
+ * 7 a 9 dígitos que no empiezan con cero, se guardan como su valor numérico;
+ * cualquier otro código recibe un número negativo que se le asigna la primera
+ * vez que se guarda. Esos números son comunes a todas las listas, para que los
+ * conjuntos de códigos de distintos cursos se puedan cruzar, y cada uno cuenta
+ * cuántas listas guardan su código: al quitarlo de la última se olvida, y si el
+ * código vuelve a guardarse recibe un número nuevo. Buscar o quitar un código
+ * que no está guardado no le asigna número, así las consultas con códigos
+ * inventados no hacen crecer esa tabla.
+ *
+ * Un contador de versión hace de candado: es impar mientras alguien escribe y
+ * los escritores lo toman con una operación CAS, de modo que varios hilos pueden
+ * inscribir al mismo estudiante en cursos distintos. Las lecturas son
+ * optimistas: leen sin candados y repiten si una escritura ocurrió mientras
+ * tanto, así no detienen a los escritores. Tras {@value #ATTEMPTS} intentos
+ * fallidos el lector toma el candado como un escritor, lee y devuelve la versión
+ * que había sin cambiarla, de modo que siempre avanza aunque las escrituras no
+ * paren y las fotos publicadas siguen valiendo. El contador ocupa un {@code long}
+ * en la propia lista en lugar de un objeto candado por curso y por estudiante.
+ * {@link #snapshot()} entrega una foto inmutable que se reutiliza hasta la
+ * siguiente escritura.
+ *
+ * @param <V> tipo de los elementos, que conocen su propio código
+ */
+public final class IntRoster<V> {
+
+    /** Marca de posición libre; ningún código se convierte en este valor. */
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    /** Posiciones de la primera tabla. */
+    private static final int MIN_SLOTS = 2;
+
+    /** Intentos con espera activa antes de ceder el procesador. */
+    private static final int SPINS = 16;
+
+    /** Lecturas optimistas antes de tomar el candado. */
+    private static final int ATTEMPTS = 64;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(IntRoster.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Números asignados a los códigos no numéricos que alguna lista guarda. */
+    private static final Map<String, OtherCode> OTHER_CODES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_OTHER_CODE = new AtomicInteger();
+
+    private final Function<V, String> code;
+    private volatile long version;
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private volatile Published<V> published;
+
+    /** Foto publicada y versión de la lista a la que corresponde. */
+    private record Published<V>(long version, Map<String, V> map) {
+    }
+
+    /**
+     * Número de un código no numérico y cuántas listas lo guardan; solo se
+     * modifica dentro de {@code compute} sobre {@link #OTHER_CODES}.
+     */
+    private static final class OtherCode {
+        final int key;
+        int references;
+
+        OtherCode(int key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Crea una lista vacía.
+     *
+     * @param code     función que retorna el código de un elemento
+     * @param expected cantidad esperada de elementos; con 0 la tabla se crea con el primero
+     */
+    public IntRoster(Function<V, String> code, int expected) {
+        this.code = code;
+        if (expected > 0) {
+            allocate(slotsFor(expected));
+        }
+    }
+
+    /**
+     * Convierte un código en la clave numérica con que se guarda, sin asignarle número.
+     *
+     * @param code código del curso o estudiante
+     * @return el valor de un código numérico, el número negativo de cualquier otro
+     *         código que alguna lista guarde, o {@link Integer#MIN_VALUE} si no está guardado
+     */
+    public static int key(String code) {
+        int value = numericKey(code);
+        if (value >= 0) {
+            return value;
+        }
+        OtherCode other = OTHER_CODES.get(code);
+        return other == null ? EMPTY : other.key;
+    }
+
+    /**
+     * Retorna la clave de un código que se va a guardar, asignándole número si no
+     * es numérico y ninguna lista lo guarda, y cuenta una lista más que lo guarda.
+     */
+    private static int retain(String code) {
+        int value = numericKey(code);
+        if (value >= 0) {
+            return value;
+        }
+        return OTHER_CODES.compute(code, (text, other) -> {
+            OtherCode held = other == null ? new OtherCode(NEXT_OTHER_CODE.decrementAndGet()) : other;
+            held.references++;
+            return held;
+        }).key;
+    }
+
+    /**
+     * Cuenta una lista menos que guarda el código y olvida su número si era la última.
+     */
+    private static void release(String code) {
+        if (numericKey(code) < 0) {
+            OTHER_CODES.computeIfPresent(code, (text, other) -> --other.references == 0 ? null : other);
+        }
+    }
+
+    /**
+     * Calcula el valor de un código de 6 dígitos, o de 7 a 9 dígitos sin cero
+     * inicial; los rangos no se cruzan, así que dos códigos distintos nunca
+     * comparten valor.
+     *
+     * @return el valor, o -1 si el código no tiene esa forma
+     */
+    private static int numericKey(String code) {
+        int length = code.length();
+        if (length < 6 || length > 9 || (length > 6 && code.charAt(0) == '0')) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Busca un elemento por su código.
+     *
+     * @param code código del elemento
+     * @return el elemento, o {@code null} si no está
+     */
+    public V get(String code) {
+        int key = key(code);
+        return key == EMPTY ? null : get(key);
+    }
+
+    /**
+     * Busca un elemento por su clave numérica.
+     *
+     * @param key clave retornada por {@link #key(String)}
+     * @return el elemento, o {@code null} si no está
+     */
+    public V get(int key) {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long stamp = version;
+            if ((stamp & 1) == 0) {
+                V found = find(key);
+                if (validate(stamp)) {
+                    return found;
+                }
+            }
+            backOff(attempt);
+        }
+        long stamp = lockWrite();
+        try {
+            return find(key);
+        } finally {
+            unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(String code) {
+        return get(code) != null;
+    }
+
+    public int size() {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long stamp = version;
+            if ((stamp & 1) == 0) {
+                int current = size;
+                if (validate(stamp)) {
+                    return current;
+                }
+            }
+            backOff(attempt);
+        }
+        long stamp = lockWrite();
+        try {
+            return size;
+        } finally {
+            unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Agrega o reemplaza un elemento.
+     *
+     * @param code  código del elemento
+     * @param value elemento
+     * @return el elemento anterior con ese código, o {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(String code, V value) {
+        int key = retain(code);
+        V old = null;
+        long stamp = lockWrite();
+        try {
+            if (keys == null) {
+                allocate(MIN_SLOTS);
+            } else if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    old = (V) values[i];
+                    values[i] = value;
+                    return old;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+            return null;
+        } finally {
+            unlockWrite(stamp);
+            if (old != null) {
+                // El código ya estaba guardado en esta lista.
+                release(code);
+            }
+        }
+    }
+
+    /**
+     * Quita un elemento. Los siguientes de su grupo se corren hacia atrás, así
+     * la tabla no acumula marcas de borrado.
+     *
+     * @param code código del elemento
+     * @return el elemento quitado, o {@code null} si no estaba
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(String code) {
+        int key = key(code);
+        if (key == EMPTY) {
+            return null;
+        }
+        V old = null;
+        long stamp = lockWrite();
+        try {
+            int i = indexOf(key);
+            if (i < 0) {
+                return null;
+            }
+            old = (V) values[i];
+            int mask = keys.length - 1;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY) {
+                    break;
+                }
+                int home = slot(keys[j], mask);
+                if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = EMPTY;
+            values[i] = null;
+            size--;
+            return old;
+        } finally {
+            unlockWrite(stamp);
+            if (old != null) {
+                release(code);
+            }
+        }
+    }
+
+    /**
+     * Retorna una foto inmutable de los elementos por código; solo toma el
+     * candado si las escrituras impiden tomarla sin él.
+     *
+     * @return mapa inmutable, el mismo objeto mientras no haya escrituras
+     */
+    public Map<String, V> snapshot() {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long stamp = version;
+            if ((stamp & 1) == 0) {
+                Published<V> current = published;
+                if (current != null && current.version() == stamp) {
+                    return current.map();
+                }
+                Map<String, V> copy = copy();
+                if (validate(stamp) && copy != null) {
+                    published = new Published<>(stamp, copy);
+                    return copy;
+                }
+            }
+            backOff(attempt);
+        }
+        long stamp = lockWrite();
+        try {
+            Map<String, V> copy = copy();
+            published = new Published<>(stamp - 1, copy);
+            return copy;
+        } finally {
+            unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retorna una vista de solo lectura: las consultas por código y el tamaño
+     * son en vivo y los recorridos se hacen sobre {@link #snapshot()}.
+     *
+     * @return vista de solo lectura por código
+     */
+    public Map<String, V> view() {
+        return new View();
+    }
+
+    /**
+     * Copia el contenido actual; durante una lectura optimista puede resultar
+     * inconsistente y entonces retorna {@code null} o un mapa que se descarta.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, V> copy() {
+        int[] k = keys;
+        Object[] v = values;
+        if (k == null || v == null) {
+            return Collections.emptyMap();
+        } else if (k.length != v.length) {
+            return null;
+        }
+        Map<String, V> copy = new HashMap<>(Math.max(4, size * 4 / 3 + 1));
+        for (int i = 0; i < k.length; i++) {
+            Object value = v[i];
+            if (k[i] != EMPTY && value != null) {
+                copy.put(code.apply((V) value), (V) value);
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Busca una clave; durante una lectura optimista el resultado solo vale si el sello sigue vigente.
+     */
+    @SuppressWarnings("unchecked")
+    private V find(int key) {
+        int[] k = keys;
+        Object[] v = values;
+        if (k == null || v == null || k.length != v.length) {
+            return null;
+        }
+        int mask = k.length - 1;
+        int i = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            int current = k[i];
+            if (current == key) {
+                return (V) v[i];
+            } else if (current == EMPTY) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Toma la lista para escribir pasando la versión de par a impar.
+     *
+     * @return la versión impar con la que quedó tomada
+     */
+    private long lockWrite() {
+        for (int attempt = 0;; attempt++) {
+            long stamp = version;
+            if ((stamp & 1) == 0 && VERSION.compareAndSet(this, stamp, stamp + 1)) {
+                return stamp + 1;
+            }
+            backOff(attempt);
+        }
+    }
+
+    private void unlockWrite(long stamp) {
+        version = stamp + 1;
+    }
+
+    /**
+     * Suelta el candado tomado para leer devolviendo la versión anterior: como
+     * nada cambió, las lecturas optimistas y las fotos de esa versión siguen valiendo.
+     */
+    private void unlockRead(long stamp) {
+        version = stamp - 1;
+    }
+
+    /**
+     * Verifica que nadie escribió desde que se leyó {@code stamp}; la barrera
+     * impide que las lecturas anteriores se muevan después de la verificación.
+     */
+    private boolean validate(long stamp) {
+        VarHandle.acquireFence();
+        return version == stamp;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    private int indexOf(int key) {
+        if (keys == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int slots) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(slots);
+        int mask = slots - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        int[] k = new int[slots];
+        Arrays.fill(k, EMPTY);
+        keys = k;
+        values = new Object[slots];
+    }
+
+    private static int slotsFor(int expected) {
+        int slots = MIN_SLOTS;
+        while (slots * 3 < expected * 4) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Vista de solo lectura por código sobre la lista.
+     */
+    private final class View extends AbstractMap<String, V> {
+
+        @Override
+        public V get(Object key) {
+            return key instanceof String text ? IntRoster.this.get(text) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return IntRoster.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return IntRoster.this.isEmpty();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return snapshot().entrySet();
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.devsenior.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto comprimido de números enteros al estilo de los mapas de bits
+ * "roaring", pensado para los códigos numéricos de los inscritos de un curso
+ * ({@link IntRoster#key(String)}).
+ *
+ * Cada número se separa en sus 16 bits altos, que eligen un contenedor, y sus
+ * 16 bits bajos, que se guardan en él. Un contenedor con pocos elementos es un
+ * arreglo ordenado de {@code char}; al pasar de {@value #ARRAY_MAX} elementos
+ * se convierte en un mapa de 65536 bits ({@code long[1024]}) y vuelve a ser
+ * arreglo si baja de ese tamaño. Así un curso de 30 inscritos ocupa unas decenas
+ * de bytes y uno de cientos de miles no pasa de 8 KB por contenedor.
+ *
+ * La intersección, la unión, la diferencia y sus conteos recorren los
+ * contenedores en orden: entre dos mapas de bits operan palabra por palabra,
+ * entre un arreglo y un mapa de bits prueban cada elemento con un acceso
+ * directo y entre dos arreglos los mezclan. Nunca recorren objetos.
+ *
+ * No es seguro para varios hilos. {@link #immutableCopy()} entrega una copia
+ * que puede leerse desde cualquier hilo y rechaza modificaciones.
+ */
+public final class OrdinalBitmap {
+
+    /** Máximo de elementos de un contenedor arreglo. */
+    private static final int ARRAY_MAX = 4096;
+
+    /** Palabras de un contenedor mapa de bits. */
+    private static final int WORDS = 1024;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Object[] NO_CONTAINERS = new Object[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    /** 16 bits altos de cada contenedor, en orden. */
+    private char[] keys = NO_KEYS;
+    /** Cada contenedor es un {@code char[]} ordenado o un {@code long[]} de {@value #WORDS} palabras. */
+    private Object[] containers = NO_CONTAINERS;
+    private int[] counts = NO_COUNTS;
+    private int size;
+    private boolean frozen;
+
+    /**
+     * Agrega un número.
+     *
+     * @param ordinal número a agregar; los negativos se tratan sin signo
+     * @return {@code true} si no estaba
+     */
+    public boolean add(int ordinal) {
+        checkMutable();
+        char high = (char) (ordinal >>> 16);
+        char low = (char) ordinal;
+        int i = indexOf(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new char[4], 0);
+        }
+        int n = counts[i];
+        if (containers[i] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= mask;
+            counts[i] = n + 1;
+            return true;
+        }
+        char[] array = (char[]) containers[i];
+        int at = Arrays.binarySearch(array, 0, n, low);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        if (n == ARRAY_MAX) {
+            long[] bits = toBits(array, n);
+            bits[low >>> 6] |= 1L << low;
+            containers[i] = bits;
+        } else {
+            if (n == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_MAX, n * 2));
+                containers[i] = array;
+            }
+            System.arraycopy(array, at, array, at + 1, n - at);
+            array[at] = low;
+        }
+        counts[i] = n + 1;
+        return true;
+    }
+
+    /**
+     * Quita un número.
+     *
+     * @param ordinal número a quitar
+     * @return {@code true} si estaba
+     */
+    public boolean remove(int ordinal) {
+        checkMutable();
+        char high = (char) (ordinal >>> 16);
+        char low = (char) ordinal;
+        int i = indexOf(high);
+        if (i < 0) {
+            return false;
+        }
+        int n = counts[i];
+        if (containers[i] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bits[low >>> 6] &= ~mask;
+            if (n - 1 <= ARRAY_MAX) {
+                containers[i] = toArray(bits, n - 1);
+            }
+        } else {
+            char[] array = (char[]) containers[i];
+            int at = Arrays.binarySearch(array, 0, n, low);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(array, at + 1, array, at, n - at - 1);
+        }
+        if (n == 1) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            counts[i] = n - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Verifica si un número está en el conjunto.
+     *
+     * @param ordinal número a buscar
+     * @return {@code true} si está
+     */
+    public boolean contains(int ordinal) {
+        int i = indexOf((char) (ordinal >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) ordinal;
+        if (containers[i] instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) containers[i], 0, counts[i], low) >= 0;
+    }
+
+    /**
+     * Retorna la cantidad de números del conjunto.
+     *
+     * @return cardinalidad
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Entrega cada número del conjunto en orden sin signo.
+     *
+     * @param action acción a aplicar a cada número
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            if (containers[i] instanceof long[] bits) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) containers[i];
+                for (int j = 0; j < counts[i]; j++) {
+                    action.accept(high | array[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna una copia que no admite modificaciones.
+     *
+     * @return copia inmutable del conjunto
+     */
+    public OrdinalBitmap immutableCopy() {
+        OrdinalBitmap copy = new OrdinalBitmap();
+        for (int i = 0; i < size; i++) {
+            Object container = containers[i];
+            copy.append(keys[i], container instanceof long[] bits ? bits.clone()
+                    : Arrays.copyOf((char[]) container, counts[i]), counts[i]);
+        }
+        copy.frozen = true;
+        return copy;
+    }
+
+    /**
+     * Intersección de dos conjuntos.
+     *
+     * @return nuevo conjunto con los números que están en ambos
+     */
+    public static OrdinalBitmap and(OrdinalBitmap a, OrdinalBitmap b) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            char ka = a.keys[i];
+            char kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                result.appendAnd(ka, a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cantidad de números que están en ambos conjuntos, sin armar la intersección.
+     *
+     * @return cardinalidad de la intersección
+     */
+    public static int andCardinality(OrdinalBitmap a, OrdinalBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            char ka = a.keys[i];
+            char kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                total += andCount(a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Unión de dos conjuntos.
+     *
+     * @return nuevo conjunto con los números que están en alguno
+     */
+    public static OrdinalBitmap or(OrdinalBitmap a, OrdinalBitmap b) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], copyOf(a.containers[i], a.counts[i]), a.counts[i]);
+                i++;
+            } else if (i == a.size || b.keys[j] < a.keys[i]) {
+                result.append(b.keys[j], copyOf(b.containers[j], b.counts[j]), b.counts[j]);
+                j++;
+            } else {
+                result.appendOr(a.keys[i], a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unión de varios conjuntos. Cada contenedor se acumula en un solo mapa de
+     * bits y se cuenta al final, en lugar de armar un conjunto intermedio por
+     * cada unión de a pares.
+     *
+     * @return nuevo conjunto con los números que están en alguno
+     */
+    public static OrdinalBitmap or(Collection<OrdinalBitmap> bitmaps) {
+        OrdinalBitmap union = new OrdinalBitmap();
+        for (OrdinalBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.size; i++) {
+                int at = union.indexOf(bitmap.keys[i]);
+                if (at < 0) {
+                    at = -at - 1;
+                    union.insert(at, bitmap.keys[i], new long[WORDS], 0);
+                }
+                long[] bits = (long[]) union.containers[at];
+                if (bitmap.containers[i] instanceof long[] other) {
+                    for (int w = 0; w < WORDS; w++) {
+                        bits[w] |= other[w];
+                    }
+                } else {
+                    char[] array = (char[]) bitmap.containers[i];
+                    for (int j = 0; j < bitmap.counts[i]; j++) {
+                        bits[array[j] >>> 6] |= 1L << array[j];
+                    }
+                }
+            }
+        }
+        OrdinalBitmap result = new OrdinalBitmap();
+        for (int i = 0; i < union.size; i++) {
+            long[] bits = (long[]) union.containers[i];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                n += Long.bitCount(bits[w]);
+            }
+            result.append(union.keys[i], bits, n);
+        }
+        return result;
+    }
+
+    /**
+     * Diferencia de dos conjuntos.
+     *
+     * @return nuevo conjunto con los números de {@code a} que no están en {@code b}
+     */
+    public static OrdinalBitmap andNot(OrdinalBitmap a, OrdinalBitmap b) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            char key = a.keys[i];
+            while (j < b.size && b.keys[j] < key) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == key) {
+                result.appendAndNot(key, a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+            } else {
+                result.append(key, copyOf(a.containers[i], a.counts[i]), a.counts[i]);
+            }
+        }
+        return result;
+    }
+
+    private void appendAnd(char key, Object a, int na, Object b, int nb) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            long[] bits = new long[WORDS];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                bits[w] = x[w] & y[w];
+                n += Long.bitCount(bits[w]);
+            }
+            append(key, bits, n);
+        } else if (a instanceof long[] x) {
+            appendFiltered(key, (char[]) b, nb, x, true);
+        } else if (b instanceof long[] y) {
+            appendFiltered(key, (char[]) a, na, y, true);
+        } else {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] out = new char[Math.min(na, nb)];
+            int n = 0;
+            for (int i = 0, j = 0; i < na && j < nb;) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            append(key, out, n);
+        }
+    }
+
+    private static int andCount(Object a, int na, Object b, int nb) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                n += Long.bitCount(x[w] & y[w]);
+            }
+            return n;
+        } else if (a instanceof long[] || b instanceof long[]) {
+            long[] bits = a instanceof long[] x ? x : (long[]) b;
+            char[] array = a instanceof long[] ? (char[]) b : (char[]) a;
+            int length = a instanceof long[] ? nb : na;
+            int n = 0;
+            for (int i = 0; i < length; i++) {
+                char low = array[i];
+                n += (int) (bits[low >>> 6] >>> low) & 1;
+            }
+            return n;
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        int n = 0;
+        for (int i = 0, j = 0; i < na && j < nb;) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private void appendOr(char key, Object a, int na, Object b, int nb) {
+        if (a instanceof long[] || b instanceof long[]) {
+            long[] bits = a instanceof long[] x ? x.clone() : toBits((char[]) a, na);
+            if (b instanceof long[] y) {
+                for (int w = 0; w < WORDS; w++) {
+                    bits[w] |= y[w];
+                }
+            } else {
+                char[] array = (char[]) b;
+                for (int i = 0; i < nb; i++) {
+                    bits[array[i] >>> 6] |= 1L << array[i];
+                }
+            }
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                n += Long.bitCount(bits[w]);
+            }
+            append(key, bits, n);
+            return;
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        char[] out = new char[na + nb];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < na || j < nb) {
+            if (j == nb || (i < na && x[i] < y[j])) {
+                out[n++] = x[i++];
+            } else if (i == na || y[j] < x[i]) {
+                out[n++] = y[j++];
+            } else {
+                out[n++] = x[i++];
+                j++;
+            }
+        }
+        if (n > ARRAY_MAX) {
+            append(key, toBits(out, n), n);
+        } else {
+            append(key, out, n);
+        }
+    }
+
+    private void appendAndNot(char key, Object a, int na, Object b, int nb) {
+        if (a instanceof long[] x) {
+            long[] bits = x.clone();
+            if (b instanceof long[] y) {
+                for (int w = 0; w < WORDS; w++) {
+                    bits[w] &= ~y[w];
+                }
+            } else {
+                char[] array = (char[]) b;
+                for (int i = 0; i < nb; i++) {
+                    bits[array[i] >>> 6] &= ~(1L << array[i]);
+                }
+            }
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                n += Long.bitCount(bits[w]);
+            }
+            append(key, bits, n);
+        } else if (b instanceof long[] y) {
+            appendFiltered(key, (char[]) a, na, y, false);
+        } else {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] out = new char[na];
+            int n = 0;
+            int j = 0;
+            for (int i = 0; i < na; i++) {
+                while (j < nb && y[j] < x[i]) {
+                    j++;
+                }
+                if (j == nb || y[j] != x[i]) {
+                    out[n++] = x[i];
+                }
+            }
+            append(key, out, n);
+        }
+    }
+
+    /**
+     * Agrega los elementos de un arreglo que están ({@code keep}) o no están en un mapa de bits.
+     */
+    private void appendFiltered(char key, char[] array, int length, long[] bits, boolean keep) {
+        char[] out = new char[length];
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char low = array[i];
+            if (((bits[low >>> 6] & (1L << low)) != 0) == keep) {
+                out[n++] = low;
+            }
+        }
+        append(key, out, n);
+    }
+
+    /**
+     * Agrega un contenedor al final; lo descarta si está vacío y lo pasa a
+     * arreglo si es un mapa de bits con pocos elementos.
+     */
+    private void append(char key, Object container, int count) {
+        if (count == 0) {
+            return;
+        } else if (container instanceof long[] bits && count <= ARRAY_MAX) {
+            container = toArray(bits, count);
+        }
+        insert(size, key, container, count);
+    }
+
+    private void insert(int i, char key, Object container, int count) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(counts, i, counts, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        counts[i] = count;
+        size++;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Conjunto de solo lectura");
+        }
+    }
+
+    private static Object copyOf(Object container, int count) {
+        return container instanceof long[] bits ? bits.clone() : Arrays.copyOf((char[]) container, count);
+    }
+
+    private static long[] toBits(char[] array, int count) {
+        long[] bits = new long[WORDS];
+        for (int i = 0; i < count; i++) {
+            bits[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int count) {
+        char[] array = new char[count];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                array[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,141 @@
+package com.devsenior.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+
+/**
+ * Escribe cursos y estudiantes como texto, una ficha por elemento, en el formato
+ * de {@link Course#toString()} y {@link Student#toString()}.
+ *
+ * Las fichas se agregan directamente al destino, sin armar un texto por fila ni
+ * usar {@link String#format}: los listados para la interfaz gráfica se arman en
+ * un {@link StringBuilder} dimensionado de una vez y la API HTTP escribe en el
+ * {@link java.io.Writer} de la respuesta a medida que recorre la lista.
+ */
+public final class RosterRenderer {
+
+    /** Separa una ficha de la siguiente en los listados. */
+    private static final String SEPARATOR = "\n\n";
+
+    /** Tamaño aproximado de una ficha, para dimensionar el texto de un listado. */
+    private static final int ROW_SIZE = 96;
+
+    private final Appendable out;
+
+    /**
+     * Crea un escritor de fichas sobre un destino.
+     *
+     * @param out destino del texto, por ejemplo un {@link StringBuilder} o un {@link java.io.Writer}
+     */
+    public RosterRenderer(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Escribe la ficha de cada curso seguida de una línea en blanco.
+     *
+     * @param courses cursos a escribir
+     * @return este escritor
+     * @throws IOException si falla el destino
+     */
+    public RosterRenderer courses(Iterable<Course> courses) throws IOException {
+        for (Course course : courses) {
+            appendCourse(out, course).append(SEPARATOR);
+        }
+        return this;
+    }
+
+    /**
+     * Escribe la ficha de cada estudiante seguida de una línea en blanco.
+     *
+     * @param students estudiantes a escribir
+     * @return este escritor
+     * @throws IOException si falla el destino
+     */
+    public RosterRenderer students(Iterable<Student> students) throws IOException {
+        for (Student student : students) {
+            appendStudent(out, student).append(SEPARATOR);
+        }
+        return this;
+    }
+
+    /**
+     * Arma el listado de fichas de varios cursos.
+     *
+     * @param courses cursos a listar
+     * @return texto del listado
+     */
+    public static String renderCourses(Collection<Course> courses) {
+        StringBuilder text = new StringBuilder(courses.size() * ROW_SIZE);
+        try {
+            new RosterRenderer(text).courses(courses);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Arma el listado de fichas de varios estudiantes.
+     *
+     * @param students estudiantes a listar
+     * @return texto del listado
+     */
+    public static String renderStudents(Collection<Student> students) {
+        StringBuilder text = new StringBuilder(students.size() * ROW_SIZE);
+        try {
+            new RosterRenderer(text).students(students);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Arma la ficha de un curso.
+     *
+     * @param course curso a describir
+     * @return ficha del curso
+     */
+    public static String renderCourse(Course course) {
+        StringBuilder text = new StringBuilder(ROW_SIZE);
+        try {
+            appendCourse(text, course);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Arma la ficha de un estudiante.
+     *
+     * @param student estudiante a describir
+     * @return ficha del estudiante
+     */
+    public static String renderStudent(Student student) {
+        StringBuilder text = new StringBuilder(ROW_SIZE);
+        try {
+            appendStudent(text, student);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    private static Appendable appendCourse(Appendable out, Course course) throws IOException {
+        return out.append("Nombre del curso: ").append(course.getName())
+                .append("\nCapacidad: ").append(Integer.toString(course.getMaxCapacity()))
+                .append("\nCodigo: ").append(course.getCode()).append('\n');
+    }
+
+    private static Appendable appendStudent(Appendable out, Student student) throws IOException {
+        return out.append("    Nombre: ").append(student.getName())
+                .append("\n    Email: ").append(student.getEmail())
+                .append("\n    Codigo: ").append(student.getCode()).append('\n');
+    }
+}
@@ -0,0 +1,209 @@
+package com.devsenior.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mapa que entrega, además de la vista en vivo, fotos inmutables de su
+ * contenido en un instante dado.
+ *
+ * Cada escritura cuenta su inicio y su fin en dos contadores. Una foto se copia
+ * sin candados y solo se publica si ningún escritor estaba activo al empezar la
+ * copia ni empezó durante ella; si no, se vuelve a intentar. Así los lectores
+ * no detienen a los escritores y la foto siempre corresponde a un estado que
+ * existió. Si tras {@value #ATTEMPTS} intentos sigue habiendo escrituras, el
+ * lector marca que espera: las escrituras nuevas aguardan a que termine la copia
+ * y solo las que ya estaban en curso pueden hacerla repetir, de modo que la foto
+ * siempre se obtiene aunque las escrituras no paren. La foto se guarda junto con su versión y se reutiliza hasta la
+ * siguiente escritura, de modo que varias lecturas seguidas no vuelven a copiar
+ * y una escritura no paga la copia si nadie la lee.
+ *
+ * Las escrituras deben hacerse por este objeto y no por la vista en vivo, que es
+ * de solo lectura. Con un mapa de respaldo que no es concurrente el objeto solo
+ * debe usarse desde un hilo.
+ *
+ * @param <K> tipo de las claves
+ * @param <V> tipo de los valores
+ */
+public final class SnapshotMap<K, V> {
+
+    /** Intentos de copia con espera activa antes de ceder el procesador. */
+    private static final int SPINS = 16;
+
+    /** Intentos de copia sin detener a los escritores. */
+    private static final int ATTEMPTS = 64;
+
+    private final Map<K, V> live;
+    private final Map<K, V> view;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private volatile Published<K, V> published;
+    private final ReentrantLock holdOff = new ReentrantLock();
+    private volatile boolean readerWaiting;
+
+    /** Foto publicada y versión del mapa a la que corresponde. */
+    private record Published<K, V>(long version, Map<K, V> map) {
+    }
+
+    /**
+     * Crea el mapa sobre un mapa de respaldo vacío.
+     *
+     * @param live mapa donde se guardan los datos, por ejemplo un {@link java.util.concurrent.ConcurrentHashMap}
+     */
+    public SnapshotMap(Map<K, V> live) {
+        this.live = live;
+        this.view = Collections.unmodifiableMap(live);
+    }
+
+    public V get(Object key) {
+        return live.get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return live.containsKey(key);
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    public boolean isEmpty() {
+        return live.isEmpty();
+    }
+
+    /**
+     * Agrega o reemplaza un valor.
+     *
+     * @return el valor anterior, o {@code null}
+     */
+    public V put(K key, V value) {
+        enterWrite();
+        try {
+            return live.put(key, value);
+        } finally {
+            finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Agrega un valor si la clave no existe.
+     *
+     * @return el valor existente, o {@code null} si se agregó
+     */
+    public V putIfAbsent(K key, V value) {
+        enterWrite();
+        try {
+            return live.putIfAbsent(key, value);
+        } finally {
+            finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Quita una clave.
+     *
+     * @return el valor quitado, o {@code null}
+     */
+    public V remove(Object key) {
+        enterWrite();
+        try {
+            return live.remove(key);
+        } finally {
+            finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Retorna la vista en vivo de solo lectura. Con un mapa concurrente puede
+     * recorrerse mientras otros escriben, pero no es una foto de un instante.
+     *
+     * @return vista de solo lectura
+     */
+    public Map<K, V> view() {
+        return view;
+    }
+
+    /**
+     * Retorna la cantidad de escrituras terminadas; cambia con cada escritura.
+     *
+     * @return versión del contenido
+     */
+    public long version() {
+        return finished.get();
+    }
+
+    /**
+     * Retorna una foto inmutable del contenido en un instante. Primero se intenta
+     * sin candados y, si las escrituras no lo permiten, deteniendo las nuevas.
+     *
+     * @return mapa inmutable, el mismo objeto mientras no haya escrituras
+     */
+    public Map<K, V> snapshot() {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            Map<K, V> copy = tryCopy();
+            if (copy != null) {
+                return copy;
+            }
+            backOff(attempt);
+        }
+        holdOff.lock();
+        try {
+            readerWaiting = true;
+            for (int attempt = 0;; attempt++) {
+                Map<K, V> copy = tryCopy();
+                if (copy != null) {
+                    return copy;
+                }
+                backOff(attempt);
+            }
+        } finally {
+            readerWaiting = false;
+            holdOff.unlock();
+        }
+    }
+
+    /**
+     * Espera a que termine la copia de un lector que se quedó sin intentos y
+     * cuenta el inicio de la escritura.
+     */
+    private void enterWrite() {
+        if (readerWaiting) {
+            holdOff.lock();
+            holdOff.unlock();
+        }
+        started.incrementAndGet();
+    }
+
+    /**
+     * Copia el contenido si ningún escritor estuvo activo durante la copia.
+     *
+     * @return la foto, o {@code null} si hay que volver a intentar
+     */
+    private Map<K, V> tryCopy() {
+        long version = finished.get();
+        if (started.get() != version) {
+            return null;
+        }
+        Published<K, V> current = published;
+        if (current != null && current.version() == version) {
+            return current.map();
+        }
+        Map<K, V> copy = Collections.unmodifiableMap(new HashMap<>(live));
+        if (started.get() != version) {
+            return null;
+        }
+        published = new Published<>(version, copy);
+        return copy;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
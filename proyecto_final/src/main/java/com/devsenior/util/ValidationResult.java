@@ -0,0 +1,35 @@
+package com.devsenior.util;
+
+/**
+ * Resultado de una validación de {@link Validator}.
+ * Indica si el dato es válido o la razón por la que fue rechazado.
+ */
+public enum ValidationResult {
+
+    /** El dato es válido. */
+    VALID,
+
+    /** El dato es {@code null} o está vacío. */
+    EMPTY,
+
+    /** El dato solo contiene espacios. */
+    BLANK,
+
+    /** El dato contiene caracteres no permitidos. */
+    INVALID_CHARACTERS,
+
+    /** El dato no tiene el formato esperado. */
+    INVALID_FORMAT,
+
+    /** El número es demasiado grande para representarse. */
+    OUT_OF_RANGE;
+
+    /**
+     * Verifica si el resultado corresponde a un dato válido.
+     *
+     * @return {@code true} si el resultado es {@link #VALID}
+     */
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -1,16 +1,24 @@
 package com.devsenior.util;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
 /**
  * Clase de utilidades para validaciones comunes en el sistema.
  * Incluye validación de nombres, correos electrónicos,
  * capacidades numéricas y la generación de identificadores.
  *
+ * Los nombres y las capacidades se revisan con un solo recorrido del texto y el
+ * correo con un patrón precompilado, sin compilar expresiones regulares en cada
+ * llamada. Los métodos {@code check*} retornan un {@link ValidationResult} con la
+ * razón del rechazo y {@link #parseCapacity(String)} valida y convierte a la vez.
+ *
  * Esta clase es {@code final} y no puede instanciarse.
  */
 public final class Validator {
 
+    private static final Pattern EMAIL = Pattern.compile("[a-zA-Z0-9]*\\@[a-zA-Z]*(\\.[a-zA-Z]*)?(.co||.com)?");
+
     /**
      * Constructor privado para evitar instanciación.
      */
@@ -25,7 +33,30 @@ public final class Validator {
      * @return {@code true} si el nombre es válido, de lo contrario {@code false}
      */
     public static Boolean validateName(String name) {
-        return (name.matches("[a-zA-Z\\s]*") && name.length() > 0 && !name.matches("\\s*"));
+        return checkName(name).isValid();
+    }
+
+    /**
+     * Revisa un nombre con las mismas reglas de {@link #validateName(String)}
+     * e indica la razón si no es válido.
+     *
+     * @param name nombre a revisar
+     * @return {@link ValidationResult#VALID}, {@code EMPTY}, {@code BLANK} o {@code INVALID_CHARACTERS}
+     */
+    public static ValidationResult checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            return ValidationResult.EMPTY;
+        }
+        boolean hasLetter = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                hasLetter = true;
+            } else if (!isSpace(c)) {
+                return ValidationResult.INVALID_CHARACTERS;
+            }
+        }
+        return hasLetter ? ValidationResult.VALID : ValidationResult.BLANK;
     }
 
     /**
@@ -37,7 +68,21 @@ public final class Validator {
      * @return {@code true} si el correo es válido, de lo contrario {@code false}
      */
     public static Boolean validateEmail(String email) {
-        return (email.matches("[a-zA-Z0-9]*\\@[a-zA-Z]*(\\.[a-zA-Z]*)?(.co||.com)?") && email.length() > 0 && !email.matches("\\s*"));
+        return checkEmail(email).isValid();
+    }
+
+    /**
+     * Revisa un correo con las mismas reglas de {@link #validateEmail(String)}
+     * e indica la razón si no es válido.
+     *
+     * @param email correo a revisar
+     * @return {@link ValidationResult#VALID}, {@code EMPTY} o {@code INVALID_FORMAT}
+     */
+    public static ValidationResult checkEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return ValidationResult.EMPTY;
+        }
+        return EMAIL.matcher(email).matches() ? ValidationResult.VALID : ValidationResult.INVALID_FORMAT;
     }
 
     /**
@@ -48,16 +93,72 @@ public final class Validator {
      * @return {@code true} si la capacidad es un número válido, de lo contrario {@code false}
      */
     public static Boolean validateCapacity(String capacity) {
-        return (capacity.matches("[0-9]*"));
+        for (int i = 0; i < capacity.length(); i++) {
+            char c = capacity.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Revisa una capacidad e indica la razón si no es válida. A diferencia de
+     * {@link #validateCapacity(String)}, rechaza el texto vacío y los números
+     * que no caben en un {@code int}.
+     *
+     * @param capacity cadena a revisar
+     * @return {@link ValidationResult#VALID}, {@code EMPTY}, {@code INVALID_CHARACTERS} u {@code OUT_OF_RANGE}
+     */
+    public static ValidationResult checkCapacity(String capacity) {
+        if (capacity == null || capacity.isEmpty()) {
+            return ValidationResult.EMPTY;
+        }
+        long value = 0;
+        for (int i = 0; i < capacity.length(); i++) {
+            char c = capacity.charAt(i);
+            if (c < '0' || c > '9') {
+                return ValidationResult.INVALID_CHARACTERS;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                return ValidationResult.OUT_OF_RANGE;
+            }
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Valida y convierte una capacidad en un solo recorrido.
+     *
+     * @param capacity cadena a convertir
+     * @return la capacidad, o {@code -1} si {@link #checkCapacity(String)} no la acepta
+     */
+    public static int parseCapacity(String capacity) {
+        if (!checkCapacity(capacity).isValid()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < capacity.length(); i++) {
+            value = value * 10 + (capacity.charAt(i) - '0');
+        }
+        return value;
     }
 
     /**
      * Genera un identificador aleatorio de 6 dígitos.
+     * No garantiza unicidad; los servicios asignan sus códigos con {@link IdAllocator}.
      *
-     * @return identificador único como cadena
+     * @return identificador aleatorio como cadena
      */
     public static String createId() {
-        Random random = new Random();
-        return String.valueOf(random.nextInt(100000, 1000000));
+        return String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
+    }
+
+    /**
+     * Verifica si un carácter es un espacio según la clase {@code \s} de las expresiones regulares.
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 }
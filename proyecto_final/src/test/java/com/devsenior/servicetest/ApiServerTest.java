@@ -0,0 +1,107 @@
+package com.devsenior.servicetest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.api.ApiServer;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+public class ApiServerTest {
+
+    private static final Pattern CODE = Pattern.compile("\"code\":\"(\\d+)\"");
+
+    private CourseService courses;
+    private ApiServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        courses = new CourseService(true);
+        server = new ApiServer(0, courses, new StudentService(true));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testCreateSearchAndEnroll() throws Exception {
+        HttpResponse<String> created = send("POST", "/courses", "{\"name\":\"Java\",\"capacity\":\"1\"}");
+        assertEquals(201, created.statusCode());
+        String course = code(created.body());
+        String ana = code(send("POST", "/students", "{\"name\":\"Ana Torres\",\"email\":\"ana@gmail.com\"}").body());
+        String luis = code(send("POST", "/students", "{\"name\":\"Luis Gil\",\"email\":\"luis@gmail.com\"}").body());
+
+        assertEquals(201, send("POST", "/courses/" + course + "/students", "{\"studentCode\":\"" + ana + "\"}").statusCode());
+        assertEquals(409, send("POST", "/courses/" + course + "/students", "{\"studentCode\":\"" + luis + "\"}").statusCode());
+        assertTrue(send("GET", "/courses/" + course + "/students", null).body().contains(ana));
+        assertTrue(send("GET", "/courses/" + course + "/roster", null).body().contains("Nombre: Ana Torres\n"));
+        String page = send("GET", "/students?sort=name&limit=1", null).body();
+        assertTrue(page.contains("Ana Torres") && !page.contains("\"nextCursor\":null"));
+        assertTrue(send("GET", "/students?email=ana%40gmail.com", null).body().contains("\"courses\":1"));
+        assertEquals(400, send("POST", "/courses", "{\"name\":\"Java 2\",\"capacity\":\"3\"}").statusCode());
+        assertEquals(404, send("GET", "/courses/999999", null).statusCode());
+        assertEquals(400, send("POST", "/students", "{\"name\":").statusCode());
+    }
+
+    @Test
+    void testNameInUseIsBadRequestAndLargeBodyIsRejected() throws Exception {
+        assertEquals(201, send("POST", "/courses", "{\"name\":\"Java\",\"capacity\":\"1\"}").statusCode());
+        assertEquals(400, send("POST", "/courses", "{\"name\":\"Java\",\"capacity\":\"2\"}").statusCode());
+        String large = "{\"name\":\"" + "a".repeat(1 << 20) + "\"}";
+        assertEquals(413, send("POST", "/students", large).statusCode());
+    }
+
+    @Test
+    void testConcurrentClientsNeverOverfillCourse() throws Exception {
+        String course = code(send("POST", "/courses", "{\"name\":\"Redes\",\"capacity\":\"10\"}").body());
+        List<String> students = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String name = "Estudiante " + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+            students.add(code(send("POST", "/students",
+                    "{\"name\":\"" + name + "\",\"email\":\"e" + i + "@gmail.com\"}").body()));
+        }
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (String student : students) {
+            responses.add(client.sendAsync(request("POST", "/courses/" + course + "/students",
+                    "{\"studentCode\":\"" + student + "\"}"), HttpResponse.BodyHandlers.ofString()));
+        }
+        long enrolled = responses.stream().filter(response -> response.join().statusCode() == 201).count();
+        assertEquals(10, enrolled);
+        assertEquals(10, courses.findCourseByCode(course).getStudents().size());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String code(String json) {
+        Matcher matcher = CODE.matcher(json);
+        assertTrue(matcher.find(), json);
+        return matcher.group(1);
+    }
+}
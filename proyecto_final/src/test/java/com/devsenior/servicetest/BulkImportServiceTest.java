@@ -0,0 +1,101 @@
+package com.devsenior.servicetest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.devsenior.model.ImportReport;
+import com.devsenior.model.Student;
+import com.devsenior.service.BulkImportService;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.RegistryListener;
+import com.devsenior.service.StudentService;
+
+public class BulkImportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testImportStudentsReportsRowErrors() throws Exception {
+        Path csv = dir.resolve("estudiantes.csv");
+        Files.write(csv, List.of(
+                "nombre,email",
+                "Ana Torres,ana@gmail.com",
+                "Luis 2,luis@gmail.com",
+                "Marta,correo-malo",
+                "\"Ana Torres\",otra@gmail.com",
+                "",
+                "Pedro Gil,pedro@gmail.com,extra",
+                "Rosa Diaz,rosa@gmail.com"));
+        StudentService students = new StudentService();
+
+        ImportReport report = new BulkImportService(null, students).importStudents(csv);
+
+        assertEquals(6, report.getProcessed());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getErrors().get(0).line());
+        assertEquals(4, report.getErrors().get(1).line());
+        assertEquals("Nombre ya en uso", report.getErrors().get(2).message());
+        assertEquals(7, report.getErrors().get(3).line());
+        assertEquals("Rosa Diaz", students.findStudentByEmail("rosa@gmail.com").getName());
+    }
+
+    @Test
+    void testImportCoursesInParallelKeepsFileOrder() throws Exception {
+        Path csv = dir.resolve("cursos.csv");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add("Curso " + (char) ('a' + i % 26) + (char) ('a' + i / 26) + "," + (i % 7 == 0 ? "x" : "30"));
+        }
+        Files.write(csv, lines);
+        CourseService courses = new CourseService(true);
+
+        ImportReport report = new BulkImportService(courses, null, 64, 4).importCourses(csv);
+
+        assertEquals(500, report.getProcessed());
+        assertEquals(428, report.getImported());
+        long previous = 0;
+        for (ImportReport.RowError error : report.getErrors()) {
+            assertEquals(0, (error.line() - 1) % 7);
+            assertEquals(true, error.line() > previous);
+            previous = error.line();
+        }
+    }
+
+    @Test
+    void testImportCommitsOncePerBatch() throws Exception {
+        Path csv = dir.resolve("estudiantes.csv");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            lines.add("Estudiante " + (char) ('a' + i % 26) + (char) ('a' + i / 26) + ",e" + i + "@gmail.com");
+        }
+        Files.write(csv, lines);
+        StudentService students = new StudentService();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger commits = new AtomicInteger();
+        students.addListener(new RegistryListener() {
+            @Override
+            public void studentAdded(Student student) {
+                added.incrementAndGet();
+            }
+
+            @Override
+            public void commit() {
+                commits.incrementAndGet();
+            }
+        });
+
+        ImportReport report = new BulkImportService(null, students, 100, 1).importStudents(csv);
+
+        assertEquals(250, report.getImported());
+        assertEquals(250, added.get());
+        assertEquals(3, commits.get());
+    }
+}
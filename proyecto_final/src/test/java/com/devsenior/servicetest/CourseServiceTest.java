@@ -1,21 +1,48 @@
 package com.devsenior.servicetest;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import com.devsenior.exception.ConflictException;
 import com.devsenior.exception.CourseFullException;
 import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
+import com.devsenior.metrics.EnrollmentEvent;
+import com.devsenior.metrics.LookupEvent;
+import com.devsenior.metrics.OperationMetrics;
 import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentRequest;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
 import com.devsenior.model.Student;
 import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
 
 public class CourseServiceTest {
 
@@ -37,7 +64,7 @@ public class CourseServiceTest {
 
         service.addCourse(course);
 
-        Exception ex = assertThrows(Exception.class, () -> {
+        Exception ex = assertThrows(ConflictException.class, () -> {
             service.addCourse(course);
         });
         assertEquals("El curso ya se encuentra registrado", ex.getMessage());
@@ -70,7 +97,21 @@ public class CourseServiceTest {
         InvalidDataException ex = assertThrows(InvalidDataException.class, () -> {
             service.createCourse("Algoritmos", "capacidad-no-valida");
         });
-        assertEquals("capacidad no valida", ex.getMessage());
+        assertEquals("Capacidad no valida", ex.getMessage());
+    }
+
+    @Test
+    void testCreateCourseEmptyOrOverflowCapacity() {
+        CourseService service = new CourseService();
+
+        InvalidDataException empty = assertThrows(InvalidDataException.class, () -> {
+            service.createCourse("Algoritmos", "");
+        });
+        assertEquals("Capacidad no valida", empty.getMessage());
+        InvalidDataException overflow = assertThrows(InvalidDataException.class, () -> {
+            service.createCourse("Algoritmos", "99999999999");
+        });
+        assertEquals("Capacidad no valida", overflow.getMessage());
     }
 
     @Test
@@ -159,7 +200,7 @@ public class CourseServiceTest {
         service.addCourse(course);
         service.enrrolStudent(s, course);
 
-        Exception ex = assertThrows(Exception.class, () -> {
+        Exception ex = assertThrows(ConflictException.class, () -> {
             service.enrrolStudent(s, course);
         });
         assertEquals("El estudiante ya esta inscrito en este curso ", ex.getMessage());
@@ -232,6 +273,19 @@ public class CourseServiceTest {
         assertEquals("Literatura Avanzada", course.getName());
     }
 
+    @Test
+    void testSetNewNameUpdatesNameIndex() throws Exception {
+        CourseService service = new CourseService();
+        Course course = service.createCourse("Geometria", "20");
+
+        service.setNewName(course, "Geometria Analitica");
+
+        assertEquals(course, service.findCourseByName("Geometria Analitica"));
+        assertTrue(service.isNameAviable("Geometria"));
+        assertFalse(service.isNameAviable("Geometria Analitica"));
+        assertThrows(CourseNotFoundException.class, () -> service.findCourseByName("Geometria"));
+    }
+
     @Test
     void testSetNewCapacityInvalidFormat() throws Exception {
         CourseService service = new CourseService();
@@ -242,7 +296,7 @@ public class CourseServiceTest {
         InvalidDataException ex = assertThrows(InvalidDataException.class, () -> {
             service.setNewCapacity(course, "no-numerico");
         });
-        assertEquals("capacidad no valida", ex.getMessage());
+        assertEquals("Capacidad no valida", ex.getMessage());
     }
 
     @Test
@@ -306,4 +360,431 @@ public class CourseServiceTest {
         assertTrue(students.containsKey(s.getCode()));
     }
 
+    @Test
+    void testListStudentsByCoursePagedByCode() throws Exception {
+        CourseService service = new CourseService();
+        Course course = new Course("555555", "Teatro", 5);
+        service.addCourse(course);
+        for (String code : new String[] { "300000", "100000", "200000" }) {
+            service.enrrolStudent(new Student(code, "Estudiante" + code, "e" + code + "@example.com"), course);
+        }
+
+        Page<Student> first = service.listStudentsByCourse(course, SortOrder.CODE, null, 2);
+        assertEquals("100000", first.items().get(0).getCode());
+        assertEquals("200000", first.items().get(1).getCode());
+        Page<Student> second = service.listStudentsByCourse(course, SortOrder.CODE, first.nextCursor(), 2);
+        assertEquals(1, second.items().size());
+        assertEquals("300000", second.items().get(0).getCode());
+        assertNull(second.nextCursor());
+
+        assertThrows(UnsupportedOperationException.class, () -> service.listStudentsByCourse(course).clear());
+        assertThrows(CourseNotFoundException.class,
+                () -> service.listStudentsByCourse(new Course("999999", "Otro", 1), SortOrder.CODE, null, 2));
+    }
+
+    @Test
+    void testListCoursesPagedByNameFollowsRenames() throws Exception {
+        CourseService service = new CourseService(true);
+        Course redes = service.createCourse("Redes", "5");
+        service.createCourse("Bases", "5");
+        service.createCourse("Calculo", "5");
+
+        service.setNewName(redes, "Algebra");
+        Page<Course> first = service.listCourses(SortOrder.NAME, null, 2);
+        assertEquals("Algebra", first.items().get(0).getName());
+        assertEquals("Bases", first.items().get(1).getName());
+        Page<Course> second = service.listCourses(SortOrder.NAME, first.nextCursor(), 2);
+        assertEquals(1, second.items().size());
+        assertEquals("Calculo", second.items().get(0).getName());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testWaitlistPromotesInArrivalOrder() throws Exception {
+        CourseService service = new CourseService();
+        StudentService students = new StudentService();
+        service.setWaitlistLimit(2);
+        Course course = service.createCourse("Robotica", "1");
+        Student ana = students.createStudent("Ana", "ana@example.com");
+        Student luis = students.createStudent("Luis", "luis@example.com");
+        Student eva = students.createStudent("Eva", "eva@example.com");
+        Student tom = students.createStudent("Tom", "tom@example.com");
+
+        assertEquals(EnrollmentStatus.ENROLLED, service.enrollOrWaitlist(ana, course));
+        assertEquals(EnrollmentStatus.WAITLISTED, service.enrollOrWaitlist(luis, course));
+        assertEquals(EnrollmentStatus.WAITLISTED, service.enrollOrWaitlist(eva, course));
+        assertEquals(EnrollmentStatus.WAITLIST_FULL, service.enrollOrWaitlist(tom, course));
+        assertEquals(EnrollmentStatus.ALREADY_ENROLLED, service.enrollOrWaitlist(ana, course));
+        assertEquals(2, service.getWaitlistPosition(course, eva));
+        assertEquals(0, service.getWaitlistPosition(course, tom));
+
+        service.removeStudentFromCourse(course, ana);
+        assertTrue(course.hasStudent(luis));
+        assertEquals(1, service.getWaitlistPosition(course, eva));
+
+        students.removeCourseFromStudent(luis, course);
+        assertTrue(course.hasStudent(eva));
+        assertEquals(1, course.getReservedSeats());
+
+        assertEquals(EnrollmentStatus.WAITLISTED, service.enrollOrWaitlist(tom, course));
+        assertEquals(EnrollmentStatus.WAITLISTED, service.enrollOrWaitlist(ana, course));
+        service.leaveWaitlist(course, tom);
+        assertThrows(StudentNotFoundException.class, () -> service.leaveWaitlist(course, tom));
+        service.setNewCapacity(course, "3");
+        assertTrue(course.hasStudent(ana));
+        assertFalse(course.hasStudent(tom));
+        assertEquals(2, course.getReservedSeats());
+
+        assertEquals(3, service.getMetrics().operation("getWaitlistPosition").getCalls());
+        OperationMetrics leave = service.getMetrics().operation("leaveWaitlist");
+        assertEquals(2, leave.getCalls());
+        assertEquals(Map.of("StudentNotFoundException", 1L), leave.getFailuresByType());
+        assertEquals(1, service.getMetrics().operation("setWaitlistLimit").getSuccesses());
+    }
+
+    @Test
+    void testFreedSeatGoesToWaitlistBeforeDirectEnrollments() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int round = 0; round < 200; round++) {
+                CourseService service = new CourseService(true);
+                StudentService students = new StudentService(true);
+                Course course = service.createCourse("Redes", "1");
+                Student first = new Student("100001", "Ana", "ana@example.com");
+                Student waiting = new Student("100002", "Luis", "luis@example.com");
+                assertEquals(EnrollmentStatus.ENROLLED, service.tryEnroll(first, course));
+                assertEquals(EnrollmentStatus.WAITLISTED, service.enrollOrWaitlist(waiting, course));
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<EnrollmentStatus>> direct = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    Student student = new Student(String.valueOf(100010 + i), "Estudiante", "e" + i + "@example.com");
+                    students.addStudent(student);
+                    direct.add(executor.submit(() -> {
+                        start.await();
+                        EnrollmentStatus single = service.tryEnroll(student, course);
+                        EnrollmentStatus batch = service.enrollBatch(
+                                List.of(new EnrollmentRequest(student.getCode(), course.getCode())),
+                                students)[0];
+                        return single == EnrollmentStatus.ENROLLED ? single : batch;
+                    }));
+                }
+                Future<?> removal = executor.submit(() -> {
+                    start.await();
+                    service.removeStudentFromCourse(course, first);
+                    return null;
+                });
+                start.countDown();
+                removal.get();
+                for (Future<EnrollmentStatus> result : direct) {
+                    assertEquals(EnrollmentStatus.COURSE_FULL, result.get());
+                }
+                assertTrue(course.hasStudent(waiting));
+                assertEquals(0, course.getWaitlistSize());
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentWaitlistNeverLosesSeats() throws Exception {
+        CourseService service = new CourseService(true);
+        Course course = service.createCourse("Redes", "10");
+        Student[] students = new Student[60];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = new Student(String.valueOf(200000 + i), "Estudiante", "e" + i + "@example.com");
+        }
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger waiting = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Student student : students) {
+                executor.submit(() -> {
+                    EnrollmentStatus status = service.enrollOrWaitlist(student, course);
+                    (status == EnrollmentStatus.ENROLLED ? enrolled : waiting).incrementAndGet();
+                });
+            }
+        }
+        assertEquals(10, enrolled.get());
+        assertEquals(50, waiting.get());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Student student : List.copyOf(course.getStudents().values())) {
+                executor.submit(() -> {
+                    service.removeStudentFromCourse(course, student);
+                    return null;
+                });
+            }
+        }
+        assertEquals(10, course.getStudents().size());
+        assertEquals(10, course.getReservedSeats());
+        assertEquals(40, course.getWaitlistSize());
+    }
+
+    @Test
+    void testConcurrentEnrollNeverExceedsCapacity() throws Exception {
+        CourseService service = new CourseService(true);
+        Course course = new Course("864213", "Robotica", 30);
+        service.addCourse(course);
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 500; i++) {
+            Student s = new Student(String.valueOf(100000 + i), "Estudiante", "e" + i + "@gmail.com");
+            pool.execute(() -> {
+                try {
+                    service.enrrolStudent(s, course);
+                } catch (CourseFullException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(30, course.getStudents().size());
+        assertEquals(470, rejected.get());
+    }
+
+    @Test
+    void testEnrollDuplicateReleasesSeat() throws Exception {
+        CourseService service = new CourseService();
+        Course course = new Course("482913", "Biologia", 2);
+        Student s = new Student("258147", "Sara", "sara@gmail.com");
+
+        service.addCourse(course);
+        service.enrrolStudent(s, course);
+        assertThrows(ConflictException.class, () -> service.enrrolStudent(s, course));
+
+        assertEquals(1, course.getReservedSeats());
+        service.removeStudentFromCourse(course, s);
+        assertEquals(0, course.getReservedSeats());
+    }
+
+    @Test
+    void testSnapshotsArePointInTimeAndReusedUntilNextWrite() throws Exception {
+        CourseService service = new CourseService(true);
+        Course course = service.createCourse("Historia", "3");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        service.enrrolStudent(ana, course);
+
+        Map<String, Student> before = service.listStudentsByCourse(course);
+        assertTrue(before == course.getStudentsSnapshot());
+        service.enrrolStudent(new Student("100002", "Luis", "luis@gmail.com"), course);
+
+        assertEquals(1, before.size());
+        assertEquals(2, course.getStudentsSnapshot().size());
+        assertThrows(UnsupportedOperationException.class, () -> before.put("100003", ana));
+        assertThrows(UnsupportedOperationException.class, () -> course.getStudents().remove(ana.getCode()));
+        assertTrue(service.listCourses() == service.listCourses());
+    }
+
+    @Test
+    void testConcurrentSnapshotsNeverSeePartialSwaps() throws Exception {
+        CourseService service = new CourseService(true);
+        Course course = service.createCourse("Sociales", "1");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        Student luis = new Student("100002", "Luis", "luis@gmail.com");
+        service.enrrolStudent(ana, course);
+        AtomicInteger overfull = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        for (int r = 0; r < 2; r++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    if (course.getStudentsSnapshot().size() > 1) {
+                        overfull.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.submit(() -> {
+            Student[] both = { ana, luis };
+            for (int i = 0; i < 5_000; i++) {
+                Student out = both[i & 1];
+                Student in = both[(i + 1) & 1];
+                service.removeStudentFromCourse(course, out);
+                service.enrrolStudent(in, course);
+            }
+            return null;
+        });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(0, overfull.get());
+        assertEquals(1, course.getStudentsSnapshot().size());
+    }
+
+    @Test
+    void testEnrollBatchGroupsByCourse() throws Exception {
+        CourseService service = new CourseService();
+        StudentService students = new StudentService();
+        Course small = service.createCourse("Etica", "2");
+        Course big = service.createCourse("Logica", "10");
+        Student a = students.createStudent("Ana", "ana@gmail.com");
+        Student b = students.createStudent("Beto", "beto@gmail.com");
+        Student c = students.createStudent("Carla", "carla@gmail.com");
+        service.enrrolStudent(a, big);
+
+        EnrollmentStatus[] results = service.enrollBatch(List.of(
+                new EnrollmentRequest(a.getCode(), small.getCode()),
+                new EnrollmentRequest(a.getCode(), big.getCode()),
+                new EnrollmentRequest(b.getCode(), small.getCode()),
+                new EnrollmentRequest("000000", small.getCode()),
+                new EnrollmentRequest(c.getCode(), small.getCode()),
+                new EnrollmentRequest(b.getCode(), "no-existe"),
+                new EnrollmentRequest(b.getCode(), small.getCode())), students);
+
+        assertEquals(List.of(EnrollmentStatus.ENROLLED, EnrollmentStatus.ALREADY_ENROLLED, EnrollmentStatus.ENROLLED,
+                EnrollmentStatus.STUDENT_NOT_FOUND, EnrollmentStatus.COURSE_FULL, EnrollmentStatus.COURSE_NOT_FOUND,
+                EnrollmentStatus.ALREADY_ENROLLED), List.of(results));
+        assertEquals(2, small.getReservedSeats());
+        assertTrue(b.isEnrolledIn(small));
+        assertFalse(c.isEnrolledIn(small));
+    }
+
+    @Test
+    void testTryEnrollReturnsOutcomesWithoutThrowing() throws Exception {
+        CourseService service = new CourseService();
+        Course course = service.createCourse("Quimica", "1");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        Student luis = new Student("100002", "Luis", "luis@gmail.com");
+
+        assertEquals(EnrollmentStatus.ENROLLED, service.tryEnroll(ana, course));
+        assertEquals(EnrollmentStatus.COURSE_FULL, service.tryEnroll(luis, course));
+        assertEquals(EnrollmentStatus.STUDENT_NOT_FOUND, service.tryEnroll(null, course));
+        assertEquals(EnrollmentStatus.COURSE_NOT_FOUND, service.tryEnroll(luis, new Course("999999", "Otra", 5)));
+        service.setNewCapacity(course, "3");
+        assertEquals(EnrollmentStatus.ALREADY_ENROLLED, service.tryEnroll(ana, course));
+        assertEquals(1, course.getReservedSeats());
+
+        assertTrue(service.tryFindCourseByCode(course.getCode()).isPresent());
+        assertTrue(service.tryFindCourseByName("Quimica").isPresent());
+        assertTrue(service.tryFindCourseByCode("999999").isEmpty());
+        assertTrue(service.tryFindCourseByCode(null).isEmpty());
+
+        OperationMetrics enroll = service.getMetrics().operation("tryEnroll");
+        assertEquals(5, enroll.getCalls());
+        assertEquals(1, enroll.getSuccesses());
+        assertEquals(Map.of("COURSE_FULL", 1L, "STUDENT_NOT_FOUND", 1L, "COURSE_NOT_FOUND", 1L, "ALREADY_ENROLLED", 1L),
+                enroll.getFailuresByType());
+        assertEquals(Map.of("COURSE_NOT_FOUND", 2L),
+                service.getMetrics().operation("tryFindCourseByCode").getFailuresByType());
+    }
+
+    @Test
+    void testSetQueriesFollowEnrollmentsAndRemovals() throws Exception {
+        CourseService service = new CourseService();
+        Course math = service.createCourse("Matematicas", "10");
+        Course art = service.createCourse("Arte", "10");
+        Course music = service.createCourse("Musica", "10");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        Student luis = new Student("100002", "Luis", "luis@gmail.com");
+        Student eva = new Student("XXXX", "Eva", "eva@gmail.com");
+        service.enrrolStudent(ana, math);
+        service.enrrolStudent(luis, math);
+        service.enrrolStudent(eva, math);
+        service.enrrolStudent(luis, art);
+        service.enrrolStudent(eva, art);
+        service.enrrolStudent(ana, music);
+
+        assertEquals(List.of(luis, eva), service.listStudentsInBoth(math, art));
+        assertEquals(2, service.countStudentsInBoth(math, art));
+        assertEquals(List.of(ana), service.listStudentsOnlyIn(math, art));
+        assertEquals(List.of(luis, eva), service.listStudentsInAny(List.of(art)));
+        assertEquals(3, service.countStudentsInAny(List.of(art, music)));
+
+        service.removeStudentFromCourse(art, luis);
+
+        assertEquals(List.of(eva), service.listStudentsInBoth(math, art));
+        assertEquals(List.of(ana, luis), service.listStudentsOnlyIn(math, art));
+        assertEquals(0, service.countStudentsInBoth(art, music));
+        assertThrows(CourseNotFoundException.class,
+                () -> service.countStudentsInBoth(math, new Course("999999", "Otra", 5)));
+    }
+
+    @Test
+    void testEnrrolStudentKeepsExceptionsOverTryEnroll() throws Exception {
+        CourseService service = new CourseService();
+        Course course = service.createCourse("Fisica", "1");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        service.enrrolStudent(ana, course);
+
+        Exception full = assertThrows(CourseFullException.class,
+                () -> service.enrrolStudent(new Student("100002", "Luis", "luis@gmail.com"), course));
+        assertEquals("El curso ya esta en su maxima capacidad ", full.getMessage());
+        service.setNewCapacity(course, "2");
+        Exception again = assertThrows(ConflictException.class, () -> service.enrrolStudent(ana, course));
+        assertEquals("El estudiante ya esta inscrito en este curso ", again.getMessage());
+        assertEquals(1, course.getReservedSeats());
+    }
+
+    @Test
+    void testMetricsCountFailuresByTypeAndPublishOverJmx() throws Exception {
+        CourseService service = new CourseService();
+        Course course = service.createCourse("Metricas", "1");
+        service.enrrolStudent(new Student("100001", "Ana", "ana@gmail.com"), course);
+        assertThrows(CourseFullException.class,
+                () -> service.enrrolStudent(new Student("100002", "Luis", "luis@gmail.com"), course));
+        assertThrows(CourseNotFoundException.class, () -> service.findCourseByCode("999999"));
+
+        OperationMetrics enroll = service.getMetrics().operation("enrrolStudent");
+        assertEquals(2, enroll.getCalls());
+        assertEquals(1, enroll.getSuccesses());
+        assertEquals(Map.of("CourseFullException", 1L), enroll.getFailuresByType());
+        assertTrue(enroll.getP99Micros() >= enroll.getP50Micros());
+
+        service.getMetrics().registerMBeans();
+        try {
+            ObjectName name = new ObjectName("com.devsenior:type=ServiceMetrics,service=CourseService,operation=findCourseByCode");
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Failures"));
+        } finally {
+            service.getMetrics().unregisterMBeans();
+        }
+    }
+
+    @Test
+    void testNestedOperationsAreMeteredOnce() throws Exception {
+        CourseService service = new CourseService();
+        StudentService students = new StudentService();
+        Course course = service.createCourse("Medicion", "2");
+        Student ana = students.createStudent("Ana", "ana@gmail.com");
+        service.enrrolStudent(ana, course);
+        service.removeStudentFromCourse(course, ana);
+
+        assertEquals(1, service.getMetrics().operation("createCourse").getCalls());
+        assertEquals(0, service.getMetrics().operation("addCourse").getCalls());
+        assertEquals(1, students.getMetrics().operation("createStudent").getCalls());
+        assertEquals(0, students.getMetrics().operation("addStudent").getCalls());
+        assertEquals(1, service.getMetrics().operation("enrrolStudent").getCalls());
+        assertEquals(0, service.getMetrics().operation("tryEnroll").getCalls());
+        assertEquals(1, service.getMetrics().operation("removeStudentFromCourse").getCalls());
+    }
+
+    @Test
+    void testJfrEventsCarryCodesAndOutcome() throws Exception {
+        CourseService service = new CourseService();
+        Course course = service.createCourse("Eventos", "1");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        Student luis = new Student("100002", "Luis", "luis@gmail.com");
+        Path file = Files.createTempFile("servicios", ".jfr");
+        try (Recording recording = new Recording()) {
+            assertNull(EnrollmentEvent.start());
+            recording.enable("com.devsenior.Enrollment");
+            recording.start();
+            assertNull(LookupEvent.start());
+            service.enrrolStudent(ana, course);
+            assertThrows(CourseFullException.class, () -> service.enrrolStudent(luis, course));
+            service.findCourseByCode(course.getCode());
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(2, events.size());
+            assertEquals(course.getCode(), events.get(0).getString("courseCode"));
+            assertEquals(ana.getCode(), events.get(0).getString("studentCode"));
+            assertEquals("OK", events.get(0).getString("outcome"));
+            assertEquals("CourseFullException", events.get(1).getString("outcome"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package com.devsenior.servicetest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.events.EventBus;
+import com.devsenior.events.RegistryEvent;
+import com.devsenior.exception.EventOverflowException;
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+public class EventBusTest {
+
+    /**
+     * Suscriptor de prueba que guarda los lotes recibidos y pide {@code initial} lotes al suscribirse.
+     */
+    private static class Collector implements Flow.Subscriber<List<RegistryEvent>> {
+        final List<List<RegistryEvent>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final long initial;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Collector(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initial > 0) {
+                subscription.request(initial);
+            }
+        }
+
+        @Override
+        public void onNext(List<RegistryEvent> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        List<RegistryEvent> events() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    @Test
+    void testPublishesTypedEventsInOrder() throws Exception {
+        CourseService courses = new CourseService(true);
+        StudentService students = new StudentService(true);
+        EventBus bus = EventBus.attach(courses, students);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        bus.subscribe(collector);
+        awaitSubscribed(collector);
+
+        Course course = courses.createCourse("Historia", "2");
+        Student ana = new Student("100001", "Ana", "ana@gmail.com");
+        students.addStudent(ana);
+        courses.enrrolStudent(ana, course);
+        courses.setNewName(course, "Historia Antigua");
+        courses.setNewCapacity(course, "5");
+        courses.removeStudentFromCourse(course, ana);
+        bus.close();
+
+        assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+        String code = course.getCode();
+        assertEquals(List.of(
+                new RegistryEvent.CourseAdded(0, code, "Historia", 2),
+                new RegistryEvent.StudentAdded(1, "100001", "Ana", "ana@gmail.com"),
+                new RegistryEvent.StudentEnrolled(2, code, "100001"),
+                new RegistryEvent.CourseRenamed(3, code, "Historia Antigua"),
+                new RegistryEvent.CapacityChanged(4, code, 5),
+                new RegistryEvent.StudentRemoved(5, code, "100001")), collector.events());
+        assertEquals(0, bus.getDropped());
+    }
+
+    @Test
+    void testDeliversOnlyRequestedBatches() throws Exception {
+        CourseService courses = new CourseService(true);
+        EventBus bus = EventBus.attach(courses, new StudentService(true), 64, 4);
+        Collector collector = new Collector(1);
+        bus.subscribe(collector);
+        awaitSubscribed(collector);
+
+        Course course = courses.createCourse("Arte", "20");
+        for (int i = 0; i < 9; i++) {
+            courses.enrrolStudent(new Student(String.valueOf(100000 + i), "Nombre", "e@gmail.com"), course);
+        }
+        for (int i = 0; i < 500 && collector.batches.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(1, collector.batches.size());
+
+        collector.subscription.request(Long.MAX_VALUE);
+        awaitEvents(collector, 10);
+        assertTrue(collector.batches.stream().allMatch(batch -> batch.size() <= 4));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                collector.events().stream().map(RegistryEvent::sequence).toList());
+        bus.close();
+        assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowSubscriberNeverStallsEnrollments() throws Exception {
+        CourseService courses = new CourseService(true);
+        EventBus bus = EventBus.attach(courses, new StudentService(true), 8, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Collector slow = new Collector(Long.MAX_VALUE) {
+            @Override
+            public void onNext(List<RegistryEvent> batch) {
+                super.onNext(batch);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        bus.subscribe(slow);
+        awaitSubscribed(slow);
+
+        Course course = courses.createCourse("Musica", "200");
+        awaitEvents(slow, 1);
+        for (int i = 0; i < 100; i++) {
+            courses.enrrolStudent(new Student(String.valueOf(100000 + i), "Nombre", "e@gmail.com"), course);
+        }
+        assertEquals(100, course.getStudents().size());
+        release.countDown();
+        bus.close();
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        List<RegistryEvent> events = slow.events();
+        assertTrue(bus.getDropped() > 0);
+        assertEquals(101, events.size() + bus.getDropped());
+        assertEquals(100, events.get(events.size() - 1).sequence());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).sequence() > events.get(i - 1).sequence());
+        }
+        assertFalse(events.isEmpty());
+    }
+
+    @Test
+    void testFailPolicyEndsOverrunSubscriptionWithError() throws Exception {
+        CourseService courses = new CourseService(true);
+        EventBus bus = EventBus.attach(courses, new StudentService(true), 8, 2, EventBus.OverflowPolicy.FAIL);
+        Collector collector = new Collector(0);
+        bus.subscribe(collector);
+        awaitSubscribed(collector);
+
+        Course course = courses.createCourse("Teatro", "50");
+        for (int i = 0; i < 20; i++) {
+            courses.enrrolStudent(new Student(String.valueOf(100000 + i), "Nombre", "e@gmail.com"), course);
+        }
+        collector.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(collector.completed.await(5, TimeUnit.SECONDS));
+        EventOverflowException overflow = assertInstanceOf(EventOverflowException.class, collector.error);
+        assertEquals(0, overflow.getFirstLost());
+        assertEquals(13, overflow.getLost());
+        assertTrue(collector.events().isEmpty());
+        bus.close();
+    }
+
+    private static void awaitSubscribed(Collector collector) throws InterruptedException {
+        for (int i = 0; i < 500 && collector.subscription == null; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitEvents(Collector collector, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && collector.events().size() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, collector.events().size());
+    }
+}
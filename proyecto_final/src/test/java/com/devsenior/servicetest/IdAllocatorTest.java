@@ -0,0 +1,89 @@
+package com.devsenior.servicetest;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.util.IdAllocator;
+
+public class IdAllocatorTest {
+
+    @Test
+    void testHandsOutEveryCodeOnceThenNull() {
+        IdAllocator allocator = new IdAllocator();
+        BitSet seen = new BitSet(IdAllocator.RANGE);
+        for (int i = 0; i < IdAllocator.RANGE; i++) {
+            String code = allocator.nextId();
+            assertNotNull(code);
+            assertEquals(6, code.length());
+            int index = Integer.parseInt(code) - IdAllocator.MIN_ID;
+            assertTrue(index >= 0 && index < IdAllocator.RANGE, code);
+            assertFalse(seen.get(index), "Codigo repetido: " + code);
+            seen.set(index);
+        }
+        assertEquals(IdAllocator.RANGE, seen.cardinality());
+        assertEquals(IdAllocator.RANGE, allocator.usedCount());
+        assertNull(allocator.nextId());
+        assertNull(allocator.nextId());
+    }
+
+    @Test
+    void testMarkedCodesAreNeverHandedOut() {
+        IdAllocator allocator = new IdAllocator();
+        assertTrue(allocator.markUsed("100000"));
+        assertTrue(allocator.markUsed("555555"));
+        assertTrue(allocator.markUsed("999999"));
+        assertFalse(allocator.markUsed("555555"));
+        assertEquals(3, allocator.usedCount());
+
+        String first = allocator.nextId();
+        assertFalse(allocator.markUsed(first));
+        assertEquals(4, allocator.usedCount());
+
+        int handedOut = 1;
+        String code;
+        while ((code = allocator.nextId()) != null) {
+            assertNotEquals("100000", code);
+            assertNotEquals("555555", code);
+            assertNotEquals("999999", code);
+            handedOut++;
+        }
+        assertEquals(IdAllocator.RANGE - 3, handedOut);
+        assertEquals(IdAllocator.RANGE, allocator.usedCount());
+    }
+
+    @Test
+    void testReleasedCodeIsHandedOutAgain() {
+        IdAllocator allocator = new IdAllocator();
+        String lost = allocator.nextId();
+        assertTrue(allocator.release(lost));
+        assertFalse(allocator.release(lost));
+        assertFalse(allocator.release("99999"));
+        assertEquals(0, allocator.usedCount());
+
+        boolean seen = false;
+        String code;
+        while ((code = allocator.nextId()) != null) {
+            seen |= code.equals(lost);
+        }
+        assertTrue(seen);
+        assertEquals(IdAllocator.RANGE, allocator.usedCount());
+    }
+
+    @Test
+    void testMarkUsedIgnoresCodesOutsideTheRange() {
+        IdAllocator allocator = new IdAllocator();
+        assertFalse(allocator.markUsed(null));
+        assertFalse(allocator.markUsed("99999"));
+        assertFalse(allocator.markUsed("099999"));
+        assertFalse(allocator.markUsed("1000000"));
+        assertFalse(allocator.markUsed("12a456"));
+        assertEquals(0, allocator.usedCount());
+    }
+}
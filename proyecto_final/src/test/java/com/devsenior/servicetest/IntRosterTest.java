@@ -0,0 +1,144 @@
+package com.devsenior.servicetest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.model.Student;
+import com.devsenior.util.IntRoster;
+import com.devsenior.util.SnapshotMap;
+
+public class IntRosterTest {
+
+    @Test
+    void testMatchesHashMapUnderRandomAddsAndRemoves() {
+        IntRoster<Student> roster = new IntRoster<>(Student::getCode, 0);
+        Map<String, Student> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String code = String.valueOf(100000 + random.nextInt(300));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(code), roster.remove(code));
+            } else {
+                Student student = new Student(code, "Nombre", "e@gmail.com");
+                assertEquals(expected.put(code, student), roster.put(code, student));
+            }
+            assertEquals(expected.size(), roster.size());
+        }
+        assertEquals(expected, roster.snapshot());
+        for (String code : expected.keySet()) {
+            assertTrue(roster.get(code) == expected.get(code));
+        }
+    }
+
+    @Test
+    void testReadersProgressUnderSteadyWrites() throws Exception {
+        IntRoster<Student> roster = new IntRoster<>(Student::getCode, 0);
+        SnapshotMap<String, Student> map = new SnapshotMap<>(new ConcurrentHashMap<>());
+        for (int i = 0; i < 5_000; i++) {
+            Student student = new Student(String.valueOf(100000 + i), "Nombre", "e@gmail.com");
+            roster.put(student.getCode(), student);
+            map.put(student.getCode(), student);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            Student student = new Student(String.valueOf(200000 + w), "Nombre", "e@gmail.com");
+            writers[w] = new Thread(() -> {
+                while (running.get()) {
+                    roster.put(student.getCode(), student);
+                    roster.remove(student.getCode());
+                    map.put(student.getCode(), student);
+                    map.remove(student.getCode());
+                }
+            });
+            writers[w].start();
+        }
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                for (int i = 0; i < 200; i++) {
+                    assertTrue(roster.snapshot().size() >= 5_000);
+                    assertTrue(map.snapshot().size() >= 5_000);
+                    assertTrue(roster.get("100000") != null && roster.size() >= 5_000);
+                }
+            });
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    void testKeepsCodesThatAreNotSixDigitsApart() {
+        IntRoster<Student> roster = new IntRoster<>(Student::getCode, 4);
+        Student padded = new Student("000333", "Ana", "ana@gmail.com");
+        Student shortCode = new Student("333", "Luis", "luis@gmail.com");
+        Student letters = new Student("XXXX", "Eva", "eva@gmail.com");
+
+        roster.put(padded.getCode(), padded);
+        roster.put(shortCode.getCode(), shortCode);
+        roster.put(letters.getCode(), letters);
+
+        assertTrue(roster.get("000333") == padded);
+        assertTrue(roster.get("333") == shortCode);
+        assertTrue(roster.get("XXXX") == letters);
+        assertNull(roster.get("id-falso"));
+        assertNull(roster.remove("id-falso"));
+        assertEquals(3, roster.view().size());
+
+        Student eightDigits = new Student("10000333", "Eva", "eva@gmail.com");
+        Student leadingZero = new Student("0000333", "Eva", "eva@gmail.com");
+        roster.put(eightDigits.getCode(), eightDigits);
+        roster.put(leadingZero.getCode(), leadingZero);
+        assertEquals(10000333, IntRoster.key("10000333"));
+        assertTrue(IntRoster.key("0000333") < 0);
+        assertTrue(roster.get("10000333") == eightDigits);
+        assertTrue(roster.get("0000333") == leadingZero);
+        assertTrue(roster.get("000333") == padded);
+        assertEquals(5, roster.view().size());
+        roster.remove("10000333");
+        roster.remove("0000333");
+        assertTrue(roster.snapshot() == roster.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> roster.view().remove("XXXX"));
+    }
+
+    @Test
+    void testForgetsOtherCodesOnceNoRosterKeepsThem() {
+        IntRoster<Student> first = new IntRoster<>(Student::getCode, 0);
+        IntRoster<Student> second = new IntRoster<>(Student::getCode, 0);
+        Student student = new Student("codigo-temporal", "Ana", "ana@gmail.com");
+        assertEquals(Integer.MIN_VALUE, IntRoster.key(student.getCode()));
+        assertNull(first.get(student.getCode()));
+        assertEquals(Integer.MIN_VALUE, IntRoster.key(student.getCode()));
+
+        first.put(student.getCode(), student);
+        first.put(student.getCode(), student);
+        second.put(student.getCode(), student);
+        int key = IntRoster.key(student.getCode());
+        assertTrue(key < 0 && key != Integer.MIN_VALUE);
+
+        first.remove(student.getCode());
+        assertEquals(key, IntRoster.key(student.getCode()));
+        assertTrue(second.get(key) == student);
+        second.remove(student.getCode());
+        assertEquals(Integer.MIN_VALUE, IntRoster.key(student.getCode()));
+
+        second.put(student.getCode(), student);
+        assertTrue(IntRoster.key(student.getCode()) != key);
+        assertTrue(second.get(student.getCode()) == student);
+        second.remove(student.getCode());
+        assertEquals(Integer.MIN_VALUE, IntRoster.key(student.getCode()));
+    }
+}
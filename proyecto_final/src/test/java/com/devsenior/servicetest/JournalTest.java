@@ -0,0 +1,330 @@
+package com.devsenior.servicetest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.EnrollmentStatus;
+import com.devsenior.model.Student;
+import com.devsenior.persistence.Journal;
+import com.devsenior.persistence.Snapshot;
+import com.devsenior.service.CourseService;
+import com.devsenior.service.StudentService;
+
+public class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReplayRestoresState() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService();
+        StudentService students = new StudentService();
+        Course java;
+        Student ana;
+        try (Journal journal = Journal.open(file, courses, students)) {
+            assertEquals(0, journal.getSkippedRecords());
+            java = courses.createCourse("Java", "2");
+            Course python = courses.createCourse("Python", "5");
+            ana = students.createStudent("Ana Torres", "ana@gmail.com");
+            Student luis = students.createStudent("Luis Gil", "luis@gmail.com");
+            courses.enrrolStudent(ana, java);
+            courses.enrrolStudent(luis, java);
+            courses.enrrolStudent(luis, python);
+            courses.removeStudentFromCourse(python, luis);
+            courses.setNewName(python, "Python Avanzado");
+            courses.setNewCapacity(java, "3");
+            students.setNewEmail(ana, "anatorres@gmail.com");
+        }
+        // Una escritura interrumpida deja una línea incompleta al final.
+        Files.writeString(file, "ENROLL\t" + java.getCode(), StandardOpenOption.APPEND);
+
+        CourseService restoredCourses = new CourseService();
+        StudentService restoredStudents = new StudentService();
+        try (Journal journal = Journal.open(file, restoredCourses, restoredStudents)) {
+            assertEquals(0, journal.getSkippedRecords());
+            Course restored = restoredCourses.findCourseByCode(java.getCode());
+            assertEquals(3, restored.getMaxCapacity());
+            assertEquals(2, restored.getStudents().size());
+            assertEquals(0, restoredCourses.findCourseByName("Python Avanzado").getStudents().size());
+            assertEquals(ana.getCode(), restoredStudents.findStudentByEmail("anatorres@gmail.com").getCode());
+            assertTrue(restoredStudents.findStudentById(ana.getCode()).isEnrolledIn(restored));
+        }
+        assertTrue(Files.readAllLines(file).stream().noneMatch(line -> line.equals("ENROLL\t" + java.getCode())));
+    }
+
+    @Test
+    void testConcurrentEnrollmentsSurviveCompaction() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService(true);
+        StudentService students = new StudentService(true);
+        List<Course> created = new ArrayList<>();
+        try (Journal journal = Journal.open(file, courses, students, 50)) {
+            assertEquals(0, journal.getSkippedRecords());
+            for (int i = 0; i < 4; i++) {
+                created.add(courses.createCourse("Curso " + (char) ('A' + i), "100"));
+            }
+            List<Student> all = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                all.add(students.createStudent("Estudiante " + (char) ('A' + i / 26) + (char) ('a' + i % 26),
+                        "e" + i + "@gmail.com"));
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Student student : all) {
+                tasks.add(pool.submit(() -> {
+                    for (Course course : created) {
+                        courses.enrrolStudent(student, course);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            pool.shutdown();
+        }
+
+        CourseService restored = new CourseService();
+        try (Journal journal = Journal.open(file, restored, new StudentService())) {
+            assertEquals(0, journal.getSkippedRecords());
+            for (Course course : created) {
+                assertEquals(40, restored.findCourseByCode(course.getCode()).getStudents().size());
+            }
+        }
+    }
+
+    @Test
+    void testEnrollmentsInEntitiesBeingCreatedSurviveReplay() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService(true);
+        StudentService students = new StudentService(true);
+        int count = 600;
+        List<String[]> enrolled = Collections.synchronizedList(new ArrayList<>());
+        try (Journal journal = Journal.open(file, courses, students)) {
+            assertEquals(0, journal.getSkippedRecords());
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    courses.createCourse("Curso " + letters(i), "5");
+                }
+                return null;
+            }));
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    students.createStudent("Estudiante " + letters(i), "e" + i + "@gmail.com");
+                }
+                return null;
+            }));
+            for (int t = 0; t < 2; t++) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < count; i++) {
+                        Course course;
+                        Student student;
+                        // Se inscribe apenas el curso y el estudiante se pueden encontrar.
+                        while ((course = courses.tryFindCourseByName("Curso " + letters(i)).orElse(null)) == null
+                                || (student = students.tryFindStudentByName("Estudiante " + letters(i)).orElse(null)) == null) {
+                            Thread.onSpinWait();
+                        }
+                        if (courses.tryEnroll(student, course) == EnrollmentStatus.ENROLLED) {
+                            enrolled.add(new String[] { course.getCode(), student.getCode() });
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            pool.shutdown();
+        }
+        assertEquals(count, enrolled.size());
+
+        CourseService restoredCourses = new CourseService();
+        StudentService restoredStudents = new StudentService();
+        try (Journal journal = Journal.open(file, restoredCourses, restoredStudents)) {
+            assertEquals(0, journal.getSkippedRecords());
+            for (String[] pair : enrolled) {
+                assertTrue(restoredStudents.getStudent(pair[1]).isEnrolledIn(restoredCourses.getCourse(pair[0])));
+            }
+        }
+    }
+
+    @Test
+    void testCompactionWritesSnapshotAndDiscardsStaleJournal() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService();
+        StudentService students = new StudentService();
+        Course java;
+        Student ana;
+        Student luis;
+        byte[] staleJournal;
+        try (Journal journal = Journal.open(file, courses, students)) {
+            java = courses.createCourse("Java", "2");
+            ana = students.createStudent("Ana Torres", "ana@gmail.com");
+            luis = students.createStudent("Luis Gil", "luis@gmail.com");
+            courses.enrrolStudent(ana, java);
+            staleJournal = Files.readAllBytes(file);
+            courses.removeStudentFromCourse(java, ana);
+            journal.compact();
+            courses.enrrolStudent(luis, java);
+        }
+        assertTrue(Files.exists(dir.resolve("registro.journal.snapshot")));
+
+        CourseService restoredCourses = new CourseService();
+        StudentService restoredStudents = new StudentService();
+        try (Journal journal = Journal.open(file, restoredCourses, restoredStudents)) {
+            assertEquals(0, journal.getSkippedRecords());
+            Course restored = restoredCourses.findCourseByCode(java.getCode());
+            assertEquals(1, restored.getStudents().size());
+            assertEquals(1, restored.getReservedSeats());
+            assertTrue(restoredStudents.findStudentById(luis.getCode()).isEnrolledIn(restored));
+            assertEquals(ana.getCode(), restoredStudents.findStudentByName("Ana Torres").getCode());
+        }
+
+        // Una caída entre la foto y la bitácora nueva deja la bitácora de la época anterior.
+        Files.write(file, staleJournal);
+        CourseService afterCrash = new CourseService();
+        try (Journal journal = Journal.open(file, afterCrash, new StudentService())) {
+            assertEquals(0, journal.getSkippedRecords());
+            assertEquals(0, afterCrash.findCourseByCode(java.getCode()).getStudents().size());
+        }
+    }
+
+    @Test
+    void testOpenCompletesInterruptedRotation() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService();
+        StudentService students = new StudentService();
+        Course java;
+        try (Journal journal = Journal.open(file, courses, students)) {
+            assertEquals(0, journal.getSkippedRecords());
+            java = courses.createCourse("Java", "2");
+            courses.enrrolStudent(students.createStudent("Ana Torres", "ana@gmail.com"), java);
+        }
+        // Una caída justo después de mover la bitácora a .prev, antes de crear la nueva.
+        Path previous = dir.resolve("registro.journal.prev");
+        Files.move(file, previous);
+
+        CourseService restored = new CourseService();
+        try (Journal journal = Journal.open(file, restored, new StudentService())) {
+            assertEquals(0, journal.getSkippedRecords());
+            assertEquals(1, restored.findCourseByCode(java.getCode()).getStudents().size());
+        }
+        assertFalse(Files.exists(previous));
+        assertTrue(Files.exists(dir.resolve("registro.journal.snapshot")));
+    }
+
+    @Test
+    void testReplayCountsRecordsThatCannotBeApplied() throws Exception {
+        Path file = dir.resolve("registro.journal");
+        CourseService courses = new CourseService();
+        StudentService students = new StudentService();
+        Course java;
+        Student luis;
+        try (Journal journal = Journal.open(file, courses, students)) {
+            assertEquals(0, journal.getSkippedRecords());
+            java = courses.createCourse("Java", "1");
+            Student ana = students.createStudent("Ana Torres", "ana@gmail.com");
+            luis = students.createStudent("Luis Gil", "luis@gmail.com");
+            courses.enrrolStudent(ana, java);
+            courses.removeStudentFromCourse(java, ana);
+            courses.enrrolStudent(luis, java);
+        }
+        // Sin la remoción, la inscripción de Luis encuentra el curso lleno.
+        List<String> lines = new ArrayList<>(Files.readAllLines(file));
+        lines.removeIf(line -> line.startsWith("REMOVE\t"));
+        Files.write(file, lines);
+
+        CourseService restored = new CourseService();
+        try (Journal journal = Journal.open(file, restored, new StudentService())) {
+            assertEquals(1, journal.getSkippedRecords());
+            assertFalse(restored.findCourseByCode(java.getCode()).getStudents().containsKey(luis.getCode()));
+        }
+        // La bitácora se conserva tal cual, así que el registro se vuelve a informar al reabrirla.
+        try (Journal journal = Journal.open(file, new CourseService(), new StudentService())) {
+            assertEquals(1, journal.getSkippedRecords());
+        }
+    }
+
+    @Test
+    void testSnapshotReadsCapacityAndRosterTogether() throws Exception {
+        CourseService courses = new CourseService(true);
+        StudentService students = new StudentService(true);
+        Course java = courses.createCourse("Java", "2");
+        Student ana = students.createStudent("Ana Torres", "ana@gmail.com");
+        Student luis = students.createStudent("Luis Gil", "luis@gmail.com");
+        courses.enrrolStudent(ana, java);
+        courses.enrrolStudent(luis, java);
+        Path file = dir.resolve("registro.snapshot");
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> writer;
+        java.getLock().lock();
+        try {
+            writer = pool.submit(() -> {
+                Snapshot.write(file, 1, courses, students);
+                return null;
+            });
+            // La foto espera el candado del curso; la remoción y la baja de capacidad ocurren mientras tanto.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!java.getLock().hasQueuedThreads()) {
+                assertTrue(System.nanoTime() < deadline, "La foto no espero el candado del curso");
+                Thread.sleep(1);
+            }
+            courses.removeStudentFromCourse(java, luis);
+            courses.setNewCapacity(java, "1");
+        } finally {
+            java.getLock().unlock();
+        }
+        writer.get();
+        pool.shutdown();
+
+        CourseService restored = new CourseService();
+        Snapshot.load(file, restored, new StudentService());
+        Course loaded = restored.getCourse(java.getCode());
+        assertEquals(1, loaded.getMaxCapacity());
+        assertEquals(1, loaded.getStudents().size());
+        assertTrue(loaded.getStudents().containsKey(ana.getCode()));
+    }
+
+    @Test
+    void testLoadRejectsCourseWithMoreStudentsThanCapacity() throws Exception {
+        Course java = new Course("100000", "Java", 1);
+        for (Student student : List.of(new Student("100000", "Ana Torres", "ana@gmail.com"),
+                new Student("100001", "Luis Gil", "luis@gmail.com"))) {
+            java.addStudent(student, student.getCode());
+            student.addCourse(java, java.getCode());
+        }
+        CourseService courses = new CourseService();
+        StudentService students = new StudentService();
+        courses.restoreCourses(new Course[] { java });
+        students.restoreStudents(java.getStudents().values().toArray(new Student[0]));
+        Path file = dir.resolve("registro.snapshot");
+        Snapshot.write(file, 1, courses, students);
+
+        assertThrows(IOException.class, () -> Snapshot.load(file, new CourseService(), new StudentService()));
+    }
+
+    private static String letters(int i) {
+        return "" + (char) ('A' + i / 26) + (char) ('a' + i % 26);
+    }
+}
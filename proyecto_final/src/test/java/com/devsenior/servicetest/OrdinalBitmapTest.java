@@ -0,0 +1,81 @@
+package com.devsenior.servicetest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.util.OrdinalBitmap;
+
+public class OrdinalBitmapTest {
+
+    @Test
+    void testMatchesTreeSetAcrossArrayAndBitmapContainers() {
+        Random random = new Random(7);
+        for (int bound : new int[] { 300, 20_000, 1_000_000 }) {
+            OrdinalBitmap a = new OrdinalBitmap();
+            OrdinalBitmap b = new OrdinalBitmap();
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            for (int i = 0; i < 60_000; i++) {
+                int value = random.nextInt(bound);
+                boolean toA = random.nextBoolean();
+                OrdinalBitmap bitmap = toA ? a : b;
+                TreeSet<Integer> expected = toA ? expectedA : expectedB;
+                if (random.nextInt(4) == 0) {
+                    assertEquals(expected.remove(value), bitmap.remove(value));
+                } else {
+                    assertEquals(expected.add(value), bitmap.add(value));
+                }
+            }
+            assertEquals(expectedA, toSet(a));
+            assertEquals(expectedA.size(), a.cardinality());
+
+            TreeSet<Integer> and = new TreeSet<>(expectedA);
+            and.retainAll(expectedB);
+            TreeSet<Integer> or = new TreeSet<>(expectedA);
+            or.addAll(expectedB);
+            TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+            andNot.removeAll(expectedB);
+
+            assertEquals(and, toSet(OrdinalBitmap.and(a, b)));
+            assertEquals(and.size(), OrdinalBitmap.andCardinality(a, b));
+            assertEquals(or, toSet(OrdinalBitmap.or(a, b)));
+            assertEquals(or, toSet(OrdinalBitmap.or(List.of(b, a))));
+            assertEquals(andNot, toSet(OrdinalBitmap.andNot(a, b)));
+        }
+    }
+
+    @Test
+    void testNegativeOrdinalsAndImmutableCopies() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        bitmap.add(-1);
+        bitmap.add(5);
+        bitmap.add(Integer.MIN_VALUE + 1);
+
+        OrdinalBitmap copy = bitmap.immutableCopy();
+        bitmap.remove(5);
+
+        assertTrue(copy.contains(-1));
+        assertTrue(copy.contains(5));
+        assertFalse(bitmap.contains(5));
+        assertEquals(List.of(5, Integer.MIN_VALUE + 1, -1), toList(copy));
+        assertThrows(UnsupportedOperationException.class, () -> copy.add(9));
+    }
+
+    private static TreeSet<Integer> toSet(OrdinalBitmap bitmap) {
+        return new TreeSet<>(toList(bitmap));
+    }
+
+    private static List<Integer> toList(OrdinalBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
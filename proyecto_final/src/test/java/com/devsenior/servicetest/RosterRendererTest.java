@@ -0,0 +1,37 @@
+package com.devsenior.servicetest;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import com.devsenior.model.Course;
+import com.devsenior.model.Student;
+import com.devsenior.util.RosterRenderer;
+
+public class RosterRendererTest {
+
+    @Test
+    void testRendersSameTextAsTheOriginalFormat() {
+        Course course = new Course("723569", "Estadistica", 30);
+        Student student = new Student("123647", "Nora", "nora@example.com");
+
+        assertEquals(String.format("Nombre del curso: %s\nCapacidad: %d\nCodigo: %s\n", "Estadistica", 30, "723569"),
+                course.toString());
+        assertEquals(String.format("    Nombre: %s\n    Email: %s\n    Codigo: %s\n", "Nora", "nora@example.com", "123647"),
+                student.toString());
+        assertEquals(course + "\n\n" + course + "\n\n", RosterRenderer.renderCourses(List.of(course, course)));
+    }
+
+    @Test
+    void testWritesRowsToAWriter() throws Exception {
+        StringWriter out = new StringWriter();
+        Student ana = new Student("100001", "Ana", "ana@example.com");
+        Student luis = new Student("100002", "Luis", "luis@example.com");
+
+        new RosterRenderer(out).students(List.of(ana)).students(List.of(luis));
+
+        assertEquals(RosterRenderer.renderStudents(List.of(ana, luis)), out.toString());
+    }
+}
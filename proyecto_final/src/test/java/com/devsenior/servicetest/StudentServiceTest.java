@@ -1,16 +1,23 @@
 package com.devsenior.servicetest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import com.devsenior.exception.ConflictException;
 import com.devsenior.exception.CourseNotFoundException;
 import com.devsenior.exception.InvalidDataException;
 import com.devsenior.exception.StudentNotFoundException;
 import com.devsenior.model.Course;
+import com.devsenior.model.NameMatch;
+import com.devsenior.model.Page;
+import com.devsenior.model.SortOrder;
 import com.devsenior.model.Student;
 import com.devsenior.service.StudentService;
 import com.devsenior.util.Validator;
@@ -25,7 +32,7 @@ public class StudentServiceTest {
             studentservice.addStudent(student);
         } catch (Exception ex) {
         }
-        Exception e = assertThrows(Exception.class, () -> {
+        Exception e = assertThrows(ConflictException.class, () -> {
             studentservice.addStudent(student);
         });
         assertEquals("El estudiante no fue añadido debido a que ya existe", e.getMessage());
@@ -97,6 +104,20 @@ public class StudentServiceTest {
         assertEquals("No se encontro ningun estudiante con ese nombre ", ex.getMessage());
     }
 
+    @Test
+    void testTryFindStudent_vacioSinExcepcion() throws Exception {
+        StudentService service = new StudentService();
+        Student student = service.createStudent("Juan Perez", "juan@example.com");
+
+        assertEquals(student, service.tryFindStudentById(student.getCode()).orElseThrow());
+        assertEquals(student, service.tryFindStudentByName("Juan Perez").orElseThrow());
+        assertEquals(student, service.tryFindStudentByEmail("juan@example.com").orElseThrow());
+        assertTrue(service.tryFindStudentById("id-falso").isEmpty());
+        assertTrue(service.tryFindStudentByEmail(null).isEmpty());
+        assertEquals(Map.of("STUDENT_NOT_FOUND", 1L),
+                service.getMetrics().operation("tryFindStudentById").getFailuresByType());
+    }
+
     @Test
     void testListStudents_ok() throws Exception {
         StudentService service = new StudentService();
@@ -135,6 +156,20 @@ public class StudentServiceTest {
         assertEquals("nuevo@example.com", student.getEmail());
     }
 
+    @Test
+    void testSetNewEmail_actualizaIndice() throws Exception {
+        StudentService service = new StudentService();
+        Student student = service.createStudent("Laura", "laura@example.com");
+
+        service.setNewEmail(student, "laura@gmail.com");
+
+        assertEquals(student, service.findStudentByEmail("laura@gmail.com"));
+        assertTrue(service.isEmailAvaiable("laura@example.com"));
+        assertThrows(StudentNotFoundException.class, () -> {
+            service.findStudentByEmail("laura@example.com");
+        });
+    }
+
     @Test
     void testSetNewEmail_invalido() throws Exception {
         StudentService service = new StudentService();
@@ -158,4 +193,67 @@ public class StudentServiceTest {
         assertEquals("El estudiante no esta inscrito actualmente en ese curso", ex.getMessage());
     }
 
+    @Test
+    void testListStudents_paginadoPorNombreSigueElCursor() throws Exception {
+        StudentService service = new StudentService(true);
+        Student carla = service.createStudent("Carla", "carla@example.com");
+        service.createStudent("Bruno", "bruno@example.com");
+        service.createStudent("Ana", "ana@example.com");
+
+        Page<Student> first = service.listStudents(SortOrder.NAME, null, 2);
+        assertEquals(List.of("Ana", "Bruno"), names(first));
+        assertTrue(first.hasNext());
+
+        service.setNewName(carla, "Aaron");
+        service.createStudent("Diego", "diego@example.com");
+        Page<Student> second = service.listStudents(SortOrder.NAME, first.nextCursor(), 2);
+        assertEquals(List.of("Diego"), names(second));
+        assertNull(second.nextCursor());
+
+        assertEquals(List.of("Aaron", "Ana", "Bruno", "Diego"), names(service.listStudents(SortOrder.NAME, null, 10)));
+        List<Student> byCode = service.listStudents(SortOrder.CODE, null, 10).items();
+        for (int i = 1; i < byCode.size(); i++) {
+            assertTrue(byCode.get(i - 1).getCode().compareTo(byCode.get(i).getCode()) < 0);
+        }
+        assertThrows(InvalidDataException.class, () -> service.listStudents(SortOrder.CODE, null, 0));
+        assertThrows(InvalidDataException.class, () -> service.listStudents(SortOrder.CODE, "%%", 5));
+        assertThrows(UnsupportedOperationException.class, () -> service.listStudents().clear());
+    }
+
+    @Test
+    void testSearchStudents_prefijoSinTildesYConErrores() throws Exception {
+        StudentService service = new StudentService(true);
+        service.addStudent(new Student("100001", "José Pérez", "jose@example.com"));
+        Student marta = service.createStudent("Marta Ruiz", "marta@example.com");
+        service.createStudent("Mario Diaz", "mario@example.com");
+        service.createStudent("Joaquin Sol", "joaquin@example.com");
+
+        assertEquals(List.of("Mario Diaz", "Marta Ruiz"), names(service.searchStudents("Mar", NameMatch.PREFIX, 5)));
+        assertEquals(List.of(), names(service.searchStudents("mar", NameMatch.PREFIX, 5)));
+        assertEquals(List.of("José Pérez"), names(service.searchStudents("jose p", NameMatch.IGNORE_CASE, 5)));
+        assertEquals(List.of("Mario Diaz"), names(service.searchStudents("MAR", NameMatch.IGNORE_CASE, 1)));
+        // "jsoe" tiene dos letras intercambiadas y "joaqiun" tambien.
+        assertEquals(List.of("José Pérez"), names(service.searchStudents("jsoe", NameMatch.FUZZY, 5)));
+        assertEquals(List.of("Joaquin Sol"), names(service.searchStudents("joaqiun", NameMatch.FUZZY, 5)));
+        // Las coincidencias sin correccion van primero.
+        assertEquals(List.of("Marta Ruiz", "Mario Diaz"), names(service.searchStudents("mart", NameMatch.FUZZY, 5)));
+
+        service.setNewName(marta, "Ana Ruiz");
+        assertEquals(List.of("Ana Ruiz"), names(service.searchStudents("an", NameMatch.IGNORE_CASE, 5)));
+        assertEquals(List.of("Mario Diaz"), names(service.searchStudents("mar", NameMatch.IGNORE_CASE, 5)));
+        assertThrows(InvalidDataException.class, () -> service.searchStudents("", NameMatch.PREFIX, 5));
+    }
+
+    private static List<String> names(Page<Student> page) {
+        return names(page.items());
+    }
+
+    private static List<String> names(List<Student> students) {
+        List<String> names = new ArrayList<>();
+        for (Student student : students) {
+            names.add(student.getName());
+        }
+        return names;
+    }
+
 }